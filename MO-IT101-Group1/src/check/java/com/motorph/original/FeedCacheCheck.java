@@ -0,0 +1,211 @@
+package com.motorph.original;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Self-checking harness for {@link FeedCache}.
+ *
+ * A local stand-in for the feed server (the JDK's built-in HTTP server) serves
+ * a CSV body with an ETag and answers conditional requests with 304. The
+ * harness then walks the cache through a first download (200), a fresh hit, a
+ * revalidation (304), a changed feed, the server going down with an entry
+ * older than the eviction age, and the eviction of another expired entry.
+ * Every check is printed, and the exit status is 1 if any of them failed.
+ *
+ * The harness lives in src/check/java and is only compiled and run with the
+ * check profile:
+ * <pre>
+ * mvn -P check verify
+ * </pre>
+ */
+public final class FeedCacheCheck {
+
+    private static int failures;
+
+    private FeedCacheCheck() {
+    }
+
+    /**
+     * Feed server stand-in: one body with an ETag, and a count of the requests it received
+     */
+    private static final class StandIn {
+        final HttpServer server;
+        final AtomicInteger requests = new AtomicInteger();
+        volatile String body = "id,name\n1,First\n";
+        volatile String etag = "\"v1\"";
+
+        StandIn() throws IOException {
+            server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            server.createContext("/", this::handle);
+            server.start();
+        }
+
+        String url(String path) {
+            return "http://127.0.0.1:" + server.getAddress().getPort() + path;
+        }
+
+        private void handle(HttpExchange exchange) throws IOException {
+            requests.incrementAndGet();
+            String currentEtag = etag;
+            exchange.getResponseHeaders().set("ETag", currentEtag);
+            if (currentEtag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path directory = Files.createTempDirectory("motorph-feed-cache");
+        StandIn standIn = new StandIn();
+        try {
+            String feed = standIn.url("/employees.csv");
+            String other = standIn.url("/attendance.csv");
+
+            // 200: the first fetch downloads the body and stores its validators
+            FeedCache fresh = new FeedCache(directory, Duration.ofMinutes(10), Duration.ofDays(30));
+            Path body = fresh.fetch(feed);
+            check(Files.readString(body).equals(standIn.body), "200 stores the downloaded body");
+            check("\"v1\"".equals(metadata(directory, feed).getProperty("etag")), "200 stores the ETag");
+            check(standIn.requests.get() == 1, "200 sends one request");
+
+            // A fresh copy is returned without contacting the server
+            fresh.fetch(feed);
+            check(standIn.requests.get() == 1, "a fresh copy is used without a request");
+
+            // 304: a stale copy is revalidated and kept
+            FeedCache revalidating = new FeedCache(directory, Duration.ZERO, Duration.ofDays(30));
+            long fetchedBefore = fetchedAt(directory, feed);
+            Thread.sleep(5);
+            body = revalidating.fetch(feed);
+            check(standIn.requests.get() == 2, "a stale copy is revalidated");
+            check(Files.readString(body).equals(standIn.body), "304 keeps the cached body");
+            check(fetchedAt(directory, feed) > fetchedBefore, "304 renews the fetch time");
+
+            // 200 after a change: body and validators are replaced together
+            standIn.body = "id,name\n1,First\n2,Second\n";
+            standIn.etag = "\"v2\"";
+            body = revalidating.fetch(feed);
+            check(Files.readString(body).equals(standIn.body), "a changed feed replaces the body");
+            check("\"v2\"".equals(metadata(directory, feed).getProperty("etag")), "a changed feed replaces the ETag");
+            check(leftoverTempFiles(directory) == 0, "no temporary files are left behind");
+
+            // Eviction: a successful fetch deletes other expired entries, but not its own
+            revalidating.fetch(other);
+            age(directory, other);
+            age(directory, feed);
+            FeedCache evicting = new FeedCache(directory, Duration.ZERO, Duration.ofDays(1));
+            evicting.fetch(feed);
+            check(metadata(directory, other) == null, "a successful fetch evicts other expired entries");
+            check(metadata(directory, feed) != null, "the fetched entry is not evicted");
+
+            // Network down: an entry older than the eviction age is still used
+            age(directory, feed);
+            standIn.server.stop(0);
+            try {
+                body = evicting.fetch(feed);
+                check(Files.readString(body).equals(standIn.body), "network down falls back to the cached copy");
+            } catch (IOException e) {
+                check(false, "network down falls back to the cached copy (" + e.getMessage() + ")");
+            }
+            check(metadata(directory, feed) != null, "network down keeps the expired entry");
+
+            // Network down without a cached copy is an error
+            try {
+                evicting.fetch(other);
+                check(false, "network down without a cached copy fails");
+            } catch (IOException e) {
+                check(true, "network down without a cached copy fails");
+            }
+        } finally {
+            standIn.server.stop(0);
+            try (Stream<Path> paths = Files.walk(directory)) {
+                paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+
+        System.out.println(failures == 0 ? "All checks passed" : failures + " check(s) failed");
+        System.exit(failures == 0 ? 0 : 1);
+    }
+
+    private static void check(boolean passed, String description) {
+        System.out.println((passed ? "ok      " : "FAILED  ") + description);
+        if (!passed) {
+            failures++;
+        }
+    }
+
+    /**
+     * Returns the cache metadata of the given feed, or null if it is not cached
+     */
+    private static Properties metadata(Path directory, String url) throws IOException {
+        Path meta = metadataFile(directory, url);
+        if (meta == null) {
+            return null;
+        }
+        try (Reader reader = Files.newBufferedReader(meta, StandardCharsets.UTF_8)) {
+            Properties metadata = new Properties();
+            metadata.load(reader);
+            return metadata;
+        }
+    }
+
+    private static Path metadataFile(Path directory, String url) throws IOException {
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory, "*.properties")) {
+            for (Path meta : entries) {
+                Properties metadata = new Properties();
+                try (Reader reader = Files.newBufferedReader(meta, StandardCharsets.UTF_8)) {
+                    metadata.load(reader);
+                }
+                if (url.equals(metadata.getProperty("url"))) {
+                    return meta;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static long fetchedAt(Path directory, String url) throws IOException {
+        return Long.parseLong(metadata(directory, url).getProperty("fetchedAt"));
+    }
+
+    /**
+     * Backdates the last fetch of the given feed past any eviction age
+     */
+    private static void age(Path directory, String url) throws IOException {
+        Path meta = metadataFile(directory, url);
+        Properties metadata = metadata(directory, url);
+        metadata.setProperty("fetchedAt", "0");
+        try (Writer writer = Files.newBufferedWriter(meta, StandardCharsets.UTF_8)) {
+            metadata.store(writer, null);
+        }
+    }
+
+    private static long leftoverTempFiles(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(".tmp")).count();
+        }
+    }
+}
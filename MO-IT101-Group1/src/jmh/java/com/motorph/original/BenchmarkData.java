@@ -0,0 +1,92 @@
+package com.motorph.original;
+
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic employee and attendance data for the benchmarks.
+ *
+ * Employees are numbered from 10001 and get a mix of positions and salaries;
+ * each works one punch per weekday starting 2024-01-01, logging in between
+ * 7:45 and 8:30 and out between 16:30 and 19:00.
+ */
+final class BenchmarkData {
+
+    static final int FIRST_EMPLOYEE = 10001;
+    static final int FIRST_EPOCH_DAY = (int) java.time.LocalDate.of(2024, 1, 1).toEpochDay();
+
+    private static final String EMPLOYEE_HEADER = "Employee #,Last Name,First Name,Birthday,Address,Phone Number,"
+            + "SSS #,Philhealth #,TIN #,Pag-ibig #,Status,Position,Immediate Supervisor,Basic Salary,"
+            + "Rice Subsidy,Phone Allowance,Clothing Allowance,Gross Semi-monthly Rate,Hourly Rate\n";
+    private static final String[] POSITIONS = {
+            "Chief Executive Officer", "HR Manager", "Account Team Leader", "Account Rank and File"
+    };
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Employee CSV with a header and the given number of employees.
+     */
+    static String employeesCsv(int employees) {
+        SplittableRandom random = new SplittableRandom(42);
+        StringBuilder csv = new StringBuilder(EMPLOYEE_HEADER);
+        for (int i = 0; i < employees; i++) {
+            int salary = 20000 + random.nextInt(70) * 1000;
+            csv.append(FIRST_EMPLOYEE + i).append(",Last").append(i).append(",First").append(i)
+                    .append(",01/15/1990,\"Block 1, Makati City\",555-0100,44-0000000-0,000000000000,")
+                    .append("000-000-000-000,000000000000,Regular,").append(POSITIONS[i % POSITIONS.length])
+                    .append(",N/A,\"").append(String.format("%,d", salary)).append("\",\"1,500\",\"1,000\",")
+                    .append("\"1,000\",\"").append(String.format("%,d", salary / 2)).append("\",")
+                    // Every fourth employee has no hourly rate, so the salary fallback is exercised too
+                    .append(i % 4 == 3 ? "" : String.format("%.2f", salary / 21.0 / 8)).append('\n');
+        }
+        return csv.toString();
+    }
+
+    /**
+     * Attendance CSV with one punch per weekday for every employee.
+     */
+    static String attendanceCsv(int employees, int weekdays) {
+        SplittableRandom random = new SplittableRandom(7);
+        StringBuilder csv = new StringBuilder("Employee #,Last Name,First Name,Date,Log In,Log Out\n");
+        for (int i = 0; i < employees; i++) {
+            int day = FIRST_EPOCH_DAY;
+            for (int d = 0; d < weekdays; d++, day = nextWeekday(day)) {
+                java.time.LocalDate date = java.time.LocalDate.ofEpochDay(day);
+                int in = 465 + random.nextInt(45);
+                int out = 990 + random.nextInt(150);
+                csv.append(FIRST_EMPLOYEE + i).append(",Last").append(i).append(",First").append(i).append(',')
+                        .append(String.format("%02d/%02d/%d", date.getMonthValue(), date.getDayOfMonth(),
+                                date.getYear()))
+                        .append(',').append(in / 60).append(':').append(String.format("%02d", in % 60))
+                        .append(',').append(out / 60).append(':').append(String.format("%02d", out % 60))
+                        .append('\n');
+            }
+        }
+        return csv.toString();
+    }
+
+    /**
+     * Attendance index with one punch per weekday for every employee.
+     */
+    static AttendanceIndex attendanceIndex(int employees, int weekdays) {
+        SplittableRandom random = new SplittableRandom(7);
+        AttendanceIndex.Builder builder = new AttendanceIndex.Builder();
+        for (int i = 0; i < employees; i++) {
+            int day = FIRST_EPOCH_DAY;
+            for (int d = 0; d < weekdays; d++, day = nextWeekday(day)) {
+                builder.add(FIRST_EMPLOYEE + i, day, 465 + random.nextInt(45), 990 + random.nextInt(150));
+            }
+        }
+        return builder.build();
+    }
+
+    private static int nextWeekday(int epochDay) {
+        // 1970-01-01 was a Thursday, so (epochDay + 3) % 7 is 0 for Monday
+        int next = epochDay + 1;
+        while ((next + 3) % 7 >= 5) {
+            next++;
+        }
+        return next;
+    }
+}
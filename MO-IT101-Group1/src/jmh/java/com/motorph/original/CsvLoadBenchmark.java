@@ -0,0 +1,70 @@
+package com.motorph.original;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Loading the employee and attendance CSV files from local disk.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CsvLoadBenchmark {
+
+    @Param({ "100", "2000" })
+    public int employees;
+
+    private static final int WEEKDAYS = 60;
+
+    private Path directory;
+    private String employeeFile;
+    private String attendanceFile;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("motorph-bench");
+        Path employeePath = directory.resolve("employees.csv");
+        Path attendancePath = directory.resolve("attendance.csv");
+        Files.writeString(employeePath, BenchmarkData.employeesCsv(employees), StandardCharsets.UTF_8);
+        Files.writeString(attendancePath, BenchmarkData.attendanceCsv(employees, WEEKDAYS), StandardCharsets.UTF_8);
+        employeeFile = employeePath.toString();
+        attendanceFile = attendancePath.toString();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(directory.resolve("employees.csv"));
+        Files.deleteIfExists(directory.resolve("attendance.csv"));
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public List<Employee> loadEmployeesFromCSV() throws IOException {
+        return MotorPHPayroll.loadEmployeesFromCSV(employeeFile);
+    }
+
+    @Benchmark
+    public AttendanceIndex loadAttendanceFromCSV() throws IOException {
+        return MotorPHPayroll.loadAttendanceFromCSV(attendanceFile);
+    }
+}
@@ -0,0 +1,82 @@
+package com.motorph.original;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Gross pay of every employee for one month, and building the daily work-hour
+ * aggregates it is summed from, at several company and history sizes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GrossPayBenchmark {
+
+    @Param({ "100", "2000" })
+    public int employees;
+
+    /**
+     * Weekdays of attendance history per employee (one month or one year)
+     */
+    @Param({ "21", "260" })
+    public int weekdays;
+
+    private AttendanceIndex attendance;
+    private DailyWorkStore workHours;
+    private DailyWorkStore sourcedWorkHours;
+    private LocalDate startDate;
+    private LocalDate endDate;
+
+    @Setup
+    public void setUp() {
+        attendance = BenchmarkData.attendanceIndex(employees, weekdays);
+        workHours = DailyWorkStore.build(attendance);
+        sourcedWorkHours = workHours.update(attendance, 1);
+        startDate = LocalDate.of(2024, 1, 1);
+        endDate = LocalDate.of(2024, 1, 31);
+    }
+
+    @Benchmark
+    public long grossPay() {
+        long hourlyRate = Centavos.ofPesos(250.0);
+        long total = 0;
+        for (int i = 0; i < employees; i++) {
+            DailyWorkStore.EmployeeDays days = workHours.forEmployee(BenchmarkData.FIRST_EMPLOYEE + i);
+            int from = days.fromIndex(startDate.toEpochDay());
+            int to = days.toIndex(endDate.toEpochDay());
+            total += PayrollCalculator.regularPay(hourlyRate, days.regularMinutes(from, to))
+                    + PayrollCalculator.overtimePay(hourlyRate, days.overtimeMinutes(from, to));
+        }
+        return total;
+    }
+
+    @Benchmark
+    public DailyWorkStore buildWorkStore() {
+        return DailyWorkStore.build(attendance);
+    }
+
+    @Benchmark
+    public DailyWorkStore updateUnchangedWorkStore() {
+        return workHours.update(attendance);
+    }
+
+    @Benchmark
+    public DailyWorkStore updateUnchangedSource() {
+        return sourcedWorkHours.update(attendance, 1);
+    }
+}
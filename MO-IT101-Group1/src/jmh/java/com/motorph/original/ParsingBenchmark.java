@@ -0,0 +1,70 @@
+package com.motorph.original;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Field-level parsing: attendance dates and times, and employee records
+ * including the hourly rate fallback.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParsingBenchmark {
+
+    private static final int EMPLOYEES = 1000;
+
+    private final char[] date = "06/03/2024".toCharArray();
+    private final char[] shortDate = "6/3/2024".toCharArray();
+    private final char[] time = "17:05".toCharArray();
+    private String employeesCsv;
+
+    @Setup
+    public void setUp() {
+        employeesCsv = BenchmarkData.employeesCsv(EMPLOYEES);
+    }
+
+    @Benchmark
+    public int decodeDate() {
+        return DateTimeCodec.decodeDate(date, 0, date.length);
+    }
+
+    @Benchmark
+    public int decodeShortDate() {
+        return DateTimeCodec.decodeDate(shortDate, 0, shortDate.length);
+    }
+
+    @Benchmark
+    public int decodeTime() {
+        return DateTimeCodec.decodeTime(time, 0, time.length);
+    }
+
+    /**
+     * Parses 1000 employee records, resolving each hourly rate
+     */
+    @Benchmark
+    public void parseEmployees(Blackhole blackhole) throws IOException {
+        try (CsvParser parser = new CsvParser(new StringReader(employeesCsv))) {
+            parser.next();
+            while (parser.next()) {
+                blackhole.consume(Employee.parse(parser));
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.motorph.original;
+
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Deductions and net pay for a batch of gross pay amounts, one employee at a
+ * time and column-at-a-time.
+ *
+ * The score is the time for the whole batch; the secondary "rows" result is
+ * the time per employee, so the scalar and batch variants can be compared
+ * across batch sizes (up to 1M rows).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PayrollCalculatorBenchmark {
+
+    @Param({ "1000", "10000", "1000000" })
+    public int employees;
+
+    /**
+     * Employees computed, reported as the time per employee next to the batch time
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Rows {
+        public long rows;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            rows = 0;
+        }
+    }
+
+    private PayrollCalculator calculator;
+    private long[] grossPay;
+    private long[] sss;
+    private long[] philHealth;
+    private long[] pagIbig;
+    private long[] taxableIncome;
+    private long[] withholdingTax;
+    private long[] netPay;
+
+    @Setup
+    public void setUp() {
+        calculator = new PayrollCalculator(ContributionTables.defaults(), LocalDate.of(2024, 6, 30));
+        SplittableRandom random = new SplittableRandom(1);
+        grossPay = new long[employees];
+        for (int i = 0; i < employees; i++) {
+            grossPay[i] = Centavos.ofPesos(3000 + random.nextDouble() * 120000);
+        }
+        sss = new long[employees];
+        philHealth = new long[employees];
+        pagIbig = new long[employees];
+        taxableIncome = new long[employees];
+        withholdingTax = new long[employees];
+        netPay = new long[employees];
+    }
+
+    @Benchmark
+    public void netPay(Rows counter, Blackhole blackhole) {
+        counter.rows += employees;
+        for (long gross : grossPay) {
+            blackhole.consume(calculator.netPay(gross));
+        }
+    }
+
+    @Benchmark
+    public long[] calculateNetPayBatch(Rows counter) {
+        counter.rows += employees;
+        calculator.calculateNetPay(grossPay, employees, sss, philHealth, pagIbig, taxableIncome, withholdingTax,
+                netPay);
+        return netPay;
+    }
+
+    @Benchmark
+    public void sssDeduction(Rows counter, Blackhole blackhole) {
+        counter.rows += employees;
+        for (long gross : grossPay) {
+            blackhole.consume(calculator.sssDeduction(gross));
+        }
+    }
+
+    @Benchmark
+    public void withholdingTax(Rows counter, Blackhole blackhole) {
+        counter.rows += employees;
+        for (long gross : grossPay) {
+            blackhole.consume(calculator.withholdingTax(gross));
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package com.motorph.original;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * In-memory index of attendance records grouped by employee.
+ *
+ * The index is built once after the attendance data is loaded. Each employee's
+ * punches are kept sorted by date so that a pay period can be located with a
+ * binary search instead of scanning every attendance row for every employee.
+ * A full payroll run therefore only touches the rows inside the requested
+ * period.
+ *
+ * Punches are stored packed in primitive arrays: the date as an epoch day and
+ * the log in/out times as minutes of the day. Dates and times are decoded once
+ * while the index is built, not on every report.
+ *
+ * Instances are immutable after construction and safe to share.
+ */
+public final class AttendanceIndex {
+
+    private static final EmployeeAttendance EMPTY = new EmployeeAttendance(new int[0], new short[0], new short[0]);
+
+    private final Map<Integer, EmployeeAttendance> byEmployee;
+    private final int recordCount;
+
+    private AttendanceIndex(Map<Integer, EmployeeAttendance> byEmployee, int recordCount) {
+        this.byEmployee = byEmployee;
+        this.recordCount = recordCount;
+    }
+
+    /**
+     * Creates an index from per-employee attendance that is already sorted by date.
+     * Used when reading a {@link DataSnapshot}.
+     */
+    static AttendanceIndex ofSorted(Map<Integer, EmployeeAttendance> byEmployee) {
+        int count = 0;
+        for (EmployeeAttendance attendance : byEmployee.values()) {
+            count += attendance.size();
+        }
+        return new AttendanceIndex(Collections.unmodifiableMap(new HashMap<>(byEmployee)), count);
+    }
+
+    /**
+     * Returns the attendance of a single employee, or an empty view if the
+     * employee has no indexed records.
+     */
+    public EmployeeAttendance forEmployee(int empNumber) {
+        return byEmployee.getOrDefault(empNumber, EMPTY);
+    }
+
+    /**
+     * Returns an index holding only the attendance of the given employee,
+     * sharing its rows with this index.
+     */
+    public AttendanceIndex only(int empNumber) {
+        EmployeeAttendance attendance = byEmployee.get(empNumber);
+        if (attendance == null) {
+            return new AttendanceIndex(Collections.emptyMap(), 0);
+        }
+        return new AttendanceIndex(Collections.singletonMap(empNumber, attendance), attendance.size());
+    }
+
+    /**
+     * Returns the numbers of all employees with indexed attendance.
+     */
+    public Set<Integer> employeeNumbers() {
+        return byEmployee.keySet();
+    }
+
+    /**
+     * Returns the number of attendance rows held by the index.
+     */
+    public int recordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Date-sorted attendance rows of one employee.
+     */
+    public static final class EmployeeAttendance {
+        private final int[] epochDays;
+        private final short[] minutesIn;
+        private final short[] minutesOut;
+
+        EmployeeAttendance(int[] epochDays, short[] minutesIn, short[] minutesOut) {
+            this.epochDays = epochDays;
+            this.minutesIn = minutesIn;
+            this.minutesOut = minutesOut;
+        }
+
+        /**
+         * Number of rows for this employee.
+         */
+        public int size() {
+            return epochDays.length;
+        }
+
+        /**
+         * Date of the row at the given position, as an epoch day.
+         */
+        public int epochDay(int i) {
+            return epochDays[i];
+        }
+
+        /**
+         * Log in time of the row at the given position, in minutes after midnight.
+         */
+        public int minuteIn(int i) {
+            return minutesIn[i];
+        }
+
+        /**
+         * Log out time of the row at the given position, in minutes after midnight.
+         */
+        public int minuteOut(int i) {
+            return minutesOut[i];
+        }
+
+        /**
+         * Position of the first row dated on or after the given epoch day.
+         */
+        public int fromIndex(long startEpochDay) {
+            return lowerBound(startEpochDay);
+        }
+
+        /**
+         * Position just past the last row dated on or before the given epoch day.
+         */
+        public int toIndex(long endEpochDay) {
+            return lowerBound(endEpochDay + 1);
+        }
+
+        // Direct access to the packed columns for DataSnapshot; callers must not modify them
+        int[] epochDays() {
+            return epochDays;
+        }
+
+        short[] minutesIn() {
+            return minutesIn;
+        }
+
+        short[] minutesOut() {
+            return minutesOut;
+        }
+
+        private int lowerBound(long epochDay) {
+            int low = 0;
+            int high = epochDays.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (epochDays[mid] < epochDay) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+
+    /**
+     * Collects decoded punches and groups them into an index.
+     *
+     * Punches of the same employee and day keep the order in which they were added.
+     */
+    public static final class Builder {
+        private int size;
+        private int[] empNumbers = new int[1024];
+        private int[] epochDays = new int[1024];
+        private short[] minutesIn = new short[1024];
+        private short[] minutesOut = new short[1024];
+
+        /**
+         * Adds one punch.
+         *
+         * @param empNumber Employee number
+         * @param epochDay Date as an epoch day
+         * @param minuteIn Log in time in minutes after midnight
+         * @param minuteOut Log out time in minutes after midnight
+         */
+        public Builder add(int empNumber, int epochDay, int minuteIn, int minuteOut) {
+            if (size == empNumbers.length) {
+                int capacity = size * 2;
+                empNumbers = Arrays.copyOf(empNumbers, capacity);
+                epochDays = Arrays.copyOf(epochDays, capacity);
+                minutesIn = Arrays.copyOf(minutesIn, capacity);
+                minutesOut = Arrays.copyOf(minutesOut, capacity);
+            }
+            empNumbers[size] = empNumber;
+            epochDays[size] = epochDay;
+            minutesIn[size] = (short) minuteIn;
+            minutesOut[size] = (short) minuteOut;
+            size++;
+            return this;
+        }
+
+        /**
+         * Builds the index from the punches added so far.
+         */
+        public AttendanceIndex build() {
+            // Count rows per employee, then sort each employee's rows by (day, insertion order)
+            Map<Integer, int[]> counts = new HashMap<>();
+            for (int i = 0; i < size; i++) {
+                counts.computeIfAbsent(empNumbers[i], k -> new int[1])[0]++;
+            }
+
+            Map<Integer, long[]> keys = new HashMap<>(counts.size() * 2);
+            Map<Integer, int[]> fill = new HashMap<>(counts.size() * 2);
+            for (Map.Entry<Integer, int[]> entry : counts.entrySet()) {
+                keys.put(entry.getKey(), new long[entry.getValue()[0]]);
+                fill.put(entry.getKey(), new int[1]);
+            }
+            for (int i = 0; i < size; i++) {
+                int[] next = fill.get(empNumbers[i]);
+                keys.get(empNumbers[i])[next[0]++] = ((long) epochDays[i] << 32) | i;
+            }
+
+            Map<Integer, EmployeeAttendance> byEmployee = new HashMap<>(keys.size() * 2);
+            for (Map.Entry<Integer, long[]> entry : keys.entrySet()) {
+                long[] sorted = entry.getValue();
+                Arrays.sort(sorted);
+
+                int[] days = new int[sorted.length];
+                short[] in = new short[sorted.length];
+                short[] out = new short[sorted.length];
+                for (int j = 0; j < sorted.length; j++) {
+                    int row = (int) sorted[j];
+                    days[j] = epochDays[row];
+                    in[j] = minutesIn[row];
+                    out[j] = minutesOut[row];
+                }
+                byEmployee.put(entry.getKey(), new EmployeeAttendance(days, in, out));
+            }
+
+            return new AttendanceIndex(Collections.unmodifiableMap(byEmployee), size);
+        }
+    }
+}
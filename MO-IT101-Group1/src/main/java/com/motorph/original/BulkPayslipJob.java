@@ -0,0 +1,167 @@
+package com.motorph.original;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Writes one payslip file per employee for a pay period.
+ *
+ * Each employee's pay is computed, rendered with {@link PayslipRenderer} and
+ * written to {@code <employee number>.txt} in the output directory. The work
+ * runs on a bounded pool of worker threads; a semaphore limits how many
+ * payslips are queued or in flight, so a slow disk holds back submission
+ * instead of letting rendered payslips pile up in memory. Progress and
+ * throughput are reported while the job runs.
+ *
+ * The number of worker threads is taken from the {@value #THREADS_PROPERTY}
+ * system property and defaults to twice the number of available processors,
+ * since the workers spend part of their time waiting on file writes.
+ */
+public final class BulkPayslipJob {
+
+    /**
+     * System property used to configure the number of worker threads
+     */
+    public static final String THREADS_PROPERTY = "motorph.payslip.threads";
+
+    /**
+     * Payslips allowed to be queued or in flight per worker thread
+     */
+    private static final int IN_FLIGHT_PER_THREAD = 4;
+
+    private static final long PROGRESS_INTERVAL_MILLIS = 1000;
+
+    private final int threads;
+    private final PrintStream progress;
+
+    /**
+     * Creates a job with the given number of worker threads.
+     *
+     * @param threads Number of worker threads (at least 1)
+     * @param progress Where progress is reported
+     */
+    public BulkPayslipJob(int threads, PrintStream progress) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Threads must be at least 1: " + threads);
+        }
+        this.threads = threads;
+        this.progress = progress;
+    }
+
+    /**
+     * Creates a job configured from the {@value #THREADS_PROPERTY} system property.
+     */
+    public static BulkPayslipJob fromSystemProperties(PrintStream progress) {
+        int threads = 2 * Runtime.getRuntime().availableProcessors();
+        String configured = System.getProperty(THREADS_PROPERTY);
+        if (configured != null) {
+            try {
+                threads = Math.max(1, Integer.parseInt(configured.trim()));
+            } catch (NumberFormatException e) {
+                System.err.println("Ignoring invalid " + THREADS_PROPERTY + ": " + configured);
+            }
+        }
+        return new BulkPayslipJob(threads, progress);
+    }
+
+    /**
+     * Outcome of a bulk payslip run
+     *
+     * @param written Number of payslip files written
+     * @param failed Number of employees whose payslip could not be written
+     * @param elapsedNanos Wall-clock duration of the run
+     */
+    public record Summary(int written, int failed, long elapsedNanos) {
+
+        /**
+         * Payslips written per second.
+         */
+        public double throughput() {
+            return elapsedNanos == 0 ? 0 : written / (elapsedNanos / 1e9);
+        }
+    }
+
+    /**
+     * Writes a payslip file for every employee.
+     *
+     * @param employees The employees to write payslips for
+     * @param render Computes and renders the payslip text of one employee
+     * @param directory The output directory (created if needed)
+     * @return The number of payslips written and failed, and the time taken
+     * @throws IOException If the output directory cannot be created
+     * @throws InterruptedException If the calling thread is interrupted while waiting
+     */
+    public Summary run(List<Employee> employees, Function<Employee, String> render, Path directory)
+            throws IOException, InterruptedException {
+        Files.createDirectories(directory);
+
+        Semaphore inFlight = new Semaphore(threads * IN_FLIGHT_PER_THREAD);
+        AtomicInteger written = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        int total = employees.size();
+
+        long started = System.nanoTime();
+        long nextReport = System.currentTimeMillis() + PROGRESS_INTERVAL_MILLIS;
+        ExecutorService pool = Executors.newFixedThreadPool(threads, workerThreads());
+        try {
+            for (Employee employee : employees) {
+                // Blocks while the writers are behind, which bounds memory use
+                inFlight.acquire();
+                pool.execute(() -> {
+                    try {
+                        Path file = directory.resolve(employee.employeeNumber() + ".txt");
+                        Files.writeString(file, render.apply(employee), StandardCharsets.UTF_8);
+                        written.incrementAndGet();
+                    } catch (IOException | RuntimeException e) {
+                        failed.incrementAndGet();
+                        PayrollMetrics.global().swallowed("BulkPayslipJob.run", e);
+                        System.err.println("Payslip for employee " + employee.employeeNumber()
+                                + " failed: " + e.getMessage());
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+
+                if (System.currentTimeMillis() >= nextReport) {
+                    reportProgress(written.get() + failed.get(), total, started);
+                    nextReport += PROGRESS_INTERVAL_MILLIS;
+                }
+            }
+
+            pool.shutdown();
+            while (!pool.awaitTermination(PROGRESS_INTERVAL_MILLIS, TimeUnit.MILLISECONDS)) {
+                reportProgress(written.get() + failed.get(), total, started);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        return new Summary(written.get(), failed.get(), System.nanoTime() - started);
+    }
+
+    private void reportProgress(int done, int total, long started) {
+        double seconds = (System.nanoTime() - started) / 1e9;
+        progress.printf("  %d of %d payslips (%.0f%%), %.0f per second%n",
+                done, total, total == 0 ? 100.0 : 100.0 * done / total, seconds > 0 ? done / seconds : 0);
+    }
+
+    private static ThreadFactory workerThreads() {
+        AtomicInteger count = new AtomicInteger();
+        return task -> {
+            Thread thread = new Thread(task, "payslip-writer-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,175 @@
+package com.motorph.original;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.TreeSet;
+
+/**
+ * Counts working days (Monday to Friday, excluding holidays) between dates.
+ *
+ * Weekdays are counted with arithmetic on epoch days, and holidays with a
+ * prefix sum over the span of the holiday list, so a count takes constant time
+ * whatever the length of the range. The calendar is loaded once per run and
+ * shared by all payroll computations.
+ *
+ * No holidays are observed unless a holiday file is given with the
+ * {@value #FILE_PROPERTY} system property. A holiday file is a CSV with one
+ * date per line:
+ * <pre>
+ * date,name
+ * 2024-06-12,Independence Day
+ * 2024-08-26,National Heroes Day
+ * </pre>
+ * Dates use yyyy-MM-dd; the name is optional. Lines starting with # and a
+ * header line starting with "date" are ignored. Holidays falling on a weekend
+ * do not change the count.
+ *
+ * Instances are immutable and can be shared by any number of threads.
+ */
+public final class BusinessCalendar {
+
+    public static final String FILE_PROPERTY = "motorph.holidays.file";
+
+    /**
+     * Weekdays among the first n days of a week starting on Thursday, the day
+     * of the week of epoch day 0 (1970-01-01)
+     */
+    private static final int[] WEEKDAYS_IN_PARTIAL_WEEK = { 0, 1, 2, 2, 2, 3, 4 };
+
+    private static final BusinessCalendar WEEKDAYS = new BusinessCalendar(0, new int[] { 0 });
+
+    // holidaysBefore[i] is the number of weekday holidays from firstDay up to,
+    // but not including, epoch day firstDay + i
+    private final long firstDay;
+    private final int[] holidaysBefore;
+
+    private BusinessCalendar(long firstDay, int[] holidaysBefore) {
+        this.firstDay = firstDay;
+        this.holidaysBefore = holidaysBefore;
+    }
+
+    /**
+     * Returns a calendar in which every Monday to Friday is a working day.
+     */
+    public static BusinessCalendar weekdays() {
+        return WEEKDAYS;
+    }
+
+    /**
+     * Returns a calendar observing the given holidays.
+     *
+     * @param holidays The holiday dates, in any order
+     * @return The calendar
+     */
+    public static BusinessCalendar of(Iterable<LocalDate> holidays) {
+        TreeSet<Long> weekdayHolidays = new TreeSet<>();
+        for (LocalDate holiday : holidays) {
+            DayOfWeek day = holiday.getDayOfWeek();
+            if (day != DayOfWeek.SATURDAY && day != DayOfWeek.SUNDAY) {
+                weekdayHolidays.add(holiday.toEpochDay());
+            }
+        }
+        if (weekdayHolidays.isEmpty()) {
+            return WEEKDAYS;
+        }
+
+        long firstDay = weekdayHolidays.first();
+        long span = weekdayHolidays.last() - firstDay + 1;
+        if (span >= Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Holidays span too many days: " + span);
+        }
+        int[] holidaysBefore = new int[(int) span + 1];
+        for (long holiday : weekdayHolidays) {
+            holidaysBefore[(int) (holiday - firstDay) + 1] = 1;
+        }
+        for (int i = 1; i < holidaysBefore.length; i++) {
+            holidaysBefore[i] += holidaysBefore[i - 1];
+        }
+        return new BusinessCalendar(firstDay, holidaysBefore);
+    }
+
+    /**
+     * Returns the calendar from the file named by the {@value #FILE_PROPERTY}
+     * system property, or a calendar without holidays if it is not set.
+     */
+    public static BusinessCalendar fromSystemProperties() throws IOException {
+        String file = System.getProperty(FILE_PROPERTY);
+        return file == null ? weekdays() : load(Paths.get(file));
+    }
+
+    /**
+     * Loads a calendar from a holiday file.
+     *
+     * @param file The holiday file
+     * @return The calendar observing the holidays in the file
+     * @throws IOException If the file cannot be read or is invalid
+     */
+    public static BusinessCalendar load(Path file) throws IOException {
+        TreeSet<LocalDate> holidays = new TreeSet<>();
+        try (CsvParser parser = new CsvParser(DataSources.open(file.toString()))) {
+            while (parser.next()) {
+                if (parser.isBlankLine()) {
+                    continue;
+                }
+                String first = parser.field(0).trim();
+                if (first.startsWith("#") || first.equalsIgnoreCase("date")) {
+                    continue;
+                }
+                try {
+                    holidays.add(LocalDate.parse(first));
+                } catch (DateTimeParseException e) {
+                    throw new IOException("Line " + parser.recordNumber() + ": " + e.getMessage());
+                }
+            }
+        }
+        return of(holidays);
+    }
+
+    /**
+     * Returns the number of working days from startDate to endDate, both
+     * inclusive, or 0 if endDate is before startDate.
+     */
+    public int workingDays(LocalDate startDate, LocalDate endDate) {
+        long from = startDate.toEpochDay();
+        long to = endDate.toEpochDay() + 1;
+        if (to <= from) {
+            return 0;
+        }
+        return (int) (weekdaysBefore(to) - weekdaysBefore(from) - (holidaysBefore(to) - holidaysBefore(from)));
+    }
+
+    /**
+     * Returns the number of working days in a month.
+     */
+    public int workingDaysInMonth(YearMonth month) {
+        return workingDays(month.atDay(1), month.atEndOfMonth());
+    }
+
+    /**
+     * Returns true if the date is a weekday and not a holiday.
+     */
+    public boolean isWorkingDay(LocalDate date) {
+        return workingDays(date, date) == 1;
+    }
+
+    /**
+     * Weekdays from epoch day 0 up to, but not including, the given day
+     * (negative for days before the epoch)
+     */
+    private static long weekdaysBefore(long epochDay) {
+        return 5 * Math.floorDiv(epochDay, 7) + WEEKDAYS_IN_PARTIAL_WEEK[Math.floorMod(epochDay, 7)];
+    }
+
+    /**
+     * Weekday holidays before the given day, counted from the first holiday
+     */
+    private int holidaysBefore(long epochDay) {
+        long index = Math.max(0, Math.min(epochDay - firstDay, holidaysBefore.length - 1));
+        return holidaysBefore[(int) index];
+    }
+}
@@ -0,0 +1,132 @@
+package com.motorph.original;
+
+import java.math.RoundingMode;
+
+/**
+ * Fixed-point money arithmetic on whole centavos held in a {@code long}.
+ *
+ * All pay and deduction amounts are computed in centavos, so sums are exact
+ * and a payroll run adds up to the centavo: gross pay minus the deductions
+ * plus the allowances is exactly the net pay, and the totals of a run equal
+ * the sums of its rows. Only the steps that divide (rate × time, percentages
+ * and pro-rating) round, and each of them names its {@link RoundingMode}.
+ *
+ * Rates are held as whole millionths ({@value #RATE_SCALE} is 100%), which
+ * represents every statutory percentage exactly.
+ *
+ * The methods work on primitives only and never allocate. Overflow throws an
+ * {@link ArithmeticException} instead of wrapping.
+ */
+public final class Centavos {
+
+    /**
+     * Centavos per peso
+     */
+    public static final long PER_PESO = 100;
+
+    /**
+     * A rate of 1 (100%) in millionths
+     */
+    public static final long RATE_SCALE = 1_000_000;
+
+    /**
+     * Largest peso amount that converts to centavos without losing precision
+     */
+    private static final double MAX_PESOS = (1L << 53) / (double) PER_PESO;
+
+    private Centavos() {
+    }
+
+    /**
+     * Converts a peso amount to centavos, rounding half up to the nearest centavo.
+     *
+     * @throws ArithmeticException If the amount is not finite or too large
+     */
+    public static long ofPesos(double pesos) {
+        if (!(Math.abs(pesos) <= MAX_PESOS)) {
+            throw new ArithmeticException("Amount out of range: " + pesos);
+        }
+        long centavos = Math.round(Math.abs(pesos) * PER_PESO);
+        return pesos < 0 ? -centavos : centavos;
+    }
+
+    /**
+     * Converts centavos to pesos, e.g. for display.
+     */
+    public static double toPesos(long centavos) {
+        return (double) centavos / PER_PESO;
+    }
+
+    /**
+     * Converts a rate (e.g. 0.015 for 1.5%) to millionths, rounding half up.
+     *
+     * @throws ArithmeticException If the rate is not finite or too large
+     */
+    public static long rate(double rate) {
+        if (!(Math.abs(rate) <= Long.MAX_VALUE / (double) RATE_SCALE)) {
+            throw new ArithmeticException("Rate out of range: " + rate);
+        }
+        long millionths = Math.round(Math.abs(rate) * RATE_SCALE);
+        return rate < 0 ? -millionths : millionths;
+    }
+
+    /**
+     * Applies a rate in millionths to an amount.
+     *
+     * @param centavos The amount
+     * @param rate The rate in millionths
+     * @param mode How the result is rounded to a whole centavo
+     * @return The amount times the rate, in centavos
+     */
+    public static long applyRate(long centavos, long rate, RoundingMode mode) {
+        return multiply(centavos, rate, RATE_SCALE, mode);
+    }
+
+    /**
+     * Multiplies an amount by the fraction numerator / denominator with a
+     * single rounding step.
+     *
+     * @param centavos The amount
+     * @param numerator The numerator of the factor
+     * @param denominator The denominator of the factor, not 0
+     * @param mode How the result is rounded to a whole centavo
+     * @return The amount times the fraction, in centavos
+     */
+    public static long multiply(long centavos, long numerator, long denominator, RoundingMode mode) {
+        return divide(Math.multiplyExact(centavos, numerator), denominator, mode);
+    }
+
+    /**
+     * Divides with the given rounding, like {@link java.math.BigDecimal#divide}
+     * with scale 0 but on primitives.
+     *
+     * @throws ArithmeticException If the divisor is 0, or the mode is
+     *         {@link RoundingMode#UNNECESSARY} and the division is not exact
+     */
+    public static long divide(long dividend, long divisor, RoundingMode mode) {
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (remainder == 0) {
+            return quotient;
+        }
+
+        // The exact result lies between quotient and the next value away from zero
+        boolean negative = (dividend < 0) != (divisor < 0);
+        long rest = Math.abs(remainder);
+        long other = Math.abs(divisor) - rest;
+        boolean awayFromZero = switch (mode) {
+            case UP -> true;
+            case DOWN -> false;
+            case CEILING -> !negative;
+            case FLOOR -> negative;
+            case HALF_UP -> rest >= other;
+            case HALF_DOWN -> rest > other;
+            case HALF_EVEN -> rest > other || (rest == other && (quotient & 1) != 0);
+            case UNNECESSARY -> throw new ArithmeticException("Rounding necessary: " + dividend + " / " + divisor);
+        };
+        if (!awayFromZero) {
+            return quotient;
+        }
+        return negative ? quotient - 1 : quotient + 1;
+    }
+}
@@ -0,0 +1,153 @@
+package com.motorph.original;
+
+import java.math.RoundingMode;
+import java.time.LocalDate;
+
+/**
+ * A bracketed statutory contribution schedule (SSS, PhilHealth or Pag-IBIG).
+ *
+ * Each bracket has an exclusive upper salary limit, a fixed amount and a rate.
+ * The contribution for a salary is taken from the first bracket whose upper
+ * limit is greater than the salary:
+ *
+ * Contribution = Fixed Amount + Rate × Salary
+ *
+ * The SSS schedule uses fixed amounts only; the PhilHealth and Pag-IBIG
+ * schedules use a single open-ended bracket with a rate. Salaries at or above
+ * the last upper limit use the last bracket.
+ *
+ * Limits and fixed amounts are held in centavos and rates in millionths (see
+ * {@link Centavos}); the rate share of a contribution is rounded half up to
+ * the centavo.
+ *
+ * Brackets are held in sorted primitive arrays and located with a binary
+ * search. Instances are immutable and can be shared by any number of threads.
+ */
+public final class ContributionTable {
+
+    private final LocalDate effectiveDate;
+    private final long[] upperLimits;
+    private final long[] fixedAmounts;
+    private final long[] rates;
+
+    /**
+     * Creates a contribution table.
+     *
+     * @param effectiveDate First date the table applies to
+     * @param upperLimits Exclusive upper salary limit of each bracket, strictly ascending
+     *                    (use Double.POSITIVE_INFINITY for an open-ended last bracket)
+     * @param fixedAmounts Fixed contribution of each bracket
+     * @param rates Contribution rate of each bracket, applied to the salary
+     * @throws ArithmeticException If an amount or rate is out of range
+     */
+    public ContributionTable(LocalDate effectiveDate, double[] upperLimits, double[] fixedAmounts, double[] rates) {
+        if (upperLimits.length == 0
+                || upperLimits.length != fixedAmounts.length
+                || upperLimits.length != rates.length) {
+            throw new IllegalArgumentException("Contribution table needs one fixed amount and rate per bracket");
+        }
+        for (int i = 1; i < upperLimits.length; i++) {
+            if (!(upperLimits[i] > upperLimits[i - 1])) {
+                throw new IllegalArgumentException("Bracket limits must be strictly ascending: "
+                        + upperLimits[i - 1] + " then " + upperLimits[i]);
+            }
+        }
+        this.effectiveDate = effectiveDate;
+        this.upperLimits = new long[upperLimits.length];
+        this.fixedAmounts = new long[upperLimits.length];
+        this.rates = new long[upperLimits.length];
+        for (int i = 0; i < upperLimits.length; i++) {
+            this.upperLimits[i] = upperLimits[i] == Double.POSITIVE_INFINITY
+                    ? Long.MAX_VALUE : Centavos.ofPesos(upperLimits[i]);
+            this.fixedAmounts[i] = Centavos.ofPesos(fixedAmounts[i]);
+            this.rates[i] = Centavos.rate(rates[i]);
+        }
+    }
+
+    /**
+     * Creates a table with a single open-ended bracket that applies a rate to the salary.
+     */
+    public static ContributionTable ofRate(LocalDate effectiveDate, double rate) {
+        return new ContributionTable(effectiveDate,
+                new double[] { Double.POSITIVE_INFINITY }, new double[] { 0.0 }, new double[] { rate });
+    }
+
+    /**
+     * Returns the first date the table applies to.
+     */
+    public LocalDate getEffectiveDate() {
+        return effectiveDate;
+    }
+
+    /**
+     * Returns the number of brackets in the table.
+     */
+    public int size() {
+        return upperLimits.length;
+    }
+
+    /**
+     * Calculates the contribution for the given salary.
+     *
+     * @param salary The salary the contribution is based on, in centavos
+     * @return The contribution amount in centavos
+     */
+    public long contribution(long salary) {
+        int bracket = bracketIndex(salary);
+        return fixedAmounts[bracket] + Centavos.applyRate(salary, rates[bracket], RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Calculates the contributions for the first {@code count} salaries.
+     *
+     * Single-bracket (rate-only) tables use a straight loop without lookups.
+     *
+     * @param salaries The salaries the contributions are based on, in centavos
+     * @param contributions Receives the contribution for each salary, in centavos
+     * @param count Number of salaries to process
+     */
+    public void contributions(long[] salaries, long[] contributions, int count) {
+        if (upperLimits.length == 1) {
+            long fixedAmount = fixedAmounts[0];
+            long rate = rates[0];
+            for (int i = 0; i < count; i++) {
+                contributions[i] = fixedAmount + Centavos.applyRate(salaries[i], rate, RoundingMode.HALF_UP);
+            }
+            return;
+        }
+        for (int i = 0; i < count; i++) {
+            int bracket = bracketIndex(salaries[i]);
+            contributions[i] = fixedAmounts[bracket]
+                    + Centavos.applyRate(salaries[i], rates[bracket], RoundingMode.HALF_UP);
+        }
+    }
+
+    /**
+     * Returns the position of the first bracket whose upper limit is greater
+     * than the salary (in centavos), or the last bracket if there is none.
+     */
+    public int bracketIndex(long salary) {
+        int low = 0;
+        int high = upperLimits.length - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (upperLimits[mid] > salary) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder limits = new StringBuilder();
+        for (long limit : upperLimits) {
+            limits.append(limits.length() == 0 ? "" : ", ")
+                    .append(limit == Long.MAX_VALUE ? "Infinity" : String.valueOf(Centavos.toPesos(limit)));
+        }
+        return "ContributionTable[effective " + effectiveDate + ", " + upperLimits.length + " brackets, limits ["
+                + limits + "]]";
+    }
+}
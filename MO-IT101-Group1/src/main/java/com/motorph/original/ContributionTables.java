@@ -0,0 +1,188 @@
+package com.motorph.original;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * The versions of the SSS, PhilHealth and Pag-IBIG contribution tables, keyed by
+ * the date each version takes effect.
+ *
+ * The built-in tables are used unless a table file is given with the
+ * {@value #FILE_PROPERTY} system property. A table file is a CSV with one
+ * bracket per line:
+ * <pre>
+ * type,effective date,upper limit,fixed amount,rate
+ * SSS,2024-01-01,4250,180,0
+ * SSS,2024-01-01,,945,0
+ * PHILHEALTH,2024-01-01,,0,0.015
+ * PAGIBIG,2024-01-01,,0,0.02
+ * </pre>
+ * The type is SSS, PHILHEALTH or PAGIBIG, the effective date uses yyyy-MM-dd, and
+ * an empty upper limit marks an open-ended last bracket. Lines starting with #
+ * and a header line starting with "type" are ignored. Every table type must be
+ * present in the file.
+ *
+ * Instances are immutable and can be shared by any number of threads.
+ */
+public final class ContributionTables {
+
+    public static final String FILE_PROPERTY = "motorph.contributions.file";
+
+    /**
+     * The statutory contributions covered by the tables
+     */
+    public enum Type {
+        SSS, PHILHEALTH, PAGIBIG
+    }
+
+    /**
+     * Effective date of the built-in tables
+     */
+    private static final LocalDate DEFAULT_EFFECTIVE_DATE = LocalDate.of(2024, 1, 1);
+
+    private final Map<Type, NavigableMap<LocalDate, ContributionTable>> versions;
+
+    private ContributionTables(Map<Type, NavigableMap<LocalDate, ContributionTable>> versions) {
+        for (Type type : Type.values()) {
+            if (versions.get(type) == null || versions.get(type).isEmpty()) {
+                throw new IllegalArgumentException("Missing contribution table: " + type);
+            }
+        }
+        Map<Type, NavigableMap<LocalDate, ContributionTable>> copy = new EnumMap<>(Type.class);
+        for (Map.Entry<Type, NavigableMap<LocalDate, ContributionTable>> entry : versions.entrySet()) {
+            copy.put(entry.getKey(), Collections.unmodifiableNavigableMap(new TreeMap<>(entry.getValue())));
+        }
+        this.versions = Collections.unmodifiableMap(copy);
+    }
+
+    /**
+     * Returns the built-in contribution tables.
+     *
+     * SSS: contributions from 180.00 for salaries below 4,250 up to 945.00 for
+     * 20,750 and above, in 500-peso brackets. PhilHealth: 1.5% employee share
+     * (half of the 3% premium). Pag-IBIG: 2% employee share.
+     */
+    public static ContributionTables defaults() {
+        int brackets = 35;
+        double[] upperLimits = new double[brackets];
+        double[] fixedAmounts = new double[brackets];
+        for (int i = 0; i < brackets - 1; i++) {
+            upperLimits[i] = 4250.0 + 500.0 * i;
+            fixedAmounts[i] = 180.0 + 22.5 * i;
+        }
+        upperLimits[brackets - 1] = Double.POSITIVE_INFINITY;
+        fixedAmounts[brackets - 1] = 945.0;
+
+        Map<Type, NavigableMap<LocalDate, ContributionTable>> versions = new EnumMap<>(Type.class);
+        put(versions, Type.SSS, new ContributionTable(DEFAULT_EFFECTIVE_DATE, upperLimits, fixedAmounts,
+                new double[brackets]));
+        put(versions, Type.PHILHEALTH, ContributionTable.ofRate(DEFAULT_EFFECTIVE_DATE, 0.015));
+        put(versions, Type.PAGIBIG, ContributionTable.ofRate(DEFAULT_EFFECTIVE_DATE, 0.02));
+        return new ContributionTables(versions);
+    }
+
+    /**
+     * Returns the tables from the file named by the {@value #FILE_PROPERTY}
+     * system property, or the built-in tables if it is not set.
+     */
+    public static ContributionTables fromSystemProperties() throws IOException {
+        String file = System.getProperty(FILE_PROPERTY);
+        return file == null ? defaults() : load(Paths.get(file));
+    }
+
+    /**
+     * Loads contribution tables from a table file.
+     *
+     * @param file The table file
+     * @return The tables defined in the file
+     * @throws IOException If the file cannot be read or is invalid
+     */
+    public static ContributionTables load(Path file) throws IOException {
+        // Collect brackets per (type, effective date) in file order
+        Map<Type, TreeMap<LocalDate, List<double[]>>> brackets = new EnumMap<>(Type.class);
+
+        try (CsvParser parser = new CsvParser(DataSources.open(file.toString()))) {
+            while (parser.next()) {
+                if (parser.isBlankLine()) {
+                    continue;
+                }
+                String first = parser.field(0).trim();
+                if (first.startsWith("#") || first.equalsIgnoreCase("type")) {
+                    continue;
+                }
+                if (parser.fieldCount() < 5) {
+                    throw new IOException("Line " + parser.recordNumber() + ": expected 5 columns");
+                }
+
+                try {
+                    Type type = Type.valueOf(first.toUpperCase());
+                    LocalDate effective = LocalDate.parse(parser.field(1).trim());
+                    String limit = parser.field(2).trim();
+                    double upperLimit = limit.isEmpty() ? Double.POSITIVE_INFINITY : Double.parseDouble(limit);
+                    double fixedAmount = Double.parseDouble(parser.field(3).trim());
+                    double rate = Double.parseDouble(parser.field(4).trim());
+
+                    brackets.computeIfAbsent(type, k -> new TreeMap<>())
+                            .computeIfAbsent(effective, k -> new ArrayList<>())
+                            .add(new double[] { upperLimit, fixedAmount, rate });
+                } catch (IllegalArgumentException | DateTimeParseException e) {
+                    throw new IOException("Line " + parser.recordNumber() + ": " + e.getMessage());
+                }
+            }
+        }
+
+        Map<Type, NavigableMap<LocalDate, ContributionTable>> versions = new EnumMap<>(Type.class);
+        for (Map.Entry<Type, TreeMap<LocalDate, List<double[]>>> type : brackets.entrySet()) {
+            for (Map.Entry<LocalDate, List<double[]>> version : type.getValue().entrySet()) {
+                List<double[]> rows = version.getValue();
+                rows.sort((a, b) -> Double.compare(a[0], b[0]));
+
+                double[] upperLimits = new double[rows.size()];
+                double[] fixedAmounts = new double[rows.size()];
+                double[] rates = new double[rows.size()];
+                for (int i = 0; i < rows.size(); i++) {
+                    upperLimits[i] = rows.get(i)[0];
+                    fixedAmounts[i] = rows.get(i)[1];
+                    rates[i] = rows.get(i)[2];
+                }
+                try {
+                    put(versions, type.getKey(),
+                            new ContributionTable(version.getKey(), upperLimits, fixedAmounts, rates));
+                } catch (IllegalArgumentException e) {
+                    throw new IOException(type.getKey() + " " + version.getKey() + ": " + e.getMessage());
+                }
+            }
+        }
+
+        try {
+            return new ContributionTables(versions);
+        } catch (IllegalArgumentException e) {
+            throw new IOException(file + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the table version in effect on the given date. Dates before the
+     * earliest version use the earliest version.
+     */
+    public ContributionTable tableFor(Type type, LocalDate date) {
+        NavigableMap<LocalDate, ContributionTable> tables = versions.get(type);
+        Map.Entry<LocalDate, ContributionTable> entry = tables.floorEntry(date);
+        return entry != null ? entry.getValue() : tables.firstEntry().getValue();
+    }
+
+    private static void put(Map<Type, NavigableMap<LocalDate, ContributionTable>> versions, Type type,
+            ContributionTable table) {
+        versions.computeIfAbsent(type, k -> new TreeMap<>()).put(table.getEffectiveDate(), table);
+    }
+}
@@ -0,0 +1,327 @@
+package com.motorph.original;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+/**
+ * Streaming RFC 4180 CSV parser shared by the employee and attendance loaders.
+ *
+ * The parser reads through a single reusable character buffer. Each call to
+ * {@link #next()} advances to the next record and exposes its fields as slices
+ * of that buffer, so no String is created for a field unless the caller asks
+ * for one with {@link #field(int)} or {@link #toArray()}.
+ *
+ * Supported syntax:
+ * - Fields separated by commas, records by LF, CR or CRLF
+ * - Quoted fields containing commas, line breaks and escaped quotes ("")
+ *
+ * Quotes are unescaped in place, which is possible because the unescaped text
+ * is never longer than the raw text. Field slices are only valid until the next
+ * call to {@link #next()}.
+ *
+ * Instances are not thread-safe.
+ */
+public final class CsvParser implements Closeable {
+
+    private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+    private static final long NOT_AN_INT = Long.MIN_VALUE;
+
+    private final Reader reader;
+    private char[] buf;
+    private int limit;
+    private int pos;
+    private boolean eof;
+
+    // Current record: start offset in the buffer and the bounds of each field
+    private int recordStart;
+    private int[] starts = new int[32];
+    private int[] ends = new int[32];
+    private int fieldCount;
+    private long recordNumber;
+
+    /**
+     * Creates a parser over the given reader with the default buffer size.
+     */
+    public CsvParser(Reader reader) {
+        this(reader, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Creates a parser over the given reader.
+     *
+     * @param reader The character source (does not need to be buffered)
+     * @param bufferSize Initial buffer size; grows if a single record is larger
+     */
+    public CsvParser(Reader reader, int bufferSize) {
+        this.reader = reader;
+        this.buf = new char[Math.max(16, bufferSize)];
+    }
+
+    /**
+     * Advances to the next record.
+     *
+     * @return true if a record was read, false at end of input
+     * @throws IOException If the underlying reader fails
+     */
+    public boolean next() throws IOException {
+        fieldCount = 0;
+        recordStart = pos;
+
+        if (pos == limit && fill() < 0) {
+            return false;
+        }
+
+        int fieldStart = pos;
+        int write = pos;
+        boolean inQuotes = false;
+
+        while (true) {
+            if (pos == limit) {
+                int shift = fill();
+                if (shift < 0) {
+                    // End of input terminates the last record (even inside an unclosed quote)
+                    addField(fieldStart, write);
+                    recordNumber++;
+                    return true;
+                }
+                fieldStart -= shift;
+                write -= shift;
+            }
+
+            char c = buf[pos++];
+            if (inQuotes) {
+                if (c == '"') {
+                    if (pos == limit) {
+                        int shift = fill();
+                        if (shift >= 0) {
+                            fieldStart -= shift;
+                            write -= shift;
+                        }
+                    }
+                    if (pos < limit && buf[pos] == '"') {
+                        buf[write++] = '"'; // Escaped quote
+                        pos++;
+                    } else {
+                        inQuotes = false; // Closing quote
+                    }
+                } else {
+                    buf[write++] = c;
+                }
+            } else if (c == ',') {
+                addField(fieldStart, write);
+                fieldStart = pos;
+                write = pos;
+            } else if (c == '\n' || c == '\r') {
+                addField(fieldStart, write);
+                if (c == '\r') {
+                    skipLineFeed();
+                }
+                recordNumber++;
+                return true;
+            } else if (c == '"') {
+                inQuotes = true;
+            } else {
+                buf[write++] = c;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of fields in the current record.
+     */
+    public int fieldCount() {
+        return fieldCount;
+    }
+
+    /**
+     * Returns the 1-based number of the current record (including the header).
+     */
+    public long recordNumber() {
+        return recordNumber;
+    }
+
+    /**
+     * Returns true if the current record is a blank line.
+     */
+    public boolean isBlankLine() {
+        return fieldCount == 1 && ends[0] == starts[0];
+    }
+
+    /**
+     * Returns the buffer holding the current record's field contents.
+     * Use together with {@link #fieldStart(int)} and {@link #fieldEnd(int)}.
+     */
+    public char[] buffer() {
+        return buf;
+    }
+
+    /**
+     * Start offset of the field in {@link #buffer()}.
+     */
+    public int fieldStart(int index) {
+        checkIndex(index);
+        return starts[index];
+    }
+
+    /**
+     * End offset (exclusive) of the field in {@link #buffer()}.
+     */
+    public int fieldEnd(int index) {
+        checkIndex(index);
+        return ends[index];
+    }
+
+    /**
+     * Length of the field's unescaped contents.
+     */
+    public int fieldLength(int index) {
+        checkIndex(index);
+        return ends[index] - starts[index];
+    }
+
+    /**
+     * Returns the field's contents as a new String.
+     */
+    public String field(int index) {
+        checkIndex(index);
+        return new String(buf, starts[index], ends[index] - starts[index]);
+    }
+
+    /**
+     * Parses the field as a decimal integer without creating a String.
+     * Surrounding spaces are ignored.
+     *
+     * @throws NumberFormatException If the field is not a valid integer
+     */
+    public int parseInt(int index) {
+        long value = parseIntValue(index);
+        if (value == NOT_AN_INT) {
+            throw new NumberFormatException("Not an integer: \"" + field(index) + "\"");
+        }
+        return (int) value;
+    }
+
+    /**
+     * Parses the field as a decimal integer without creating a String or
+     * throwing an exception. Surrounding spaces are ignored.
+     *
+     * @param index The field index
+     * @param invalidValue Value returned if the field is not a valid integer
+     * @return The parsed value, or invalidValue
+     */
+    public int parseInt(int index, int invalidValue) {
+        long value = parseIntValue(index);
+        return value == NOT_AN_INT ? invalidValue : (int) value;
+    }
+
+    /**
+     * Returns all fields of the current record as Strings.
+     */
+    public String[] toArray() {
+        String[] fields = new String[fieldCount];
+        for (int i = 0; i < fieldCount; i++) {
+            fields[i] = new String(buf, starts[i], ends[i] - starts[i]);
+        }
+        return fields;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private long parseIntValue(int index) {
+        checkIndex(index);
+        int from = starts[index];
+        int to = ends[index];
+        while (from < to && buf[from] == ' ') {
+            from++;
+        }
+        while (to > from && buf[to - 1] == ' ') {
+            to--;
+        }
+
+        boolean negative = from < to && buf[from] == '-';
+        int i = negative ? from + 1 : from;
+        if (i == to || to - i > 10) {
+            return NOT_AN_INT;
+        }
+
+        long value = 0;
+        for (; i < to; i++) {
+            int digit = buf[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return NOT_AN_INT;
+            }
+            value = value * 10 + digit;
+        }
+        value = negative ? -value : value;
+        return value < Integer.MIN_VALUE || value > Integer.MAX_VALUE ? NOT_AN_INT : value;
+    }
+
+    private void addField(int start, int end) {
+        if (fieldCount == starts.length) {
+            starts = Arrays.copyOf(starts, fieldCount * 2);
+            ends = Arrays.copyOf(ends, fieldCount * 2);
+        }
+        starts[fieldCount] = start;
+        ends[fieldCount] = end;
+        fieldCount++;
+    }
+
+    private void skipLineFeed() throws IOException {
+        if (pos == limit) {
+            fill();
+        }
+        if (pos < limit && buf[pos] == '\n') {
+            pos++;
+        }
+    }
+
+    /**
+     * Reads more input, first moving the current record to the start of the
+     * buffer (and growing it if the record fills the whole buffer).
+     *
+     * @return How far the current record was shifted, or -1 at end of input
+     */
+    private int fill() throws IOException {
+        if (eof) {
+            return -1;
+        }
+
+        int shift = recordStart;
+        if (shift > 0) {
+            System.arraycopy(buf, shift, buf, 0, limit - shift);
+            limit -= shift;
+            pos -= shift;
+            recordStart = 0;
+            for (int i = 0; i < fieldCount; i++) {
+                starts[i] -= shift;
+                ends[i] -= shift;
+            }
+        }
+        if (limit == buf.length) {
+            buf = Arrays.copyOf(buf, buf.length * 2);
+        }
+
+        int read;
+        do {
+            read = reader.read(buf, limit, buf.length - limit);
+        } while (read == 0);
+
+        if (read < 0) {
+            eof = true;
+            return -1;
+        }
+        limit += read;
+        return shift;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= fieldCount) {
+            throw new IndexOutOfBoundsException("Field " + index + " of " + fieldCount);
+        }
+    }
+}
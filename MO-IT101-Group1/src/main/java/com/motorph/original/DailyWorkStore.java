@@ -0,0 +1,522 @@
+package com.motorph.original;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+/**
+ * Per-employee, per-day work-hour aggregates, kept on local disk between runs.
+ *
+ * For every day an employee has punches, the store holds the regular minutes
+ * (up to {@value #REGULAR_MINUTES_PER_DAY} per day), the overtime minutes, the
+ * first log in and the last log out time. A payroll period is then summed from one entry per
+ * day instead of re-reading and re-splitting every punch.
+ *
+ * The store also records the fingerprint of the attendance source it was
+ * built from (see {@link DataSnapshot#fingerprint}). When the source is
+ * unchanged, {@link #update(AttendanceIndex, long)} returns the stored days
+ * without reading a single punch. Otherwise each day's punch digest is
+ * compared against the new attendance data and only the employee-days whose
+ * punches changed are recomputed, so a corrected punch costs one day of work
+ * rather than a full rebuild. Employees whose days are all unchanged keep
+ * their existing arrays.
+ *
+ * File layout (big-endian):
+ * <pre>
+ * header:   int magic, int version, long source fingerprint,
+ *           long payload length, long payload CRC32
+ * payload:  int employee count
+ *           per employee: int employee number, int day count,
+ *                         int[] epoch days, int[] regular minutes,
+ *                         int[] overtime minutes, short[] first log in,
+ *                         short[] last log out, long[] punch digests
+ * </pre>
+ *
+ * The store file lives in the snapshot directory (see {@link DataSnapshot}).
+ * Instances are immutable and safe to share.
+ */
+public final class DailyWorkStore {
+
+    /**
+     * Minutes per day paid at the regular rate; the rest is overtime
+     */
+    public static final int REGULAR_MINUTES_PER_DAY = 8 * 60;
+
+    private static final int MAGIC = 0x4D504857; // "MPHW"
+    private static final int VERSION = 3;
+    private static final int HEADER_SIZE = 4 + 4 + 8 + 8 + 8;
+
+    /**
+     * Source fingerprint of a store whose source is not known; it never matches
+     */
+    private static final long UNKNOWN_SOURCE = 0;
+
+    private static final EmployeeDays EMPTY_DAYS = new EmployeeDays(new int[0], new int[0], new int[0], new short[0],
+            new short[0], new long[0]);
+    private static final DailyWorkStore EMPTY = new DailyWorkStore(Collections.emptyMap(), UNKNOWN_SOURCE, 0,
+            Collections.emptySet());
+
+    private final Map<Integer, EmployeeDays> byEmployee;
+    private final long sourceFingerprint;
+    private final int recomputedDays;
+    private final Set<Integer> changedEmployees;
+
+    private DailyWorkStore(Map<Integer, EmployeeDays> byEmployee, long sourceFingerprint, int recomputedDays,
+            Set<Integer> changedEmployees) {
+        this.byEmployee = byEmployee;
+        this.sourceFingerprint = sourceFingerprint;
+        this.recomputedDays = recomputedDays;
+        this.changedEmployees = changedEmployees;
+    }
+
+    /**
+     * Builds a store from scratch.
+     */
+    public static DailyWorkStore build(AttendanceIndex attendance) {
+        return EMPTY.update(attendance);
+    }
+
+    /**
+     * Returns the store file used for the given attendance source.
+     */
+    public static Path defaultLocation(String attendanceSource) {
+        CRC32 crc = new CRC32();
+        crc.update(attendanceSource.getBytes(StandardCharsets.UTF_8));
+        return DataSnapshot.directory().resolve(String.format("work-%08x.store", crc.getValue()));
+    }
+
+    /**
+     * Brings the aggregates in line with the given attendance data, skipping
+     * the comparison entirely if the data comes from the same source as this
+     * store.
+     *
+     * @param attendance The current attendance data
+     * @param sourceFingerprint Fingerprint of the source the attendance data was read from
+     * @return The updated store; this store is not modified
+     */
+    public DailyWorkStore update(AttendanceIndex attendance, long sourceFingerprint) {
+        if (sourceFingerprint != UNKNOWN_SOURCE && sourceFingerprint == this.sourceFingerprint) {
+            return changedEmployees.isEmpty()
+                    ? this
+                    : new DailyWorkStore(byEmployee, sourceFingerprint, 0, Collections.emptySet());
+        }
+        return diff(attendance, sourceFingerprint);
+    }
+
+    /**
+     * Brings the aggregates in line with the given attendance data.
+     *
+     * Days whose punches are unchanged are copied over; new and changed days
+     * are recomputed. Employees and days missing from the attendance data are
+     * dropped.
+     *
+     * @param attendance The current attendance data
+     * @return The updated store; this store is not modified
+     */
+    public DailyWorkStore update(AttendanceIndex attendance) {
+        return diff(attendance, UNKNOWN_SOURCE);
+    }
+
+    private DailyWorkStore diff(AttendanceIndex attendance, long sourceFingerprint) {
+        Map<Integer, EmployeeDays> updated = new HashMap<>(attendance.employeeNumbers().size() * 2);
+        Set<Integer> changed = new HashSet<>();
+        int recomputed = 0;
+
+        for (Integer empNumber : attendance.employeeNumbers()) {
+            EmployeeDays previous = forEmployee(empNumber);
+            AttendanceIndex.EmployeeAttendance rows = attendance.forEmployee(empNumber);
+
+            int dayCount = 0;
+            for (int i = 0; i < rows.size(); i++) {
+                if (i == 0 || rows.epochDay(i) != rows.epochDay(i - 1)) {
+                    dayCount++;
+                }
+            }
+
+            int[] days = new int[dayCount];
+            int[] regular = new int[dayCount];
+            int[] overtime = new int[dayCount];
+            short[] firstIn = new short[dayCount];
+            short[] lastOut = new short[dayCount];
+            long[] digests = new long[dayCount];
+            int recomputedHere = 0;
+
+            int i = 0;
+            int p = 0;
+            for (int d = 0; d < dayCount; d++) {
+                int day = rows.epochDay(i);
+                int start = i;
+                long digest = 0x9E3779B97F4A7C15L;
+                for (; i < rows.size() && rows.epochDay(i) == day; i++) {
+                    digest = mix(digest ^ ((long) rows.minuteIn(i) << 16 | (rows.minuteOut(i) & 0xFFFF)));
+                }
+
+                // Both sides are sorted by day, so the previous entry is found by advancing a cursor
+                while (p < previous.size() && previous.epochDays[p] < day) {
+                    p++;
+                }
+                days[d] = day;
+                digests[d] = digest;
+                if (p < previous.size() && previous.epochDays[p] == day && previous.digests[p] == digest) {
+                    regular[d] = previous.regularMinutes[p];
+                    overtime[d] = previous.overtimeMinutes[p];
+                    firstIn[d] = previous.firstIn[p];
+                    lastOut[d] = previous.lastOut[p];
+                    continue;
+                }
+
+                int workedMinutes = 0;
+                int earliest = Integer.MAX_VALUE;
+                int latest = Integer.MIN_VALUE;
+                for (int j = start; j < i; j++) {
+                    workedMinutes += rows.minuteOut(j) - rows.minuteIn(j);
+                    earliest = Math.min(earliest, rows.minuteIn(j));
+                    latest = Math.max(latest, rows.minuteOut(j));
+                }
+                regular[d] = Math.min(workedMinutes, REGULAR_MINUTES_PER_DAY);
+                overtime[d] = Math.max(0, workedMinutes - REGULAR_MINUTES_PER_DAY);
+                firstIn[d] = (short) earliest;
+                lastOut[d] = (short) latest;
+                recomputedHere++;
+            }
+
+            if (recomputedHere == 0 && dayCount == previous.size()) {
+                updated.put(empNumber, previous);
+            } else {
+                updated.put(empNumber, new EmployeeDays(days, regular, overtime, firstIn, lastOut, digests));
+                changed.add(empNumber);
+                recomputed += recomputedHere;
+            }
+        }
+
+        for (Integer empNumber : byEmployee.keySet()) {
+            if (!updated.containsKey(empNumber)) {
+                changed.add(empNumber);
+            }
+        }
+
+        return new DailyWorkStore(Collections.unmodifiableMap(updated), sourceFingerprint, recomputed,
+                Collections.unmodifiableSet(changed));
+    }
+
+    /**
+     * Returns the aggregates of a single employee, or an empty view if the
+     * employee has no days in the store.
+     */
+    public EmployeeDays forEmployee(int empNumber) {
+        return byEmployee.getOrDefault(empNumber, EMPTY_DAYS);
+    }
+
+    /**
+     * Returns the numbers of all employees with days in the store.
+     */
+    public Set<Integer> employeeNumbers() {
+        return byEmployee.keySet();
+    }
+
+    /**
+     * Returns the number of employee-days held by the store.
+     */
+    public int dayCount() {
+        int count = 0;
+        for (EmployeeDays days : byEmployee.values()) {
+            count += days.size();
+        }
+        return count;
+    }
+
+    /**
+     * Returns the fingerprint of the attendance source the store was last
+     * brought in line with, or 0 if it is not known.
+     */
+    public long sourceFingerprint() {
+        return sourceFingerprint;
+    }
+
+    /**
+     * Returns the number of employee-days recomputed by the update that
+     * produced this store.
+     */
+    public int recomputedDays() {
+        return recomputedDays;
+    }
+
+    /**
+     * Returns the employees whose days were added, changed or removed by the
+     * update that produced this store.
+     */
+    public Set<Integer> changedEmployees() {
+        return changedEmployees;
+    }
+
+    /**
+     * Reads a store file.
+     *
+     * @param file The store file
+     * @return The stored aggregates, or an empty store if the file is missing or unreadable
+     */
+    public static DailyWorkStore read(Path file) {
+        if (!Files.isRegularFile(file)) {
+            return EMPTY;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE) {
+                return EMPTY;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                return EMPTY;
+            }
+            long sourceFingerprint = buffer.getLong();
+            long payloadLength = buffer.getLong();
+            long payloadCrc = buffer.getLong();
+            if (payloadLength != channel.size() - HEADER_SIZE) {
+                return EMPTY;
+            }
+
+            CRC32 crc = new CRC32();
+            crc.update(buffer.duplicate());
+            if (crc.getValue() != payloadCrc) {
+                return EMPTY;
+            }
+
+            int employeeCount = buffer.getInt();
+            Map<Integer, EmployeeDays> byEmployee = new HashMap<>(employeeCount * 2);
+            for (int e = 0; e < employeeCount; e++) {
+                int empNumber = buffer.getInt();
+                int n = buffer.getInt();
+
+                int[] days = new int[n];
+                int[] regular = new int[n];
+                int[] overtime = new int[n];
+                short[] firstIn = new short[n];
+                short[] lastOut = new short[n];
+                long[] digests = new long[n];
+                buffer.asIntBuffer().get(days);
+                buffer.position(buffer.position() + n * Integer.BYTES);
+                buffer.asIntBuffer().get(regular);
+                buffer.position(buffer.position() + n * Integer.BYTES);
+                buffer.asIntBuffer().get(overtime);
+                buffer.position(buffer.position() + n * Integer.BYTES);
+                buffer.asShortBuffer().get(firstIn);
+                buffer.position(buffer.position() + n * Short.BYTES);
+                buffer.asShortBuffer().get(lastOut);
+                buffer.position(buffer.position() + n * Short.BYTES);
+                buffer.asLongBuffer().get(digests);
+                buffer.position(buffer.position() + n * Long.BYTES);
+
+                byEmployee.put(empNumber, new EmployeeDays(days, regular, overtime, firstIn, lastOut, digests));
+            }
+            return new DailyWorkStore(Collections.unmodifiableMap(byEmployee), sourceFingerprint, 0,
+                    Collections.emptySet());
+        } catch (IOException | RuntimeException e) {
+            // Unreadable stores are rebuilt from the attendance data
+            PayrollMetrics.global().swallowed("DailyWorkStore.read", e);
+            return EMPTY;
+        }
+    }
+
+    /**
+     * Writes the store, replacing any existing file atomically.
+     *
+     * @param file The store file
+     * @throws IOException If the store cannot be written
+     */
+    public void write(Path file) throws IOException {
+        long payloadLength = Integer.BYTES;
+        for (EmployeeDays days : byEmployee.values()) {
+            payloadLength += 2L * Integer.BYTES
+                    + days.size() * (long) (3 * Integer.BYTES + 2 * Short.BYTES + Long.BYTES);
+        }
+        if (payloadLength > Integer.MAX_VALUE - HEADER_SIZE) {
+            throw new IOException("Too many days for a work-hour store");
+        }
+
+        ByteBuffer payload = ByteBuffer.allocate((int) payloadLength);
+        payload.putInt(byEmployee.size());
+        for (Map.Entry<Integer, EmployeeDays> entry : byEmployee.entrySet()) {
+            EmployeeDays days = entry.getValue();
+            int n = days.size();
+            payload.putInt(entry.getKey());
+            payload.putInt(n);
+            payload.asIntBuffer().put(days.epochDays);
+            payload.position(payload.position() + n * Integer.BYTES);
+            payload.asIntBuffer().put(days.regularMinutes);
+            payload.position(payload.position() + n * Integer.BYTES);
+            payload.asIntBuffer().put(days.overtimeMinutes);
+            payload.position(payload.position() + n * Integer.BYTES);
+            payload.asShortBuffer().put(days.firstIn);
+            payload.position(payload.position() + n * Short.BYTES);
+            payload.asShortBuffer().put(days.lastOut);
+            payload.position(payload.position() + n * Short.BYTES);
+            payload.asLongBuffer().put(days.digests);
+            payload.position(payload.position() + n * Long.BYTES);
+        }
+        payload.flip();
+
+        CRC32 crc = new CRC32();
+        crc.update(payload.duplicate());
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putInt(VERSION).putLong(sourceFingerprint).putLong(payloadLength).putLong(crc.getValue());
+        header.flip();
+
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Path temp = Files.createTempFile(file.toAbsolutePath().getParent(), "work", ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            while (header.hasRemaining() || payload.hasRemaining()) {
+                channel.write(new ByteBuffer[] { header, payload });
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * 64-bit finalizer from SplitMix64, spreading every input bit over the digest
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Date-sorted daily aggregates of one employee.
+     */
+    public static final class EmployeeDays {
+        private final int[] epochDays;
+        private final int[] regularMinutes;
+        private final int[] overtimeMinutes;
+        private final short[] firstIn;
+        private final short[] lastOut;
+        private final long[] digests;
+
+        EmployeeDays(int[] epochDays, int[] regularMinutes, int[] overtimeMinutes, short[] firstIn, short[] lastOut,
+                long[] digests) {
+            this.epochDays = epochDays;
+            this.regularMinutes = regularMinutes;
+            this.overtimeMinutes = overtimeMinutes;
+            this.firstIn = firstIn;
+            this.lastOut = lastOut;
+            this.digests = digests;
+        }
+
+        /**
+         * Number of days with punches.
+         */
+        public int size() {
+            return epochDays.length;
+        }
+
+        /**
+         * Date of the day at the given position, as an epoch day.
+         */
+        public int epochDay(int i) {
+            return epochDays[i];
+        }
+
+        /**
+         * Minutes worked at the regular rate on the day at the given position.
+         */
+        public int regularMinutes(int i) {
+            return regularMinutes[i];
+        }
+
+        /**
+         * Minutes worked beyond the regular hours on the day at the given position.
+         */
+        public int overtimeMinutes(int i) {
+            return overtimeMinutes[i];
+        }
+
+        /**
+         * Regular minutes of the days from position from (inclusive) to to (exclusive).
+         */
+        public long regularMinutes(int from, int to) {
+            long total = 0;
+            for (int i = from; i < to; i++) {
+                total += regularMinutes[i];
+            }
+            return total;
+        }
+
+        /**
+         * Overtime minutes of the days from position from (inclusive) to to (exclusive).
+         */
+        public long overtimeMinutes(int from, int to) {
+            long total = 0;
+            for (int i = from; i < to; i++) {
+                total += overtimeMinutes[i];
+            }
+            return total;
+        }
+
+        /**
+         * Adds the days from position from (inclusive) to to (exclusive) to the
+         * totals, in one pass for the hours and the attendance statistics.
+         */
+        public void addTo(int from, int to, WorkTotals totals) {
+            for (int i = from; i < to; i++) {
+                totals.addDay(regularMinutes[i], overtimeMinutes[i], firstIn[i], lastOut[i]);
+            }
+        }
+
+        /**
+         * Earliest log in time of the day at the given position, in minutes after midnight.
+         */
+        public int firstIn(int i) {
+            return firstIn[i];
+        }
+
+        /**
+         * Latest log out time of the day at the given position, in minutes after midnight.
+         */
+        public int lastOut(int i) {
+            return lastOut[i];
+        }
+
+        /**
+         * Position of the first day on or after the given epoch day.
+         */
+        public int fromIndex(long startEpochDay) {
+            return lowerBound(startEpochDay);
+        }
+
+        /**
+         * Position just past the last day on or before the given epoch day.
+         */
+        public int toIndex(long endEpochDay) {
+            return lowerBound(endEpochDay + 1);
+        }
+
+        private int lowerBound(long epochDay) {
+            int low = 0;
+            int high = epochDays.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (epochDays[mid] < epochDay) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
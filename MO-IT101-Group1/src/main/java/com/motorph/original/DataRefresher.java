@@ -0,0 +1,151 @@
+package com.motorph.original;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Reloads the payroll data in the background and publishes it as a new snapshot.
+ *
+ * Readers call {@link #current()} once at the start of a report or request and
+ * use that {@link PayrollSnapshot} throughout, so they always see consistent
+ * data and are never blocked by a refresh. A refresh loads the sources and
+ * builds the indexes on the refresher's own thread, then publishes the new
+ * snapshot with a single atomic reference swap. Refreshes run one at a time;
+ * if one fails the current snapshot is kept.
+ *
+ * Refreshes run on demand ({@link #refresh()}) and, if the
+ * {@value #INTERVAL_PROPERTY} system property is set to a positive number of
+ * seconds, on that schedule. Refresh durations and the age of the current
+ * snapshot are recorded in {@link PayrollMetrics}.
+ */
+public final class DataRefresher implements Supplier<PayrollSnapshot> {
+
+    /**
+     * System property used to configure the refresh interval in seconds (0 = on demand only)
+     */
+    public static final String INTERVAL_PROPERTY = "motorph.refresh.intervalSeconds";
+
+    /**
+     * Builds a new snapshot, given the current one
+     */
+    @FunctionalInterface
+    public interface Loader {
+        PayrollSnapshot load(PayrollSnapshot previous) throws IOException;
+    }
+
+    private final AtomicReference<PayrollSnapshot> snapshot;
+    private final Loader loader;
+    private final ScheduledExecutorService executor;
+    private final PayrollMetrics metrics = PayrollMetrics.global();
+
+    /**
+     * Creates a refresher publishing the initial snapshot.
+     *
+     * @param initial The snapshot to publish until the first refresh
+     * @param loader Builds a new snapshot on refresh
+     * @param intervalSeconds Seconds between scheduled refreshes (0 = on demand only)
+     */
+    public DataRefresher(PayrollSnapshot initial, Loader loader, long intervalSeconds) {
+        this.snapshot = new AtomicReference<>(initial);
+        this.loader = loader;
+        this.executor = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "data-refresher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        metrics.snapshotLoaded(initial.loadedAtMillis());
+        if (intervalSeconds > 0) {
+            executor.scheduleWithFixedDelay(this::refreshQuietly, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Creates a refresher scheduled from the {@value #INTERVAL_PROPERTY} system property.
+     */
+    public static DataRefresher fromSystemProperties(PayrollSnapshot initial, Loader loader) {
+        long interval = 0;
+        String configured = System.getProperty(INTERVAL_PROPERTY);
+        if (configured != null) {
+            try {
+                interval = Math.max(0, Long.parseLong(configured.trim()));
+            } catch (NumberFormatException e) {
+                System.err.println("Ignoring invalid " + INTERVAL_PROPERTY + ": " + configured);
+            }
+        }
+        return new DataRefresher(initial, loader, interval);
+    }
+
+    /**
+     * Returns the current snapshot.
+     */
+    public PayrollSnapshot current() {
+        return snapshot.get();
+    }
+
+    @Override
+    public PayrollSnapshot get() {
+        return current();
+    }
+
+    /**
+     * Starts a refresh on the refresher's thread, after any refresh already running.
+     *
+     * @return Completes with the new snapshot, or with the exception if the refresh failed
+     */
+    public Future<PayrollSnapshot> refresh() {
+        return executor.submit(this::load);
+    }
+
+    /**
+     * Refreshes and waits for the result.
+     *
+     * @return The new snapshot
+     * @throws IOException If the data could not be loaded; the current snapshot is kept
+     */
+    public PayrollSnapshot refreshAndWait() throws IOException, InterruptedException {
+        try {
+            return refresh().get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    /**
+     * Stops scheduled refreshes.
+     */
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    private PayrollSnapshot load() throws IOException {
+        long started = System.nanoTime();
+        try {
+            PayrollSnapshot loaded = loader.load(snapshot.get());
+            snapshot.set(loaded);
+            metrics.refreshed(System.nanoTime() - started, loaded.loadedAtMillis());
+            return loaded;
+        } catch (IOException | RuntimeException e) {
+            metrics.refreshFailed(e);
+            throw e;
+        }
+    }
+
+    private void refreshQuietly() {
+        try {
+            load();
+        } catch (IOException | RuntimeException e) {
+            // Keep serving the current snapshot; the next scheduled refresh tries again
+            System.err.println("Warning: data refresh failed (" + e.getMessage() + "), keeping data from "
+                    + snapshot.get().ageMillis() / 1000 + " s ago.");
+        }
+    }
+}
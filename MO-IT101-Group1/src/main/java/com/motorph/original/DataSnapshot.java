@@ -0,0 +1,265 @@
+package com.motorph.original;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Binary snapshot of parsed employee and attendance data.
+ *
+ * After the CSV sources are parsed once, the result is written to a compact
+ * binary file. Later starts read that file back with a single memory mapping
+ * instead of tokenising the CSVs and decoding every date and time again.
+ *
+ * File layout (big-endian):
+ * <pre>
+ * header:   int magic, int version, long source fingerprint,
+ *           long payload length, long payload CRC32
+ * payload:  int employee count
+ *           per employee: int employee number,
+ *                         last name, first name, birthday, status, position
+ *                         (each int length, UTF-8 bytes),
+ *                         double basic salary, rice subsidy, phone allowance,
+ *                         clothing allowance, hourly rate
+ *           int attendance employee count
+ *           per employee: int employee number, int row count,
+ *                         int[] epoch days, short[] minutes in, short[] minutes out
+ * </pre>
+ *
+ * The fingerprint covers the path, size and modification time of each source
+ * file. A snapshot whose fingerprint, version or checksum does not match is
+ * treated as stale and rebuilt from the CSVs.
+ *
+ * The snapshot directory is set with the {@value #DIRECTORY_PROPERTY} system
+ * property (default ~/.motorph/snapshots).
+ */
+public final class DataSnapshot {
+
+    public static final String DIRECTORY_PROPERTY = "motorph.snapshot.dir";
+
+    private static final int MAGIC = 0x4D504853; // "MPHS"
+    private static final int VERSION = 3;
+    private static final int HEADER_SIZE = 4 + 4 + 8 + 8 + 8;
+
+    private DataSnapshot() {
+    }
+
+    /**
+     * Returns the snapshot file used for the given pair of data sources.
+     */
+    public static Path defaultLocation(String employeeSource, String attendanceSource) {
+        CRC32 crc = new CRC32();
+        crc.update((employeeSource + "\n" + attendanceSource).getBytes(StandardCharsets.UTF_8));
+        return directory().resolve(String.format("data-%08x.snapshot", crc.getValue()));
+    }
+
+    /**
+     * Returns the directory snapshots are kept in.
+     */
+    static Path directory() {
+        return Paths.get(System.getProperty(DIRECTORY_PROPERTY,
+                Paths.get(System.getProperty("user.home"), ".motorph", "snapshots").toString()));
+    }
+
+    /**
+     * Computes the fingerprint of the given source files.
+     */
+    public static long fingerprint(Path... sources) throws IOException {
+        CRC32 crc = new CRC32();
+        ByteBuffer numbers = ByteBuffer.allocate(3 * Long.BYTES);
+        for (Path source : sources) {
+            crc.update(source.toAbsolutePath().toString().getBytes(StandardCharsets.UTF_8));
+            numbers.clear();
+            numbers.putLong(VERSION)
+                    .putLong(Files.size(source))
+                    .putLong(Files.getLastModifiedTime(source).toMillis());
+            crc.update(numbers.array());
+        }
+        return crc.getValue();
+    }
+
+    /**
+     * Reads a snapshot.
+     *
+     * @param file The snapshot file
+     * @param fingerprint Fingerprint of the current source files
+     * @return The snapshot contents, or null if the file is missing, stale or corrupt
+     */
+    public static PayrollData read(Path file, long fingerprint) {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE) {
+                return null;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION || buffer.getLong() != fingerprint) {
+                return null;
+            }
+            long payloadLength = buffer.getLong();
+            long payloadCrc = buffer.getLong();
+            if (payloadLength != channel.size() - HEADER_SIZE) {
+                return null;
+            }
+
+            CRC32 crc = new CRC32();
+            crc.update(buffer.duplicate());
+            if (crc.getValue() != payloadCrc) {
+                return null;
+            }
+
+            return new PayrollData(readEmployees(buffer), readAttendance(buffer), fingerprint);
+        } catch (IOException | RuntimeException e) {
+            // Unreadable snapshots are rebuilt from the CSV sources
+            PayrollMetrics.global().swallowed("DataSnapshot.read", e);
+            return null;
+        }
+    }
+
+    /**
+     * Writes a snapshot, replacing any existing file atomically.
+     *
+     * @param file The snapshot file
+     * @param fingerprint Fingerprint of the source files the data was parsed from
+     * @param data The parsed data
+     * @throws IOException If the snapshot cannot be written
+     */
+    public static void write(Path file, long fingerprint, PayrollData data) throws IOException {
+        byte[] employees = encodeEmployees(data.employees());
+        AttendanceIndex attendance = data.attendance();
+
+        long payloadLength = employees.length + Integer.BYTES;
+        for (Integer empNumber : attendance.employeeNumbers()) {
+            int rows = attendance.forEmployee(empNumber).size();
+            payloadLength += 2L * Integer.BYTES + rows * (long) (Integer.BYTES + 2 * Short.BYTES);
+        }
+        if (payloadLength > Integer.MAX_VALUE - HEADER_SIZE) {
+            throw new IOException("Data too large for a snapshot");
+        }
+
+        ByteBuffer payload = ByteBuffer.allocate((int) payloadLength);
+        payload.put(employees);
+        payload.putInt(attendance.employeeNumbers().size());
+        for (Integer empNumber : attendance.employeeNumbers()) {
+            AttendanceIndex.EmployeeAttendance rows = attendance.forEmployee(empNumber);
+            payload.putInt(empNumber);
+            payload.putInt(rows.size());
+            payload.asIntBuffer().put(rows.epochDays());
+            payload.position(payload.position() + rows.size() * Integer.BYTES);
+            payload.asShortBuffer().put(rows.minutesIn());
+            payload.position(payload.position() + rows.size() * Short.BYTES);
+            payload.asShortBuffer().put(rows.minutesOut());
+            payload.position(payload.position() + rows.size() * Short.BYTES);
+        }
+        payload.flip();
+
+        CRC32 crc = new CRC32();
+        crc.update(payload.duplicate());
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putInt(VERSION).putLong(fingerprint).putLong(payloadLength).putLong(crc.getValue());
+        header.flip();
+
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Path temp = Files.createTempFile(file.toAbsolutePath().getParent(), "snapshot", ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            while (header.hasRemaining() || payload.hasRemaining()) {
+                channel.write(new ByteBuffer[] { header, payload });
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static byte[] encodeEmployees(List<Employee> employees) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(employees.size());
+        for (Employee employee : employees) {
+            out.writeInt(employee.employeeNumber());
+            writeString(out, employee.lastName());
+            writeString(out, employee.firstName());
+            writeString(out, employee.birthday());
+            writeString(out, employee.status());
+            writeString(out, employee.position());
+            out.writeDouble(employee.basicSalary());
+            out.writeDouble(employee.riceSubsidy());
+            out.writeDouble(employee.phoneAllowance());
+            out.writeDouble(employee.clothingAllowance());
+            out.writeDouble(employee.hourlyRate());
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(encoded.length);
+        out.write(encoded);
+    }
+
+    private static List<Employee> readEmployees(ByteBuffer buffer) {
+        int count = buffer.getInt();
+        List<Employee> employees = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            employees.add(new Employee(buffer.getInt(),
+                    readString(buffer),
+                    readString(buffer),
+                    readString(buffer),
+                    readString(buffer),
+                    readString(buffer),
+                    buffer.getDouble(),
+                    buffer.getDouble(),
+                    buffer.getDouble(),
+                    buffer.getDouble(),
+                    buffer.getDouble()));
+        }
+        return employees;
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] encoded = new byte[buffer.getInt()];
+        buffer.get(encoded);
+        return new String(encoded, StandardCharsets.UTF_8);
+    }
+
+    private static AttendanceIndex readAttendance(ByteBuffer buffer) {
+        int employeeCount = buffer.getInt();
+        Map<Integer, AttendanceIndex.EmployeeAttendance> byEmployee = new HashMap<>(employeeCount * 2);
+        for (int i = 0; i < employeeCount; i++) {
+            int empNumber = buffer.getInt();
+            int rows = buffer.getInt();
+
+            int[] days = new int[rows];
+            short[] in = new short[rows];
+            short[] out = new short[rows];
+            buffer.asIntBuffer().get(days);
+            buffer.position(buffer.position() + rows * Integer.BYTES);
+            buffer.asShortBuffer().get(in);
+            buffer.position(buffer.position() + rows * Short.BYTES);
+            buffer.asShortBuffer().get(out);
+            buffer.position(buffer.position() + rows * Short.BYTES);
+
+            byEmployee.put(empNumber, new AttendanceIndex.EmployeeAttendance(days, in, out));
+        }
+        return AttendanceIndex.ofSorted(byEmployee);
+    }
+}
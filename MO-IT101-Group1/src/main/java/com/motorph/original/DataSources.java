@@ -0,0 +1,82 @@
+package com.motorph.original;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Opens the CSV data sources used by the payroll system.
+ *
+ * A source location is either a URL (http, https or file) such as the
+ * published Google Sheets exports, or a path to a local file. Every source is
+ * resolved to a local file and read through a memory mapping (see
+ * {@link MappedFileReader}).
+ *
+ * Remote http and https feeds are downloaded through the {@link FeedCache}, so
+ * unchanged feeds are not downloaded again and the last copy is still
+ * available when the network is down.
+ */
+public final class DataSources {
+
+    private static final FeedCache feedCache = FeedCache.fromSystemProperties();
+
+    private DataSources() {
+    }
+
+    /**
+     * Returns true if the location refers to a remote or file URL rather than a local path.
+     */
+    public static boolean isUrl(String location) {
+        return isRemote(location) || location.toLowerCase().startsWith("file:");
+    }
+
+    /**
+     * Returns true if the location is an http or https URL.
+     */
+    public static boolean isRemote(String location) {
+        String lower = location.toLowerCase();
+        return lower.startsWith("http://") || lower.startsWith("https://");
+    }
+
+    /**
+     * Resolves a location to a local file, downloading remote feeds into the cache.
+     *
+     * @param location A URL or a local file path
+     * @return Path of a local file holding the source contents
+     * @throws IOException If the source is missing or cannot be downloaded
+     */
+    public static Path resolve(String location) throws IOException {
+        Path path;
+        if (isRemote(location)) {
+            path = feedCache.fetch(location);
+        } else if (isUrl(location)) {
+            try {
+                path = Paths.get(new URI(location));
+            } catch (URISyntaxException | IllegalArgumentException e) {
+                throw new IOException("Invalid file URL: " + location);
+            }
+        } else {
+            path = Paths.get(location);
+        }
+
+        if (!Files.isRegularFile(path)) {
+            throw new IOException("File not found: " + location);
+        }
+        return path;
+    }
+
+    /**
+     * Opens a reader over the given location.
+     *
+     * @param location A URL or a local file path
+     * @return A UTF-8 reader over the source contents
+     * @throws IOException If the source cannot be opened
+     */
+    public static Reader open(String location) throws IOException {
+        return new MappedFileReader(resolve(location));
+    }
+}
@@ -0,0 +1,174 @@
+package com.motorph.original;
+
+/**
+ * Single-pass decoders for the date and time columns of attendance exports.
+ *
+ * Dates in M/d/yyyy form (one or two digit month and day, e.g. 6/3/2024 or
+ * 06/03/2024) are decoded to an epoch day, and times in H:mm form are decoded
+ * to minutes after midnight. The decoders work directly on a character range,
+ * such as a field slice from {@link CsvParser}, so no String or formatter is
+ * created. Invalid input is reported by returning {@link #INVALID} instead of
+ * throwing an exception.
+ *
+ * A day-of-month beyond the end of the month (e.g. 4/31/2024) is clamped to
+ * the last day of the month, as the previous DateTimeFormatter-based parser did.
+ */
+public final class DateTimeCodec {
+
+    /**
+     * Returned when a value cannot be decoded
+     */
+    public static final int INVALID = Integer.MIN_VALUE;
+
+    private static final int[] DAYS_BEFORE_MONTH = { 0, 31, 59, 90, 120, 151, 181, 212, 243, 273, 304, 334 };
+    private static final int DAYS_0000_TO_1970 = 719528;
+
+    private DateTimeCodec() {
+    }
+
+    /**
+     * Decodes a date in M/d/yyyy form.
+     *
+     * @param chars The characters holding the date
+     * @param from Start offset (inclusive)
+     * @param to End offset (exclusive)
+     * @return The date as an epoch day, or {@link #INVALID}
+     */
+    public static int decodeDate(char[] chars, int from, int to) {
+        while (from < to && chars[from] == ' ') {
+            from++;
+        }
+        while (to > from && chars[to - 1] == ' ') {
+            to--;
+        }
+
+        int pos = from;
+        int month = 0;
+        int digits = 0;
+        while (pos < to && digits < 2 && isDigit(chars[pos])) {
+            month = month * 10 + (chars[pos++] - '0');
+            digits++;
+        }
+        if (digits == 0 || pos >= to || chars[pos++] != '/') {
+            return INVALID;
+        }
+
+        int day = 0;
+        digits = 0;
+        while (pos < to && digits < 2 && isDigit(chars[pos])) {
+            day = day * 10 + (chars[pos++] - '0');
+            digits++;
+        }
+        if (digits == 0 || pos >= to || chars[pos++] != '/') {
+            return INVALID;
+        }
+
+        int year = 0;
+        digits = 0;
+        while (pos < to && digits < 4 && isDigit(chars[pos])) {
+            year = year * 10 + (chars[pos++] - '0');
+            digits++;
+        }
+        if (digits != 4 || pos != to) {
+            return INVALID;
+        }
+
+        if (month < 1 || month > 12 || day < 1 || day > 31) {
+            return INVALID;
+        }
+        return epochDay(year, month, Math.min(day, lengthOfMonth(year, month)));
+    }
+
+    /**
+     * Decodes a date in M/d/yyyy form.
+     *
+     * @return The date as an epoch day, or {@link #INVALID}
+     */
+    public static int decodeDate(String text) {
+        return text == null ? INVALID : decodeDate(text.toCharArray(), 0, text.length());
+    }
+
+    /**
+     * Decodes a time in H:mm form (0:00 to 23:59).
+     *
+     * @param chars The characters holding the time
+     * @param from Start offset (inclusive)
+     * @param to End offset (exclusive)
+     * @return Minutes after midnight, or {@link #INVALID}
+     */
+    public static int decodeTime(char[] chars, int from, int to) {
+        while (from < to && chars[from] == ' ') {
+            from++;
+        }
+        while (to > from && chars[to - 1] == ' ') {
+            to--;
+        }
+
+        int length = to - from;
+        if (length != 4 && length != 5) {
+            return INVALID;
+        }
+        int colon = to - 3;
+        if (chars[colon] != ':'
+                || !isDigit(chars[from])
+                || !isDigit(chars[colon - 1])
+                || !isDigit(chars[colon + 1])
+                || !isDigit(chars[colon + 2])) {
+            return INVALID;
+        }
+
+        int hour = length == 5 ? (chars[from] - '0') * 10 + (chars[from + 1] - '0') : chars[from] - '0';
+        int minute = (chars[colon + 1] - '0') * 10 + (chars[colon + 2] - '0');
+        if (hour > 23 || minute > 59) {
+            return INVALID;
+        }
+        return hour * 60 + minute;
+    }
+
+    /**
+     * Decodes a time in H:mm form.
+     *
+     * @return Minutes after midnight, or {@link #INVALID}
+     */
+    public static int decodeTime(String text) {
+        return text == null ? INVALID : decodeTime(text.toCharArray(), 0, text.length());
+    }
+
+    /**
+     * Formats minutes after midnight in H:mm form, the inverse of
+     * {@link #decodeTime(String)}.
+     */
+    public static String formatTime(int minuteOfDay) {
+        int minute = minuteOfDay % 60;
+        return (minuteOfDay / 60) + (minute < 10 ? ":0" : ":") + minute;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isLeapYear(int year) {
+        return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        return switch (month) {
+            case 2 -> isLeapYear(year) ? 29 : 28;
+            case 4, 6, 9, 11 -> 30;
+            default -> 31;
+        };
+    }
+
+    /**
+     * Days since 1970-01-01 of a valid proleptic Gregorian date with a 4-digit year.
+     */
+    private static int epochDay(int year, int month, int day) {
+        int previousYear = year - 1;
+        int days = 365 * year
+                + (year > 0 ? previousYear / 4 - previousYear / 100 + previousYear / 400 + 1 : 0)
+                + DAYS_BEFORE_MONTH[month - 1]
+                + (month > 2 && isLeapYear(year) ? 1 : 0)
+                + day - 1;
+        return days - DAYS_0000_TO_1970;
+    }
+}
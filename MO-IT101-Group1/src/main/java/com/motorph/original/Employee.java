@@ -0,0 +1,176 @@
+package com.motorph.original;
+
+import java.math.RoundingMode;
+
+/**
+ * An employee from the employee master list, with every column the payroll
+ * uses already parsed.
+ *
+ * Records are built once when the employee CSV is loaded, so listing,
+ * searching and payroll runs work with numbers instead of re-parsing the
+ * salary and allowance text on every use. Amounts may be written with
+ * thousands separators or a peso sign (e.g. "90,000" or "₱1,500.00").
+ *
+ * The hourly rate is resolved at load time in this order:
+ * - The Hourly Rate column, if it holds a positive amount
+ * - The basic salary divided by 21 work days of 8 hours, rounded half up to
+ *   the centavo like the rates in the Hourly Rate column
+ * - A default rate by position (executive, manager, team leader, other)
+ *
+ * Missing or unreadable allowances and salaries are 0; a missing status or
+ * position is "N/A".
+ *
+ * @param employeeNumber The employee number
+ * @param lastName Last name
+ * @param firstName First name
+ * @param birthday Birthday as written in the source
+ * @param status Employment status (e.g. Regular, Probationary)
+ * @param position Job position
+ * @param basicSalary Monthly basic salary
+ * @param riceSubsidy Monthly rice subsidy
+ * @param phoneAllowance Monthly phone allowance
+ * @param clothingAllowance Monthly clothing allowance
+ * @param hourlyRate Resolved hourly rate
+ */
+public record Employee(
+        int employeeNumber,
+        String lastName,
+        String firstName,
+        String birthday,
+        String status,
+        String position,
+        double basicSalary,
+        double riceSubsidy,
+        double phoneAllowance,
+        double clothingAllowance,
+        double hourlyRate) {
+
+    // Employee data column indices
+    private static final int EMP_ID_COL = 0;
+    private static final int LAST_NAME_COL = 1;
+    private static final int FIRST_NAME_COL = 2;
+    private static final int BIRTHDAY_COL = 3;
+    private static final int STATUS_COL = 10;
+    private static final int POSITION_COL = 11;
+    private static final int BASIC_SALARY_COL = 13;
+    private static final int RICE_SUBSIDY_COL = 14;
+    private static final int PHONE_ALLOWANCE_COL = 15;
+    private static final int CLOTHING_ALLOWANCE_COL = 16;
+    private static final int HOURLY_RATE_COL = 18;
+
+    // Used to derive an hourly rate from the monthly basic salary
+    private static final int RATE_WORK_DAYS_PER_MONTH = 21;
+    private static final int RATE_HOURS_PER_DAY = 8;
+
+    private static final int INVALID_EMP_NUMBER = -1;
+
+    /**
+     * Builds an employee from the current record of an employee CSV.
+     *
+     * @param parser A parser positioned on an employee record
+     * @return The employee, or null if the record has no valid employee number
+     */
+    public static Employee parse(CsvParser parser) {
+        int employeeNumber = parser.fieldCount() > EMP_ID_COL
+                ? parser.parseInt(EMP_ID_COL, INVALID_EMP_NUMBER)
+                : INVALID_EMP_NUMBER;
+        if (employeeNumber == INVALID_EMP_NUMBER) {
+            return null;
+        }
+
+        String position = text(parser, POSITION_COL, "N/A");
+        double basicSalary = amount(parser, BASIC_SALARY_COL);
+
+        return new Employee(employeeNumber,
+                text(parser, LAST_NAME_COL, "").trim(),
+                text(parser, FIRST_NAME_COL, "").trim(),
+                text(parser, BIRTHDAY_COL, ""),
+                text(parser, STATUS_COL, "N/A"),
+                position,
+                Double.isNaN(basicSalary) ? 0.0 : basicSalary,
+                amountOrZero(parser, RICE_SUBSIDY_COL),
+                amountOrZero(parser, PHONE_ALLOWANCE_COL),
+                amountOrZero(parser, CLOTHING_ALLOWANCE_COL),
+                resolveHourlyRate(amount(parser, HOURLY_RATE_COL), basicSalary, position));
+    }
+
+    /**
+     * Returns the name as "First Last".
+     */
+    public String fullName() {
+        return firstName + " " + lastName;
+    }
+
+    /**
+     * Monthly rice, phone and clothing allowances combined.
+     */
+    public double totalAllowances() {
+        return riceSubsidy + phoneAllowance + clothingAllowance;
+    }
+
+    /**
+     * Picks the hourly rate from the rate column, the basic salary or the position
+     */
+    private static double resolveHourlyRate(double rate, double basicSalary, String position) {
+        if (rate > 0) {
+            return rate;
+        }
+        if (!Double.isNaN(basicSalary)) {
+            return Centavos.toPesos(Centavos.multiply(Centavos.ofPesos(basicSalary), 1,
+                    RATE_WORK_DAYS_PER_MONTH * RATE_HOURS_PER_DAY, RoundingMode.HALF_UP));
+        }
+
+        // Default rate by position
+        String title = position.toLowerCase();
+        if (title.contains("chief") || title.contains("ceo")) {
+            return 535.71;
+        } else if (title.contains("manager") || title.contains("head")) {
+            return 313.51;
+        } else if (title.contains("team leader")) {
+            return 255.80;
+        }
+        return 133.93; // Default rate for regular employees
+    }
+
+    private static String text(CsvParser parser, int column, String missing) {
+        return parser.fieldCount() > column ? parser.field(column) : missing;
+    }
+
+    private static double amountOrZero(CsvParser parser, int column) {
+        double amount = amount(parser, column);
+        return Double.isNaN(amount) ? 0.0 : amount;
+    }
+
+    /**
+     * Parses an amount from the digits and decimal points of a column, ignoring
+     * separators, currency signs and spaces.
+     *
+     * @return The amount, or NaN if the column is missing, empty or not a number
+     */
+    private static double amount(CsvParser parser, int column) {
+        if (parser.fieldCount() <= column) {
+            return Double.NaN;
+        }
+
+        char[] buffer = parser.buffer();
+        int end = parser.fieldEnd(column);
+        char[] digits = new char[parser.fieldLength(column)];
+        int length = 0;
+        for (int i = parser.fieldStart(column); i < end; i++) {
+            char c = buffer[i];
+            if ((c >= '0' && c <= '9') || c == '.') {
+                digits[length++] = c;
+            }
+        }
+        if (length == 0) {
+            return Double.NaN;
+        }
+
+        try {
+            return Double.parseDouble(new String(digits, 0, length));
+        } catch (NumberFormatException e) {
+            PayrollMetrics.global().swallowed("Employee.amount", e);
+            return Double.NaN; // e.g. more than one decimal point
+        }
+    }
+}
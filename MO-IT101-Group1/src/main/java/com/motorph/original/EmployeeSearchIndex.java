@@ -0,0 +1,281 @@
+package com.motorph.original;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory search index over the employee directory.
+ *
+ * The index is built once after the employee data is loaded. Each employee's
+ * searchable fields (employee number, last name, first name and birthday) are
+ * lowercased once and joined into a single key. A trigram inverted index maps
+ * every three-character substring of the keys to the sorted list of employees
+ * containing it, so a substring query only looks at the employees holding the
+ * rarest trigram of the query instead of scanning the whole directory.
+ * Queries shorter than three characters fall back to a scan of the
+ * pre-lowercased keys.
+ *
+ * Employees are also kept in a hash map by employee number for direct lookup.
+ *
+ * Instances are immutable after construction and safe to share.
+ */
+public final class EmployeeSearchIndex {
+
+    /**
+     * Separates the fields of a key so no trigram spans two fields
+     */
+    private static final char FIELD_SEPARATOR = '\u0000';
+
+    private static final int GRAM_LENGTH = 3;
+
+    private final List<Employee> employees;
+    private final String[] keys;
+    private final Map<Integer, Employee> byNumber;
+
+    // Posting lists of all trigrams, stored back to back: the employees
+    // (positions in the employee list) containing trigram g are
+    // postings[offsets[g]] to postings[offsets[g + 1] - 1], in ascending order
+    private final GramTable gramIds;
+    private final int[] offsets;
+    private final int[] postings;
+
+    private EmployeeSearchIndex(List<Employee> employees, String[] keys, Map<Integer, Employee> byNumber,
+            GramTable gramIds, int[] offsets, int[] postings) {
+        this.employees = employees;
+        this.keys = keys;
+        this.byNumber = byNumber;
+        this.gramIds = gramIds;
+        this.offsets = offsets;
+        this.postings = postings;
+    }
+
+    /**
+     * Builds the index for a list of employees.
+     *
+     * @param employees The employees, in the order search results are returned
+     * @return The index
+     */
+    public static EmployeeSearchIndex build(List<Employee> employees) {
+        int count = employees.size();
+        String[] keys = new String[count];
+        Map<Integer, Employee> byNumber = new HashMap<>(count * 2);
+        for (int i = 0; i < count; i++) {
+            Employee employee = employees.get(i);
+            keys[i] = key(employee);
+            // Keep the first record when an employee number appears twice
+            byNumber.putIfAbsent(employee.employeeNumber(), employee);
+        }
+
+        // First pass: the distinct trigram ids of every key, in employee order
+        GramTable gramIds = new GramTable();
+        int[] keyGrams = new int[Math.max(16, count * 16)];
+        int[] keyStart = new int[count + 1];
+        int[] lastSeen = new int[1024];
+        int total = 0;
+        for (int i = 0; i < count; i++) {
+            String key = keys[i];
+            for (int start = 0; start + GRAM_LENGTH <= key.length(); start++) {
+                long gram = gram(key, start);
+                if (gram < 0) {
+                    continue;
+                }
+                int id = gramIds.idOf(gram);
+                if (id >= lastSeen.length) {
+                    lastSeen = Arrays.copyOf(lastSeen, lastSeen.length * 2);
+                }
+                if (lastSeen[id] == i + 1) {
+                    continue; // Same trigram twice in one key
+                }
+                lastSeen[id] = i + 1;
+                if (total == keyGrams.length) {
+                    keyGrams = Arrays.copyOf(keyGrams, total * 2);
+                }
+                keyGrams[total++] = id;
+            }
+            keyStart[i + 1] = total;
+        }
+
+        // Second pass: a counting sort by trigram id; employees are visited in
+        // order, so every posting list comes out sorted
+        int[] offsets = new int[gramIds.size() + 1];
+        for (int k = 0; k < total; k++) {
+            offsets[keyGrams[k] + 1]++;
+        }
+        for (int g = 1; g < offsets.length; g++) {
+            offsets[g] += offsets[g - 1];
+        }
+        int[] next = Arrays.copyOf(offsets, offsets.length - 1);
+        int[] postings = new int[total];
+        for (int i = 0; i < count; i++) {
+            for (int k = keyStart[i]; k < keyStart[i + 1]; k++) {
+                postings[next[keyGrams[k]]++] = i;
+            }
+        }
+
+        return new EmployeeSearchIndex(Collections.unmodifiableList(new ArrayList<>(employees)), keys,
+                byNumber, gramIds, offsets, postings);
+    }
+
+    /**
+     * Returns the employee with the given number, or null if there is none.
+     */
+    public Employee find(int empNumber) {
+        return byNumber.get(empNumber);
+    }
+
+    /**
+     * Returns the employees whose number, last name, first name or birthday
+     * contains the search term, ignoring case.
+     *
+     * @param term The search term
+     * @return The matching employees, in the order they were indexed
+     */
+    public List<Employee> search(String term) {
+        String query = term.toLowerCase();
+        if (query.indexOf(FIELD_SEPARATOR) >= 0) {
+            return Collections.emptyList();
+        }
+        if (query.length() < GRAM_LENGTH) {
+            return scan(query);
+        }
+
+        // Candidates are the employees holding the query's rarest trigram
+        int from = 0;
+        int to = Integer.MAX_VALUE;
+        for (int start = 0; start + GRAM_LENGTH <= query.length(); start++) {
+            int id = gramIds.get(gram(query, start));
+            if (id < 0) {
+                return Collections.emptyList();
+            }
+            if (offsets[id + 1] - offsets[id] < to - from) {
+                from = offsets[id];
+                to = offsets[id + 1];
+            }
+        }
+
+        List<Employee> matches = new ArrayList<>();
+        for (int p = from; p < to; p++) {
+            int position = postings[p];
+            if (keys[position].contains(query)) {
+                matches.add(employees.get(position));
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Returns the number of indexed employees.
+     */
+    public int size() {
+        return employees.size();
+    }
+
+    private List<Employee> scan(String query) {
+        List<Employee> matches = new ArrayList<>();
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i].contains(query)) {
+                matches.add(employees.get(i));
+            }
+        }
+        return matches;
+    }
+
+    private static String key(Employee employee) {
+        return (String.valueOf(employee.employeeNumber()) + FIELD_SEPARATOR + employee.lastName()
+                + FIELD_SEPARATOR + employee.firstName() + FIELD_SEPARATOR + employee.birthday()).toLowerCase();
+    }
+
+    /**
+     * Packs the three characters at start into a long, or returns -1 if they
+     * span a field separator
+     */
+    private static long gram(String text, int start) {
+        char a = text.charAt(start);
+        char b = text.charAt(start + 1);
+        char c = text.charAt(start + 2);
+        if (a == FIELD_SEPARATOR || b == FIELD_SEPARATOR || c == FIELD_SEPARATOR) {
+            return -1;
+        }
+        return ((long) a << 32) | ((long) b << 16) | c;
+    }
+
+    /**
+     * Open-addressing hash table assigning dense ids to trigrams
+     */
+    private static final class GramTable {
+        private long[] grams = new long[1024];
+        private int[] ids = new int[1024];
+        private int size;
+
+        GramTable() {
+            Arrays.fill(grams, -1);
+        }
+
+        int size() {
+            return size;
+        }
+
+        /**
+         * Returns the id of a trigram, or -1 if it is not in the table
+         */
+        int get(long gram) {
+            int mask = grams.length - 1;
+            for (int slot = slot(gram, mask); ; slot = (slot + 1) & mask) {
+                if (grams[slot] == gram) {
+                    return ids[slot];
+                }
+                if (grams[slot] == -1) {
+                    return -1;
+                }
+            }
+        }
+
+        /**
+         * Returns the id of a trigram, adding it with the next free id if needed
+         */
+        int idOf(long gram) {
+            int mask = grams.length - 1;
+            int slot = slot(gram, mask);
+            while (grams[slot] != -1) {
+                if (grams[slot] == gram) {
+                    return ids[slot];
+                }
+                slot = (slot + 1) & mask;
+            }
+            grams[slot] = gram;
+            ids[slot] = size;
+            if (++size * 2 > grams.length) {
+                grow();
+            }
+            return size - 1;
+        }
+
+        private void grow() {
+            long[] oldGrams = grams;
+            int[] oldIds = ids;
+            grams = new long[oldGrams.length * 2];
+            ids = new int[oldIds.length * 2];
+            Arrays.fill(grams, -1);
+            int mask = grams.length - 1;
+            for (int i = 0; i < oldGrams.length; i++) {
+                if (oldGrams[i] != -1) {
+                    int slot = slot(oldGrams[i], mask);
+                    while (grams[slot] != -1) {
+                        slot = (slot + 1) & mask;
+                    }
+                    grams[slot] = oldGrams[i];
+                    ids[slot] = oldIds[i];
+                }
+            }
+        }
+
+        private static int slot(long gram, int mask) {
+            long h = gram * 0x9E3779B97F4A7C15L;
+            return (int) (h >>> 32) & mask;
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package com.motorph.original;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Properties;
+
+/**
+ * Local disk cache for the remote employee and attendance CSV feeds.
+ *
+ * Each feed is stored as a body file plus a small properties file holding its
+ * ETag, Last-Modified date and fetch time. On every fetch the cache:
+ * 1. Returns the cached copy without contacting the server while it is fresh
+ * 2. Otherwise revalidates with If-None-Match / If-Modified-Since and keeps the
+ *    cached copy on a 304 (Not Modified) response
+ * 3. Falls back to the cached copy when the server cannot be reached
+ *
+ * Entries not fetched or revalidated within the eviction age are deleted
+ * after a successful download or revalidation of another feed, so a stale
+ * copy is still there to fall back on while the network is down.
+ *
+ * A download replaces the body first and then the properties file, each with
+ * an atomic move of a temporary file. An interrupted update therefore leaves
+ * either the old entry or a new body with the old validators, which at worst
+ * causes one full download on the next revalidation, never a 304 for a body
+ * that was not stored.
+ *
+ * The cache is configured with these system properties:
+ * - {@value #DIRECTORY_PROPERTY}: cache directory (default ~/.motorph/cache)
+ * - {@value #FRESH_PROPERTY}: seconds a copy is used without revalidation (default 600)
+ * - {@value #EVICT_PROPERTY}: days after which unused entries are deleted (default 30)
+ */
+public final class FeedCache {
+
+    public static final String DIRECTORY_PROPERTY = "motorph.cache.dir";
+    public static final String FRESH_PROPERTY = "motorph.cache.freshSeconds";
+    public static final String EVICT_PROPERTY = "motorph.cache.evictDays";
+
+    private static final String BODY_SUFFIX = ".csv";
+    private static final String META_SUFFIX = ".properties";
+    private static final int CONNECT_TIMEOUT_MILLIS = 10_000;
+    private static final int READ_TIMEOUT_MILLIS = 60_000;
+
+    private final Path directory;
+    private final Duration freshFor;
+    private final Duration evictAfter;
+
+    /**
+     * Creates a cache in the given directory.
+     *
+     * @param directory Directory holding the cached feeds (created if missing)
+     * @param freshFor How long a cached copy is used without revalidating it
+     * @param evictAfter How long an entry is kept after its last successful fetch
+     */
+    public FeedCache(Path directory, Duration freshFor, Duration evictAfter) {
+        this.directory = directory;
+        this.freshFor = freshFor;
+        this.evictAfter = evictAfter;
+    }
+
+    /**
+     * Creates a cache configured from system properties.
+     */
+    public static FeedCache fromSystemProperties() {
+        Path directory = Paths.get(System.getProperty(DIRECTORY_PROPERTY,
+                Paths.get(System.getProperty("user.home"), ".motorph", "cache").toString()));
+        long freshSeconds = Long.getLong(FRESH_PROPERTY, 600L);
+        long evictDays = Long.getLong(EVICT_PROPERTY, 30L);
+        return new FeedCache(directory, Duration.ofSeconds(freshSeconds), Duration.ofDays(evictDays));
+    }
+
+    /**
+     * Returns a local copy of the feed, downloading or revalidating it as needed.
+     *
+     * @param url The http or https URL of the feed
+     * @return Path of the cached feed body
+     * @throws IOException If the feed cannot be downloaded and no cached copy exists
+     */
+    public Path fetch(String url) throws IOException {
+        Files.createDirectories(directory);
+
+        String key = keyFor(url);
+        Path body = directory.resolve(key + BODY_SUFFIX);
+        Path meta = directory.resolve(key + META_SUFFIX);
+        Properties metadata = readMetadata(meta);
+        boolean cached = metadata != null && Files.isRegularFile(body);
+        long now = System.currentTimeMillis();
+
+        if (cached && now - fetchedAt(metadata) < freshFor.toMillis()) {
+            return body;
+        }
+
+        HttpURLConnection connection = null;
+        try {
+            connection = (HttpURLConnection) new URL(url).openConnection();
+            connection.setConnectTimeout(CONNECT_TIMEOUT_MILLIS);
+            connection.setReadTimeout(READ_TIMEOUT_MILLIS);
+            if (cached) {
+                String etag = metadata.getProperty("etag");
+                String lastModified = metadata.getProperty("lastModified");
+                if (etag != null) {
+                    connection.setRequestProperty("If-None-Match", etag);
+                }
+                if (lastModified != null) {
+                    connection.setRequestProperty("If-Modified-Since", lastModified);
+                }
+            }
+
+            int status = connection.getResponseCode();
+            if (status == HttpURLConnection.HTTP_NOT_MODIFIED && cached) {
+                metadata.setProperty("fetchedAt", Long.toString(now));
+                writeMetadata(meta, metadata);
+                evictExpiredQuietly(key);
+                return body;
+            }
+            if (status != HttpURLConnection.HTTP_OK) {
+                throw new IOException("HTTP " + status + " from " + url);
+            }
+
+            // Download to a temporary file first so a failed transfer never replaces a good copy
+            Path download = Files.createTempFile(directory, key, ".tmp");
+            try (InputStream in = connection.getInputStream();
+                    OutputStream out = Files.newOutputStream(download)) {
+                in.transferTo(out);
+            } catch (IOException e) {
+                Files.deleteIfExists(download);
+                throw e;
+            }
+            Files.move(download, body, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            Properties updated = new Properties();
+            updated.setProperty("url", url);
+            updated.setProperty("fetchedAt", Long.toString(now));
+            if (connection.getHeaderField("ETag") != null) {
+                updated.setProperty("etag", connection.getHeaderField("ETag"));
+            }
+            if (connection.getHeaderField("Last-Modified") != null) {
+                updated.setProperty("lastModified", connection.getHeaderField("Last-Modified"));
+            }
+            writeMetadata(meta, updated);
+            evictExpiredQuietly(key);
+            return body;
+
+        } catch (IOException e) {
+            if (cached) {
+                PayrollMetrics.global().swallowed("FeedCache.fetch", e);
+                System.err.println("Warning: could not refresh " + url + " (" + e.getMessage()
+                        + "), using cached copy.");
+                return body;
+            }
+            throw e;
+        } finally {
+            if (connection != null) {
+                connection.disconnect();
+            }
+        }
+    }
+
+    /**
+     * Deletes cached feeds that have not been fetched within the eviction age.
+     */
+    public void evictExpired() throws IOException {
+        evictExpired(null);
+    }
+
+    /**
+     * Evicts expired entries after a successful fetch; a failure only costs disk space
+     */
+    private void evictExpiredQuietly(String fetchedKey) {
+        try {
+            evictExpired(fetchedKey);
+        } catch (IOException e) {
+            PayrollMetrics.global().swallowed("FeedCache.evictExpired", e);
+        }
+    }
+
+    /**
+     * Deletes expired entries other than the one with the given key (null for none).
+     */
+    private void evictExpired(String keep) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        long cutoff = System.currentTimeMillis() - evictAfter.toMillis();
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory, "*" + META_SUFFIX)) {
+            for (Path meta : entries) {
+                Properties metadata = readMetadata(meta);
+                String name = meta.getFileName().toString();
+                String key = name.substring(0, name.length() - META_SUFFIX.length());
+                if (!key.equals(keep) && (metadata == null || fetchedAt(metadata) < cutoff)) {
+                    Files.deleteIfExists(directory.resolve(key + BODY_SUFFIX));
+                    Files.deleteIfExists(meta);
+                }
+            }
+        }
+    }
+
+    private static long fetchedAt(Properties metadata) {
+        try {
+            return Long.parseLong(metadata.getProperty("fetchedAt", "0"));
+        } catch (NumberFormatException e) {
+            PayrollMetrics.global().swallowed("FeedCache.fetchedAt", e);
+            return 0L;
+        }
+    }
+
+    private static Properties readMetadata(Path meta) {
+        if (!Files.isRegularFile(meta)) {
+            return null;
+        }
+        try (Reader reader = Files.newBufferedReader(meta, StandardCharsets.UTF_8)) {
+            Properties metadata = new Properties();
+            metadata.load(reader);
+            return metadata;
+        } catch (IOException e) {
+            PayrollMetrics.global().swallowed("FeedCache.readMetadata", e);
+            return null;
+        }
+    }
+
+    private static void writeMetadata(Path meta, Properties metadata) throws IOException {
+        Path temp = Files.createTempFile(meta.getParent(), meta.getFileName().toString(), ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            metadata.store(writer, "MotorPH feed cache entry");
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        Files.move(temp, meta, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static String keyFor(String url) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(url.getBytes(StandardCharsets.UTF_8));
+            StringBuilder key = new StringBuilder();
+            for (int i = 0; i < 16; i++) {
+                key.append(String.format("%02x", digest[i]));
+            }
+            return key.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.motorph.original;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads a local UTF-8 text file through a memory mapping.
+ *
+ * The file is mapped with {@link FileChannel#map} in windows of up to
+ * {@value #WINDOW_SIZE} bytes and decoded straight from the mapped pages into
+ * the caller's character array. This skips the InputStream, InputStreamReader
+ * and BufferedReader copies and the extra heap buffering of the page cache,
+ * which matters for multi-gigabyte attendance exports.
+ *
+ * Files larger than one window are mapped one window at a time, so the whole
+ * file never needs to fit in the address space at once.
+ */
+public final class MappedFileReader extends Reader {
+
+    private static final long WINDOW_SIZE = 256L * 1024 * 1024;
+
+    private final FileChannel channel;
+    private final long fileSize;
+    private final CharsetDecoder decoder;
+
+    private MappedByteBuffer window;
+    private long windowOffset;
+    private boolean flushed;
+
+    /**
+     * Opens the file for reading.
+     *
+     * @param path The file to read
+     * @throws IOException If the file cannot be opened or mapped
+     */
+    public MappedFileReader(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.fileSize = channel.size();
+        this.decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        mapWindow(0);
+        skipByteOrderMark();
+    }
+
+    @Override
+    public int read(char[] cbuf, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (flushed) {
+            return -1;
+        }
+
+        CharBuffer out = CharBuffer.wrap(cbuf, off, len);
+        while (out.position() == off) {
+            boolean lastWindow = windowOffset + window.limit() >= fileSize;
+            CoderResult result = decoder.decode(window, out, lastWindow);
+            if (result.isError()) {
+                result.throwException();
+            }
+            if (result.isOverflow()) {
+                break;
+            }
+
+            // Underflow: the window is used up (or ends in a split multi-byte sequence)
+            if (!lastWindow) {
+                mapWindow(windowOffset + window.position());
+            } else {
+                decoder.flush(out);
+                flushed = true;
+                break;
+            }
+        }
+
+        int read = out.position() - off;
+        return read == 0 ? -1 : read;
+    }
+
+    @Override
+    public void close() throws IOException {
+        window = null;
+        channel.close();
+    }
+
+    private void mapWindow(long offset) throws IOException {
+        long size = Math.min(WINDOW_SIZE, fileSize - offset);
+        window = channel.map(FileChannel.MapMode.READ_ONLY, offset, size);
+        windowOffset = offset;
+    }
+
+    private void skipByteOrderMark() {
+        ByteBuffer bytes = window;
+        if (bytes.remaining() >= 3
+                && bytes.get(0) == (byte) 0xEF
+                && bytes.get(1) == (byte) 0xBB
+                && bytes.get(2) == (byte) 0xBF) {
+            bytes.position(3);
+        }
+    }
+}
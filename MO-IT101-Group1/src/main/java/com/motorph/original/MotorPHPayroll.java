@@ -1,18 +1,15 @@
 package com.motorph.original;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.net.URL;
-import java.time.Duration;
+import java.io.PrintWriter;
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Scanner;
 
 /**
@@ -23,7 +20,7 @@ import java.util.Scanner;
  * This system enables:
  * - Employee data management (search, list, view attendance)
  * - Payroll processing (for all employees or individual employees)
- * - Report generation (payslips, weekly and monthly summaries)
+ * - Report generation (payslips, period summaries, tardiness)
  * 
  * The application loads employee and attendance data from online CSV sources
  * and processes this information to calculate pay and deductions.
@@ -31,56 +28,81 @@ import java.util.Scanner;
 public class MotorPHPayroll {
 
     // Constants
-    private static final double OVERTIME_RATE = 1.25;
-    private static final int REGULAR_HOURS_PER_DAY = 8;
-    private static final int WORK_DAYS_PER_MONTH = 21;
-    private static final LocalTime LATE_THRESHOLD = LocalTime.of(8, 10);
+    static final LocalTime LATE_THRESHOLD = LocalTime.ofSecondOfDay(WorkTotals.LATE_MINUTE * 60L);
 
-    private static final String DATE_FORMAT_PATTERN = "MM/dd/yyyy";
     private static final String TIME_FORMAT_PATTERN = "H:mm";
-    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern(DATE_FORMAT_PATTERN);
     private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern(TIME_FORMAT_PATTERN);
 
-    // Employee data column indices
-    private static final int EMP_ID_COL = 0;
-    private static final int LAST_NAME_COL = 1;
-    private static final int FIRST_NAME_COL = 2;
-    private static final int POSITION_COL = 11;
-    private static final int STATUS_COL = 10;
-    private static final int BASIC_SALARY_COL = 13;
-    private static final int RICE_SUBSIDY_COL = 14;
-    private static final int PHONE_ALLOWANCE_COL = 15;
-    private static final int CLOTHING_ALLOWANCE_COL = 16;
-    private static final int HOURLY_RATE_COL = 18;
-
     // Attendance record column indices
     private static final int ATT_EMP_ID_COL = 0;
     private static final int ATT_DATE_COL = 3;
     private static final int ATT_TIME_IN_COL = 4;
     private static final int ATT_TIME_OUT_COL = 5;
+    private static final int INVALID_EMP_NUMBER = -1;
+
+    // Default data sources (published Google Sheets exports)
+    static final String DEFAULT_EMPLOYEE_SOURCE = "https://docs.google.com/spreadsheets/d/e/2PACX-1vRe4-w2yYtOZpBxFZGP1UZqyKWk053QkCmVxwq9Hiu2LfHU2nVIvCkTTg8rtWQsP-sp31jG6OleREqM/pub?output=csv";
+    static final String DEFAULT_ATTENDANCE_SOURCE = "https://docs.google.com/spreadsheets/d/e/2PACX-1vTqBrLETQHcACenfV0_VSgV_uEGH5Cne2Vuw-oN2yDGRH5wWS8x8CcAXAV8iSNugtwWB_oVCuOlcFYT/pub?output=csv";
 
-    private static final Map<Double, Double> SSS_TABLE = initSSSTable();
-    private static final PayrollCalculator payrollCalculator = new PayrollCalculator();
+    // Shared by all payroll worker threads; both are immutable
+    private static ContributionTables contributionTables = ContributionTables.defaults();
+    private static BusinessCalendar calendar = BusinessCalendar.weekdays();
+    private static final PayrollRunEngine runEngine = PayrollRunEngine.fromSystemProperties();
+    private static final PayrollMetrics metrics = PayrollMetrics.global();
+    private static final PayResultCache payCache = PayResultCache.fromSystemProperties();
 
     /**
      * Main entry point for the MotorPH Payroll System.
+     *
+     * Optional arguments select the data sources, each a URL or a local file path:
+     * --employees <source> and --attendance <source>. With --serve <port> the
+     * data is served over HTTP (see {@link PayrollServer}) instead of showing the menu.
      */
     public static void main(String[] args) {
-        List<String[]> employees = new ArrayList<>();
-        List<String[]> attendanceRecords = new ArrayList<>();
+        String employeeSource = DEFAULT_EMPLOYEE_SOURCE;
+        String attendanceSource = DEFAULT_ATTENDANCE_SOURCE;
+        int servePort = -1;
+
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (i + 1 < args.length && option.equals("--employees")) {
+                employeeSource = args[++i];
+            } else if (i + 1 < args.length && option.equals("--attendance")) {
+                attendanceSource = args[++i];
+            } else if (i + 1 < args.length && option.equals("--serve") && args[i + 1].matches("\\d{1,5}")) {
+                servePort = Integer.parseInt(args[++i]);
+            } else {
+                System.err.println("Unknown or incomplete option: " + option);
+                System.err.println("Usage: MotorPHPayroll [--employees <url|file>] [--attendance <url|file>]"
+                        + " [--serve <port>]");
+                System.exit(1);
+            }
+        }
 
+        PayrollSnapshot initial = null;
         try {
-            // Load employee and attendance data from CSV files
-            employees = loadEmployeesFromCSV(
-                    "https://docs.google.com/spreadsheets/d/e/2PACX-1vRe4-w2yYtOZpBxFZGP1UZqyKWk053QkCmVxwq9Hiu2LfHU2nVIvCkTTg8rtWQsP-sp31jG6OleREqM/pub?output=csv");
-            attendanceRecords = loadAttendanceFromCSV(
-                    "https://docs.google.com/spreadsheets/d/e/2PACX-1vTqBrLETQHcACenfV0_VSgV_uEGH5Cne2Vuw-oN2yDGRH5wWS8x8CcAXAV8iSNugtwWB_oVCuOlcFYT/pub?output=csv");
+            // Load the contribution tables and the working-day calendar
+            loadPayrollSettings();
+
+            // Load employee and attendance data and build the indexes
+            initial = loadSnapshot(employeeSource, attendanceSource, null);
 
         } catch (IOException e) {
             System.err.println("Error loading data: " + e.getMessage());
             System.exit(1);
         }
 
+        // Reloads the data in the background on request (and on a schedule if configured)
+        String employeeFeed = employeeSource;
+        String attendanceFeed = attendanceSource;
+        DataRefresher refresher = DataRefresher.fromSystemProperties(initial,
+                previous -> loadSnapshot(employeeFeed, attendanceFeed, previous));
+
+        if (servePort >= 0) {
+            serve(refresher, servePort);
+            return;
+        }
+
         // Main menu loop
         Scanner scanner = new Scanner(System.in);
         boolean running = true;
@@ -89,20 +111,25 @@ public class MotorPHPayroll {
             System.out.println("1. Employee Management");
             System.out.println("2. Payroll Management");
             System.out.println("3. Reports");
-            System.out.println("4. Exit");
+            System.out.println("4. Refresh Data (loaded " + formatAge(refresher.current().ageMillis()) + " ago)");
+            System.out.println("5. Exit");
             System.out.print("Enter your choice: ");
 
             try {
                 int choice = Integer.parseInt(scanner.nextLine());
                 switch (choice) {
-                    case 1 -> employeeManagement(employees, attendanceRecords, scanner);
-                    case 2 -> payrollManagement(employees, attendanceRecords, scanner);
-                    case 3 -> reportsMenu(employees, attendanceRecords, scanner);
-                    case 4 -> {
+                    case 1 -> employeeManagement(refresher, scanner);
+                    case 2 -> payrollManagement(refresher, scanner);
+                    case 3 -> reportsMenu(refresher, scanner);
+                    case 4 -> refreshData(refresher);
+                    case 5 -> {
                         System.out.println("Exiting system...");
+                        refresher.stop();
+                        System.out.print(metrics.summary());
+                        System.out.print(payCache.summary());
                         running = false;
                     }
-                    default -> System.out.println("Invalid choice. Please enter 1-4.");
+                    default -> System.out.println("Invalid choice. Please enter 1-5.");
                 }
             } catch (NumberFormatException e) {
                 System.err.println("Invalid input. Please enter a number.");
@@ -112,89 +139,180 @@ public class MotorPHPayroll {
     }
 
     /**
-     * Initializes the SSS contribution table
+     * Serves the data over HTTP until the process is stopped
      */
-    private static Map<Double, Double> initSSSTable() {
-        Map<Double, Double> sssTable = new HashMap<>();
-        sssTable.put(4250.0, 180.0);
-        sssTable.put(4750.0, 202.5);
-        sssTable.put(5250.0, 225.0);
-        sssTable.put(5750.0, 247.5);
-        sssTable.put(6250.0, 270.0);
-        sssTable.put(6750.0, 292.5);
-        sssTable.put(7250.0, 315.0);
-        sssTable.put(7750.0, 337.5);
-        sssTable.put(8250.0, 360.0);
-        sssTable.put(8750.0, 382.5);
-        sssTable.put(9250.0, 405.0);
-        sssTable.put(9750.0, 427.5);
-        sssTable.put(10250.0, 450.0);
-        sssTable.put(10750.0, 472.5);
-        sssTable.put(11250.0, 495.0);
-        sssTable.put(11750.0, 517.5);
-        sssTable.put(12250.0, 540.0);
-        sssTable.put(12750.0, 562.5);
-        sssTable.put(13250.0, 585.0);
-        sssTable.put(13750.0, 607.5);
-        sssTable.put(14250.0, 630.0);
-        sssTable.put(14750.0, 652.5);
-        sssTable.put(15250.0, 675.0);
-        sssTable.put(15750.0, 697.5);
-        sssTable.put(16250.0, 720.0);
-        sssTable.put(16750.0, 742.5);
-        sssTable.put(17250.0, 765.0);
-        sssTable.put(17750.0, 787.5);
-        sssTable.put(18250.0, 810.0);
-        sssTable.put(18750.0, 832.5);
-        sssTable.put(19250.0, 855.0);
-        sssTable.put(19750.0, 877.5);
-        sssTable.put(20250.0, 900.0);
-        sssTable.put(20750.0, 922.5);
-        sssTable.put(Double.MAX_VALUE, 945.0);
-        return sssTable;
+    private static void serve(DataRefresher refresher, int port) {
+        try {
+            PayrollServer server = PayrollServer.fromSystemProperties(refresher, runEngine, port);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                server.stop(1);
+                refresher.stop();
+                System.out.print(metrics.summary());
+                System.out.print(payCache.summary());
+            }));
+            server.start();
+            System.out.printf("Serving %d employees on http://localhost:%d/ (Ctrl+C to stop)%n",
+                    refresher.current().employees().size(), server.port());
+            Thread.currentThread().join();
+        } catch (IOException e) {
+            System.err.println("Error starting server: " + e.getMessage());
+            System.exit(1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
     }
 
     /**
-     * Loads employee data from a CSV file
+     * Reloads the data sources and reports how long it took and what changed
      */
-    private static List<String[]> loadEmployeesFromCSV(String url) throws IOException {
-        List<String[]> employees = new ArrayList<>();
-        try (BufferedReader br = new BufferedReader(new InputStreamReader(new URL(url).openStream()))) {
-            String line;
-            boolean isHeaderSkipped = false;
-
-            while ((line = br.readLine()) != null) {
-                if (!isHeaderSkipped) {
-                    isHeaderSkipped = true; // Skip header row
-                    continue;
-                }
+    private static void refreshData(DataRefresher refresher) {
+        System.out.println("\nRefreshing data...");
+        long started = System.nanoTime();
+        try {
+            PayrollSnapshot snapshot = refresher.refreshAndWait();
+            System.out.printf("Data refreshed in %.1f ms: %d employees, %d attendance records,"
+                    + " %d employees with changed attendance%n", (System.nanoTime() - started) / 1e6,
+                    snapshot.employees().size(), snapshot.attendance().recordCount(),
+                    snapshot.workHours().changedEmployees().size());
+        } catch (IOException e) {
+            System.err.println("Error refreshing data: " + e.getMessage());
+            System.out.println("Keeping the data loaded " + formatAge(refresher.current().ageMillis()) + " ago.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
 
-                // Parse CSV with quoted fields
-                List<String> fields = new ArrayList<>();
-                StringBuilder sb = new StringBuilder();
-                boolean inQuotes = false;
-
-                for (char c : line.toCharArray()) {
-                    if (c == '"') {
-                        inQuotes = !inQuotes; // Toggle quote state
-                    } else if (c == ',' && !inQuotes) {
-                        // End of field
-                        fields.add(sb.toString());
-                        sb = new StringBuilder();
-                    } else {
-                        sb.append(c);
-                    }
+    /**
+     * Formats a duration as e.g. "45 s", "12 min" or "3 h"
+     */
+    private static String formatAge(long millis) {
+        long seconds = millis / 1000;
+        if (seconds < 120) {
+            return seconds + " s";
+        }
+        return seconds < 2 * 3600 ? seconds / 60 + " min" : seconds / 3600 + " h";
+    }
+
+    /**
+     * Loads the data sources and builds the indexes into a new snapshot. On a
+     * refresh the daily work-hour aggregates are updated from the previous
+     * snapshot, so only the days that changed are recomputed.
+     */
+    private static PayrollSnapshot loadSnapshot(String employeeSource, String attendanceSource,
+            PayrollSnapshot previous) throws IOException {
+        // Load employee and attendance data (from the binary snapshot when it is up to date)
+        PayrollData data = loadData(employeeSource, attendanceSource);
+
+        // Index the employee directory for searches and lookups by employee number
+        long started = System.nanoTime();
+        EmployeeSearchIndex searchIndex = EmployeeSearchIndex.build(data.employees());
+        metrics.recordPhase(PayrollMetrics.Phase.INDEX, started);
+
+        // Bring the daily work-hour aggregates up to date with the attendance data
+        DailyWorkStore workHours = loadWorkHours(attendanceSource, data,
+                previous == null ? null : previous.workHours());
+
+        return new PayrollSnapshot(data.employees(), searchIndex, data.attendance(), workHours,
+                System.currentTimeMillis());
+    }
+
+    /**
+     * Loads the contribution tables (built-in unless a table file is configured)
+     * and the working-day calendar (weekdays only unless a holiday file is configured)
+     */
+    static void loadPayrollSettings() throws IOException {
+        contributionTables = ContributionTables.fromSystemProperties();
+        calendar = BusinessCalendar.fromSystemProperties();
+        payCache.clear();
+    }
+
+    /**
+     * Loads employee and attendance data, reusing the binary snapshot when it
+     * matches the current source files and rebuilding it otherwise
+     */
+    static PayrollData loadData(String employeeSource, String attendanceSource) throws IOException {
+        long started = System.nanoTime();
+        Path employeeFile = DataSources.resolve(employeeSource);
+        Path attendanceFile = DataSources.resolve(attendanceSource);
+        metrics.recordPhase(PayrollMetrics.Phase.FETCH, started);
+
+        Path snapshotFile = DataSnapshot.defaultLocation(employeeSource, attendanceSource);
+        long fingerprint = DataSnapshot.fingerprint(employeeFile, attendanceFile);
+
+        started = System.nanoTime();
+        PayrollData data = DataSnapshot.read(snapshotFile, fingerprint);
+        if (data != null) {
+            metrics.recordPhase(PayrollMetrics.Phase.PARSE, started);
+            return data;
+        }
+
+        data = new PayrollData(loadEmployeesFromCSV(employeeFile.toString()),
+                loadAttendanceFromCSV(attendanceFile.toString()), fingerprint);
+        try {
+            DataSnapshot.write(snapshotFile, fingerprint, data);
+        } catch (IOException e) {
+            System.err.println("Warning: could not write data snapshot: " + e.getMessage());
+        }
+        return data;
+    }
+
+    /**
+     * Updates the stored daily work-hour aggregates from the attendance data.
+     * Nothing is recomputed while the source files are unchanged; otherwise only
+     * employee-days whose punches changed since the last run are recomputed, and
+     * the store is only rewritten if its source changed.
+     */
+    static DailyWorkStore loadWorkHours(String attendanceSource, PayrollData data, DailyWorkStore previous) {
+        long started = System.nanoTime();
+        Path storeFile = DailyWorkStore.defaultLocation(attendanceSource);
+        DailyWorkStore stored = previous != null ? previous : DailyWorkStore.read(storeFile);
+        DailyWorkStore workHours = stored.update(data.attendance(), data.sourceFingerprint());
+        metrics.recordPhase(PayrollMetrics.Phase.AGGREGATE, started);
+
+        // Cached pay of employees whose attendance changed is outdated
+        payCache.invalidate(workHours.changedEmployees());
+
+        if (workHours.sourceFingerprint() != stored.sourceFingerprint()) {
+            try {
+                workHours.write(storeFile);
+            } catch (IOException e) {
+                System.err.println("Warning: could not write work-hour store: " + e.getMessage());
+            }
+        }
+        return workHours;
+    }
+
+    /**
+     * Loads employee data from a CSV file (URL or local path) into typed
+     * employee records (package-private for the benchmarks)
+     */
+    static List<Employee> loadEmployeesFromCSV(String source) throws IOException {
+        long started = System.nanoTime();
+        List<Employee> employees = new ArrayList<>();
+        long rows = 0;
+        try (CsvParser parser = new CsvParser(DataSources.open(source))) {
+            parser.next(); // Skip header row
+
+            while (parser.next()) {
+                rows++;
+                if (parser.isBlankLine()) {
+                    metrics.rowSkipped(PayrollMetrics.SkipReason.BLANK_LINE);
+                    continue;
                 }
-                fields.add(sb.toString()); // Add the last field
 
-                String[] data = fields.toArray(new String[0]);
-                if (data.length > 0) {
-                    employees.add(data);
+                // Parse every column once; records without a valid employee number are skipped
+                Employee employee = Employee.parse(parser);
+                if (employee != null) {
+                    employees.add(employee);
+                } else {
+                    metrics.rowSkipped(PayrollMetrics.SkipReason.INVALID_EMPLOYEE_NUMBER);
                 }
             }
         } catch (IOException e) {
             throw new IOException("Failed to load employee data: " + e.getMessage());
         }
+        metrics.rowsRead(PayrollMetrics.Dataset.EMPLOYEES, rows);
+        metrics.recordPhase(PayrollMetrics.Phase.PARSE, started);
 
         if (employees.isEmpty()) {
             throw new IOException("No valid employee records found in CSV.");
@@ -203,40 +321,75 @@ public class MotorPHPayroll {
     }
 
     /**
-     * Loads attendance data from a CSV file
+     * Loads attendance data from a CSV file (URL or local path) and indexes it
+     * by employee and date. Dates and times are decoded once here; rows that
+     * cannot be decoded are skipped. Package-private for the benchmarks.
      */
-    private static List<String[]> loadAttendanceFromCSV(String url) throws IOException {
-        List<String[]> attendanceRecords = new ArrayList<>();
-        try (BufferedReader br = new BufferedReader(new InputStreamReader(new URL(url).openStream()))) {
-            String line;
-            boolean isHeaderSkipped = false;
-
-            while ((line = br.readLine()) != null) {
-                if (!isHeaderSkipped) {
-                    isHeaderSkipped = true; // Skip header row
+    static AttendanceIndex loadAttendanceFromCSV(String source) throws IOException {
+        long started = System.nanoTime();
+        AttendanceIndex.Builder builder = new AttendanceIndex.Builder();
+        int validRows = 0;
+        long rows = 0;
+        try (CsvParser parser = new CsvParser(DataSources.open(source))) {
+            parser.next(); // Skip header row
+
+            while (parser.next()) {
+                rows++;
+                if (parser.isBlankLine()) {
+                    metrics.rowSkipped(PayrollMetrics.SkipReason.BLANK_LINE);
+                    continue;
+                }
+                if (parser.fieldCount() <= ATT_TIME_OUT_COL) {
+                    metrics.rowSkipped(PayrollMetrics.SkipReason.MISSING_COLUMNS);
                     continue;
                 }
 
-                String[] data = line.split(",");
-                if (data.length > 0) {
-                    attendanceRecords.add(data);
+                // Decode straight from the parser's buffer; invalid values come back as INVALID
+                char[] buffer = parser.buffer();
+                int epochDay = DateTimeCodec.decodeDate(buffer,
+                        parser.fieldStart(ATT_DATE_COL), parser.fieldEnd(ATT_DATE_COL));
+                int minuteIn = DateTimeCodec.decodeTime(buffer,
+                        parser.fieldStart(ATT_TIME_IN_COL), parser.fieldEnd(ATT_TIME_IN_COL));
+                int minuteOut = DateTimeCodec.decodeTime(buffer,
+                        parser.fieldStart(ATT_TIME_OUT_COL), parser.fieldEnd(ATT_TIME_OUT_COL));
+                int empNumber = parser.parseInt(ATT_EMP_ID_COL, INVALID_EMP_NUMBER);
+
+                // Skip records with a missing or invalid employee number, date or time
+                if (empNumber == INVALID_EMP_NUMBER) {
+                    metrics.rowSkipped(PayrollMetrics.SkipReason.INVALID_EMPLOYEE_NUMBER);
+                    continue;
                 }
+                if (epochDay == DateTimeCodec.INVALID) {
+                    metrics.rowSkipped(PayrollMetrics.SkipReason.INVALID_DATE);
+                    continue;
+                }
+                if (minuteIn == DateTimeCodec.INVALID || minuteOut == DateTimeCodec.INVALID) {
+                    metrics.rowSkipped(PayrollMetrics.SkipReason.INVALID_TIME);
+                    continue;
+                }
+
+                builder.add(empNumber, epochDay, minuteIn, minuteOut);
+                validRows++;
             }
         } catch (IOException e) {
             throw new IOException("Failed to load attendance data: " + e.getMessage());
         }
+        metrics.rowsRead(PayrollMetrics.Dataset.ATTENDANCE, rows);
+        metrics.recordPhase(PayrollMetrics.Phase.PARSE, started);
 
-        if (attendanceRecords.isEmpty()) {
+        if (validRows == 0) {
             throw new IOException("No valid attendance records found in CSV.");
         }
-        return attendanceRecords;
+        started = System.nanoTime();
+        AttendanceIndex index = builder.build();
+        metrics.recordPhase(PayrollMetrics.Phase.INDEX, started);
+        return index;
     }
 
     /**
      * Employee management menu
      */
-    private static void employeeManagement(List<String[]> employees, List<String[]> attendanceRecords,
-            Scanner scanner) {
+    private static void employeeManagement(DataRefresher refresher, Scanner scanner) {
         while (true) {
             System.out.println("\nEmployee Management:");
             System.out.println("1. Search Employee");
@@ -247,10 +400,11 @@ public class MotorPHPayroll {
 
             try {
                 int choice = Integer.parseInt(scanner.nextLine());
+                PayrollSnapshot data = refresher.current();
                 switch (choice) {
-                    case 1 -> searchEmployee(employees, scanner);
-                    case 2 -> listAllEmployees(employees);
-                    case 3 -> viewAttendance(employees, attendanceRecords, scanner);
+                    case 1 -> searchEmployee(data.searchIndex(), scanner);
+                    case 2 -> listAllEmployees(data.employees());
+                    case 3 -> viewAttendance(data.employees(), data.attendance(), scanner);
                     case 4 -> {
                         return;
                     }
@@ -265,23 +419,27 @@ public class MotorPHPayroll {
     /**
      * Payroll management menu
      */
-    private static void payrollManagement(List<String[]> employees, List<String[]> attendanceRecords, Scanner scanner) {
+    private static void payrollManagement(DataRefresher refresher, Scanner scanner) {
         while (true) {
             System.out.println("\nPayroll Management:");
             System.out.println("1. Generate Payroll (Calculate All Employees)");
             System.out.println("2. Custom Payroll");
-            System.out.println("3. Return to Main Menu");
+            System.out.println("3. Export Payroll Register");
+            System.out.println("4. Return to Main Menu");
             System.out.print("Enter your choice: ");
 
             try {
                 int choice = Integer.parseInt(scanner.nextLine());
+                PayrollSnapshot data = refresher.current();
                 switch (choice) {
-                    case 1 -> generatePayroll(employees, attendanceRecords, scanner);
-                    case 2 -> generateEmployeePayslip(employees, attendanceRecords, scanner, "EMPLOYEE PAYSLIP");
-                    case 3 -> {
+                    case 1 -> generatePayroll(data.employees(), data.workHours(), scanner);
+                    case 2 -> generateEmployeePayslip(data.searchIndex(), data.workHours(), scanner,
+                            "EMPLOYEE PAYSLIP");
+                    case 3 -> exportPayroll(data.employees(), data.workHours(), scanner);
+                    case 4 -> {
                         return;
                     }
-                    default -> System.out.println("Invalid choice. Please enter 1-3.");
+                    default -> System.out.println("Invalid choice. Please enter 1-4.");
                 }
             } catch (NumberFormatException e) {
                 System.err.println("Invalid input. Please enter a number.");
@@ -292,25 +450,39 @@ public class MotorPHPayroll {
     /**
      * Reports menu
      */
-    private static void reportsMenu(List<String[]> employees, List<String[]> attendanceRecords, Scanner scanner) {
+    private static void reportsMenu(DataRefresher refresher, Scanner scanner) {
         while (true) {
             System.out.println("\nReports:");
             System.out.println("1. Payslip");
             System.out.println("2. Weekly Summary");
-            System.out.println("3. Monthly Summary");
-            System.out.println("4. Return to Main Menu");
+            System.out.println("3. Semi-Monthly Summary");
+            System.out.println("4. Monthly Summary");
+            System.out.println("5. Quarterly Summary");
+            System.out.println("6. Bulk Payslips (All Employees)");
+            System.out.println("7. Tardiness Report");
+            System.out.println("8. Return to Main Menu");
             System.out.print("Enter your choice: ");
 
             try {
                 int choice = Integer.parseInt(scanner.nextLine());
+                PayrollSnapshot data = refresher.current();
                 switch (choice) {
-                    case 1 -> generateEmployeePayslip(employees, attendanceRecords, scanner, "PAYSLIP REPORT");
-                    case 2 -> generateSummaryReport(employees, attendanceRecords, "Weekly");
-                    case 3 -> generateSummaryReport(employees, attendanceRecords, "Monthly");
-                    case 4 -> {
+                    case 1 -> generateEmployeePayslip(data.searchIndex(), data.workHours(), scanner,
+                            "PAYSLIP REPORT");
+                    case 2 -> generateSummaryReport(data.employees(), data.workHours(), scanner,
+                            PeriodSummaryReport.Granularity.WEEKLY);
+                    case 3 -> generateSummaryReport(data.employees(), data.workHours(), scanner,
+                            PeriodSummaryReport.Granularity.SEMI_MONTHLY);
+                    case 4 -> generateSummaryReport(data.employees(), data.workHours(), scanner,
+                            PeriodSummaryReport.Granularity.MONTHLY);
+                    case 5 -> generateSummaryReport(data.employees(), data.workHours(), scanner,
+                            PeriodSummaryReport.Granularity.QUARTERLY);
+                    case 6 -> generateBulkPayslips(data.employees(), data.workHours(), scanner);
+                    case 7 -> generateTardinessReport(data.employees(), data.workHours(), scanner);
+                    case 8 -> {
                         return;
                     }
-                    default -> System.out.println("Invalid choice. Please enter 1-4.");
+                    default -> System.out.println("Invalid choice. Please enter 1-8.");
                 }
             } catch (NumberFormatException e) {
                 System.err.println("Invalid input. Please enter a number.");
@@ -321,7 +493,7 @@ public class MotorPHPayroll {
     /**
      * Generates payroll for all employees within a specified date range
      */
-    private static void generatePayroll(List<String[]> employees, List<String[]> attendanceRecords, Scanner scanner) {
+    private static void generatePayroll(List<Employee> employees, DailyWorkStore workHours, Scanner scanner) {
         System.out.println("\nGenerate Payroll:");
         LocalDate startDate = getDateInput(scanner, "Date From (MM/DD/YYYY): ");
         LocalDate endDate = getDateInput(scanner, "Date To (MM/DD/YYYY): ");
@@ -333,39 +505,42 @@ public class MotorPHPayroll {
         System.out.println(
                 "─────────────────────────────────────────────────────────────────────────────────────────────────────────────");
 
-        for (String[] employee : employees) {
-            int empNumber = Integer.parseInt(employee[0]);
-            double hourlyRate = extractHourlyRate(employee);
-
-            // Calculate with new methods including overtime
-            Map<String, Double> payDetails = getGrossPayDetails(attendanceRecords, empNumber, hourlyRate, startDate,
-                    endDate);
-            double regularHours = payDetails.get("regularHours");
-            double overtimeHours = payDetails.get("overtimeHours");
-            double grossPay = payDetails.get("totalPay");
+        // Compute every employee in parallel, then print in employee order
+        PayrollCalculator calculator = calculatorFor(endDate);
+        List<PayrollResult> results = runEngine.run(employees,
+                employee -> computeEmployeePay(employee, workHours, calculator, startDate, endDate));
 
-            // Get pro-rated allowances
-            Map<String, Double> allowanceDetails = getProRatedAllowanceDetails(employee, startDate, endDate);
-            double totalAllowances = allowanceDetails.get("totalAllowances");
-
-            double sumAfterDeductions = payrollCalculator.calculateNetPay(grossPay);
-            double netPay = sumAfterDeductions + totalAllowances;
-
-            // Format the name properly
-            String fullName = formatEmployeeName(employee);
+        long started = System.nanoTime();
+        // Totals are summed in centavos, so they equal the sum of the printed rows
+        long totalGrossPay = 0;
+        long totalAllowances = 0;
+        long totalNetPay = 0;
+        for (PayrollResult result : results) {
+            Employee employee = result.employee();
 
             // Format numbers with commas for thousands
             System.out.printf("%-7s %-25s %10.2f %10.2f %12.2f %15s %15s %15s%n",
-                    employee[0],
-                    fullName,
-                    regularHours,
-                    overtimeHours,
-                    hourlyRate,
-                    String.format("%,.2f", grossPay),
-                    String.format("%,.2f", totalAllowances),
-                    String.format("%,.2f", netPay));
+                    employee.employeeNumber(),
+                    employee.fullName(),
+                    result.regularHours(),
+                    result.overtimeHours(),
+                    result.hourlyRate(),
+                    String.format("%,.2f", result.grossPay()),
+                    String.format("%,.2f", result.totalAllowances()),
+                    String.format("%,.2f", result.netPay()));
+            totalGrossPay += result.grossPayCentavos();
+            totalAllowances += result.totalAllowancesCentavos();
+            totalNetPay += result.netPayCentavos();
         }
+        metrics.recordPhase(PayrollMetrics.Phase.RENDER, started);
 
+        System.out.println(
+                "─────────────────────────────────────────────────────────────────────────────────────────────────────────────");
+        System.out.printf("%-7s %-25s %10s %10s %12s %15s %15s %15s%n",
+                "Total", results.size() + " employees", "", "", "",
+                String.format("%,.2f", Centavos.toPesos(totalGrossPay)),
+                String.format("%,.2f", Centavos.toPesos(totalAllowances)),
+                String.format("%,.2f", Centavos.toPesos(totalNetPay)));
         System.out.println(
                 "═════════════════════════════════════════════════════════════════════════════════════════════════════════════");
 
@@ -373,10 +548,42 @@ public class MotorPHPayroll {
         scanner.nextLine();
     }
 
+    /**
+     * Exports the payroll register of all employees for a date range to a CSV
+     * or JSON Lines file
+     */
+    private static void exportPayroll(List<Employee> employees, DailyWorkStore workHours, Scanner scanner) {
+        System.out.println("\nExport Payroll Register:");
+        LocalDate startDate = getDateInput(scanner, "Date From (MM/DD/YYYY): ");
+        LocalDate endDate = getDateInput(scanner, "Date To (MM/DD/YYYY): ");
+
+        System.out.print("Format (1 = CSV, 2 = JSON Lines): ");
+        PayrollExporter.Format format = scanner.nextLine().trim().equals("2")
+                ? PayrollExporter.Format.JSONL
+                : PayrollExporter.Format.CSV;
+        String defaultFile = "payroll-" + startDate + "-to-" + endDate
+                + (format == PayrollExporter.Format.JSONL ? ".jsonl" : ".csv");
+        System.out.print("Output file [" + defaultFile + "]: ");
+        String file = scanner.nextLine().trim();
+        Path outputFile = Path.of(file.isEmpty() ? defaultFile : file);
+
+        PayrollCalculator calculator = calculatorFor(endDate);
+        long started = System.nanoTime();
+        try {
+            int rows = new PayrollExporter(runEngine).export(employees,
+                    employee -> computeEmployeePay(employee, workHours, calculator, startDate, endDate),
+                    calculator, startDate, endDate, outputFile, format);
+            System.out.printf("Exported %d employees to %s in %.1f ms%n",
+                    rows, outputFile.toAbsolutePath(), (System.nanoTime() - started) / 1e6);
+        } catch (IOException e) {
+            System.err.println("Error exporting payroll: " + e.getMessage());
+        }
+    }
+
     /**
      * Consolidated method for generating payslips and custom payroll
      */
-    private static void generateEmployeePayslip(List<String[]> employees, List<String[]> attendanceRecords,
+    private static void generateEmployeePayslip(EmployeeSearchIndex searchIndex, DailyWorkStore workHours,
             Scanner scanner, String title) {
         System.out.print("\nEnter Employee No: ");
         int empNumber;
@@ -387,7 +594,7 @@ public class MotorPHPayroll {
             return;
         }
 
-        String[] employee = findEmployeeById(employees, empNumber);
+        Employee employee = searchIndex.find(empNumber);
         if (employee == null) {
             System.out.println("Employee not found.");
             return;
@@ -396,71 +603,14 @@ public class MotorPHPayroll {
         LocalDate startDate = getDateInput(scanner, "Date From (MM/DD/YYYY): ");
         LocalDate endDate = getDateInput(scanner, "Date To (MM/DD/YYYY): ");
 
-        double hourlyRate = extractHourlyRate(employee);
-
-        // Get detailed pay breakdown with overtime
-        Map<String, Double> payDetails = getGrossPayDetails(attendanceRecords, empNumber, hourlyRate, startDate,
-                endDate);
-        double regularHours = payDetails.get("regularHours");
-        double overtimeHours = payDetails.get("overtimeHours");
-        double regularPay = payDetails.get("regularPay");
-        double overtimePay = payDetails.get("overtimePay");
-        double grossPay = payDetails.get("totalPay");
-
-        // Get pro-rated allowances
-        Map<String, Double> allowanceDetails = getProRatedAllowanceDetails(employee, startDate, endDate);
-        double riceSubsidy = allowanceDetails.get("riceSubsidy");
-        double phoneAllowance = allowanceDetails.get("phoneAllowance");
-        double clothingAllowance = allowanceDetails.get("clothingAllowance");
-        double totalAllowances = allowanceDetails.get("totalAllowances");
-        double workingDays = allowanceDetails.get("workingDays");
-
-        // Calculate deductions and net pay
-        double sumAfterDeductions = payrollCalculator.calculateNetPay(grossPay);
-        double netPay = sumAfterDeductions + totalAllowances;
-
-        String fullName = formatEmployeeName(employee);
-
-        // Enhanced output with detailed breakdown
-        System.out.println("\n═══════════════════════════════════════════");
-        System.out.println("           " + title);
-        System.out.println("═══════════════════════════════════════════");
-        System.out.println("Employee No: " + empNumber);
-        System.out.println("Name: " + fullName);
-        System.out.println("Position: " + (employee.length > POSITION_COL ? employee[POSITION_COL] : "N/A"));
-        System.out.println("Period: " + startDate.format(DATE_FORMATTER) + " to " + endDate.format(DATE_FORMATTER));
-        System.out.println("Working Days: " + (int) workingDays + " of " + WORK_DAYS_PER_MONTH + " days");
-        System.out.println("───────────────────────────────────────────");
-        System.out.println("HOURS WORKED:");
-        System.out.printf("Regular Hours: %.2f\n", regularHours);
-        System.out.printf("Overtime Hours: %.2f\n", overtimeHours);
-        System.out.printf("Total Hours: %.2f\n", regularHours + overtimeHours);
-        System.out.println("───────────────────────────────────────────");
-        System.out.println("PAY DETAILS:");
-        System.out.printf("Hourly Rate: ₱%.2f\n", hourlyRate);
-        System.out.printf("Regular Pay: ₱%.2f\n", regularPay);
-        System.out.printf("Overtime Pay: ₱%.2f\n", overtimePay);
-        System.out.printf("Gross Pay: ₱%.2f\n", grossPay);
-        System.out.println("───────────────────────────────────────────");
-        System.out.println("DEDUCTIONS:");
-        System.out.printf("SSS: ₱%.2f\n", payrollCalculator.calculateSSSContribution(grossPay));
-        System.out.printf("PhilHealth: ₱%.2f\n", payrollCalculator.calculatePhilHealthContribution(grossPay));
-        System.out.printf("Pag-IBIG: ₱%.2f\n", payrollCalculator.calculatePagIbigContribution(grossPay));
-        double withholdingTax = payrollCalculator.calculateWithholdingTax(grossPay -
-                payrollCalculator.calculateSSSContribution(grossPay) -
-                payrollCalculator.calculatePhilHealthContribution(grossPay) -
-                payrollCalculator.calculatePagIbigContribution(grossPay));
-        System.out.printf("Withholding Tax: ₱%.2f\n", withholdingTax);
-        System.out.printf("Total Deductions: ₱%.2f\n", (grossPay - sumAfterDeductions));
-        System.out.println("───────────────────────────────────────────");
-        System.out.println("ALLOWANCES (Pro-rated for " + (int) workingDays + " days):");
-        System.out.printf("Rice Subsidy: ₱%.2f\n", riceSubsidy);
-        System.out.printf("Phone Allowance: ₱%.2f\n", phoneAllowance);
-        System.out.printf("Clothing Allowance: ₱%.2f\n", clothingAllowance);
-        System.out.printf("Total Allowances: ₱%.2f\n", totalAllowances);
-        System.out.println("───────────────────────────────────────────");
-        System.out.printf("FINAL NET PAY: ₱%.2f\n", netPay);
-        System.out.println("═══════════════════════════════════════════");
+        PayrollCalculator payrollCalculator = calculatorFor(endDate);
+        PayrollResult result = computeEmployeePay(employee, workHours, payrollCalculator, startDate, endDate);
+
+        // Detailed breakdown (the same text the bulk payslip job writes to files)
+        long started = System.nanoTime();
+        System.out.print(PayslipRenderer.render(title, result, payrollCalculator, startDate, endDate,
+                workDaysPerMonth(endDate)));
+        metrics.recordPhase(PayrollMetrics.Phase.RENDER, started);
 
         // Pause before returning to menu
         System.out.println("\nPress Enter to return to menu...");
@@ -468,251 +618,156 @@ public class MotorPHPayroll {
     }
 
     /**
-     * Consolidated method for weekly and monthly summary reports
+     * Writes a payslip file for every employee for a date range
      */
-    private static void generateSummaryReport(List<String[]> employees, List<String[]> attendanceRecords, String period) {
-        System.out.println("\n" + period + " Summary Report:");
-
-        // Get date range from user
-        Scanner scanner = new Scanner(System.in);
+    private static void generateBulkPayslips(List<Employee> employees, DailyWorkStore workHours, Scanner scanner) {
+        System.out.println("\nBulk Payslips:");
         LocalDate startDate = getDateInput(scanner, "Date From (MM/DD/YYYY): ");
         LocalDate endDate = getDateInput(scanner, "Date To (MM/DD/YYYY): ");
 
-        System.out.printf("%-10s %-25s %-15s %-15s %-15s%n",
-                "Emp#", "Name", "Total Work Hours", "Net Pay", "Gross Pay");
-        System.out.println("-".repeat(85));
-
-        for (String[] employee : employees) {
-            int empNumber = Integer.parseInt(employee[0]);
-            String fullName = formatEmployeeName(employee);
-            double hourlyRate = extractHourlyRate(employee);
+        String defaultDirectory = "payslips-" + startDate + "-to-" + endDate;
+        System.out.print("Output directory [" + defaultDirectory + "]: ");
+        String directory = scanner.nextLine().trim();
+        Path outputDirectory = Path.of(directory.isEmpty() ? defaultDirectory : directory);
 
-            // Calculate directly from attendance records
-            Map<String, Double> payDetails = getGrossPayDetails(attendanceRecords, empNumber, hourlyRate, startDate,
-                    endDate);
-            double totalRegularHours = payDetails.get("regularHours");
-            double totalOvertimeHours = payDetails.get("overtimeHours");
-            double totalHours = totalRegularHours + totalOvertimeHours;
-            double grossPay = payDetails.get("totalPay");
-
-            // Get pro-rated allowances
-            Map<String, Double> allowanceDetails = getProRatedAllowanceDetails(employee, startDate, endDate);
-            double totalAllowances = allowanceDetails.get("totalAllowances");
-
-            // Calculate net pay
-            double sumAfterDeductions = payrollCalculator.calculateNetPay(grossPay);
-            double netPay = sumAfterDeductions + totalAllowances;
-
-            System.out.printf("%-10s %-25s %-15.2f %-15.2f %-15.2f%n",
-                    employee[0], fullName, totalHours, netPay, grossPay);
+        PayrollCalculator calculator = calculatorFor(endDate);
+        int workDaysPerMonth = workDaysPerMonth(endDate);
+        BulkPayslipJob job = BulkPayslipJob.fromSystemProperties(System.out);
+        try {
+            BulkPayslipJob.Summary summary = job.run(employees,
+                    employee -> {
+                        PayrollResult result = computeEmployeePay(employee, workHours, calculator, startDate,
+                                endDate);
+                        long started = System.nanoTime();
+                        String payslip = PayslipRenderer.render("EMPLOYEE PAYSLIP", result, calculator, startDate,
+                                endDate, workDaysPerMonth);
+                        metrics.recordPhase(PayrollMetrics.Phase.RENDER, started);
+                        return payslip;
+                    },
+                    outputDirectory);
+            System.out.printf("Wrote %d payslips to %s in %.1f s (%.0f per second)%n",
+                    summary.written(), outputDirectory.toAbsolutePath(), summary.elapsedNanos() / 1e9,
+                    summary.throughput());
+            if (summary.failed() > 0) {
+                System.out.println(summary.failed() + " payslips could not be written.");
+            }
+        } catch (IOException e) {
+            System.err.println("Error writing payslips: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Payslip generation interrupted.");
         }
     }
 
     /**
-     * Displays attendance records for a specific employee within a date range
+     * Summary reports for every week, half month, month or quarter of a date range
      */
-    private static void viewAttendance(List<String[]> employees, List<String[]> attendanceRecords, Scanner scanner) {
-        System.out.print("\nEnter Employee No: ");
-        int empNumber;
-        try {
-            empNumber = Integer.parseInt(scanner.nextLine());
-        } catch (NumberFormatException e) {
-            System.out.println("Invalid employee number. Please enter a numeric value.");
-            return;
-        }
+    private static void generateSummaryReport(List<Employee> employees, DailyWorkStore workHours, Scanner scanner,
+            PeriodSummaryReport.Granularity granularity) {
+        System.out.println("\n" + granularity.title() + " Summary Report:");
 
+        // Get date range from user; every period in it is summarized
         LocalDate startDate = getDateInput(scanner, "Date From (MM/DD/YYYY): ");
         LocalDate endDate = getDateInput(scanner, "Date To (MM/DD/YYYY): ");
-
-        DateTimeFormatter outputDateFormatter = DateTimeFormatter.ofPattern("MM/dd/yyyy");
-
-        System.out.printf("%-10s | %-6s | %-6s | %-9s | %-10s%n",
-                "Date", "In", "Out", "Duration", "Remarks");
-
-        boolean found = false;
-        for (String[] record : attendanceRecords) {
-            if (isRecordForEmployee(record, empNumber)) {
-                try {
-                    // Use flexible date parser
-                    LocalDate recordDate = parseFlexibleDate(record[ATT_DATE_COL]);
-
-                    if (recordDate != null && !recordDate.isBefore(startDate) && !recordDate.isAfter(endDate)) {
-                        found = true;
-                        LocalTime timeIn = LocalTime.parse(record[ATT_TIME_IN_COL], TIME_FORMATTER);
-                        LocalTime timeOut = LocalTime.parse(record[ATT_TIME_OUT_COL], TIME_FORMATTER);
-
-                        double duration = Duration.between(timeIn, timeOut).toMinutes() / 60.0;
-                        String remarks = timeIn.isBefore(LATE_THRESHOLD) ? "On Time" : "Late";
-
-                        System.out.printf("%-10s | %-6s | %-6s | %-9.2f | %-10s%n",
-                                recordDate.format(outputDateFormatter),
-                                timeIn.format(TIME_FORMATTER),
-                                timeOut.format(TIME_FORMATTER),
-                                duration,
-                                remarks);
-                    }
-                } catch (Exception e) {
-                    // Silently skip problematic records
-                    continue;
-                }
-            }
+        if (endDate.isBefore(startDate)) {
+            System.out.println("Date To is before Date From.");
+            return;
         }
 
-        if (!found) {
-            System.out.println("No attendance records found for the specified period.");
-        }
-    }
+        PeriodSummaryReport.Summary summary = summarizePeriods(employees, workHours, startDate, endDate,
+                granularity, runEngine);
 
-    /**
-     * Checks if an attendance record belongs to the specified employee
-     */
-    private static boolean isRecordForEmployee(String[] record, int empNumber) {
+        long started = System.nanoTime();
+        PrintWriter out = new PrintWriter(System.out);
         try {
-            return Integer.parseInt(record[ATT_EMP_ID_COL]) == empNumber;
-        } catch (NumberFormatException e) {
-            return false;
+            PeriodSummaryReport.writeText(summary, out);
+        } catch (IOException e) {
+            System.err.println("Error printing summary: " + e.getMessage());
         }
+        out.flush();
+        metrics.recordPhase(PayrollMetrics.Phase.RENDER, started);
     }
 
     /**
-     * Helper method to parse dates in multiple formats
+     * Lateness, undertime and early outs per employee, department and period of a date range
      */
-    private static LocalDate parseFlexibleDate(String dateStr) {
-        // Define multiple formatters for different date patterns
-        DateTimeFormatter[] formatters = {
-                DateTimeFormatter.ofPattern("MM/dd/yyyy"),
-                DateTimeFormatter.ofPattern("M/d/yyyy"),
-                DateTimeFormatter.ofPattern("M/dd/yyyy"),
-                DateTimeFormatter.ofPattern("MM/d/yyyy")
+    private static void generateTardinessReport(List<Employee> employees, DailyWorkStore workHours,
+            Scanner scanner) {
+        System.out.println("\nTardiness Report:");
+        LocalDate startDate = getDateInput(scanner, "Date From (MM/DD/YYYY): ");
+        LocalDate endDate = getDateInput(scanner, "Date To (MM/DD/YYYY): ");
+        if (endDate.isBefore(startDate)) {
+            System.out.println("Date To is before Date From.");
+            return;
+        }
+
+        System.out.print("Period (1 = Weekly, 2 = Semi-Monthly, 3 = Monthly, 4 = Quarterly) [3]: ");
+        PeriodSummaryReport.Granularity granularity = switch (scanner.nextLine().trim()) {
+            case "1" -> PeriodSummaryReport.Granularity.WEEKLY;
+            case "2" -> PeriodSummaryReport.Granularity.SEMI_MONTHLY;
+            case "4" -> PeriodSummaryReport.Granularity.QUARTERLY;
+            default -> PeriodSummaryReport.Granularity.MONTHLY;
         };
 
-        // Try each formatter
-        for (DateTimeFormatter formatter : formatters) {
-            try {
-                return LocalDate.parse(dateStr, formatter);
-            } catch (DateTimeParseException e) {
-                // Try next formatter
-                continue;
-            }
-        }
+        // The statistics are summed in the same pass as the hours and pay
+        PeriodSummaryReport.Summary summary = summarizePeriods(employees, workHours, startDate, endDate,
+                granularity, runEngine);
 
-        // If all formatters fail, try manual parsing as a last resort
+        long started = System.nanoTime();
+        PrintWriter out = new PrintWriter(System.out);
         try {
-            String[] parts = dateStr.split("/");
-            if (parts.length == 3) {
-                int month = Integer.parseInt(parts[0]);
-                int day = Integer.parseInt(parts[1]);
-                int year = Integer.parseInt(parts[2]);
-                return LocalDate.of(year, month, day);
-            }
-        } catch (Exception e) {
-            // Ignore and return null
+            TardinessReport.writeText(summary, out);
+        } catch (IOException e) {
+            System.err.println("Error printing tardiness report: " + e.getMessage());
         }
-
-        return null; // Could not parse using any method
+        out.flush();
+        metrics.recordPhase(PayrollMetrics.Phase.RENDER, started);
     }
 
     /**
-     * Extracts the hourly rate for an employee
+     * Displays attendance records for a specific employee within a date range
      */
-    private static double extractHourlyRate(String[] employee) {
-        // Try direct hourly rate
+    private static void viewAttendance(List<Employee> employees, AttendanceIndex attendanceIndex, Scanner scanner) {
+        System.out.print("\nEnter Employee No: ");
+        int empNumber;
         try {
-            if (employee.length > HOURLY_RATE_COL && employee[HOURLY_RATE_COL] != null) {
-                String rateString = employee[HOURLY_RATE_COL].replaceAll("[^0-9.]", "").trim();
-                if (!rateString.isEmpty()) {
-                    double rate = Double.parseDouble(rateString);
-                    if (rate > 0) return rate;
-                }
-            }
-        } catch (Exception e) {
-            // Continue to next method
+            empNumber = Integer.parseInt(scanner.nextLine());
+        } catch (NumberFormatException e) {
+            System.out.println("Invalid employee number. Please enter a numeric value.");
+            return;
         }
 
-        // Try calculating from basic salary
-        try {
-            if (employee.length > BASIC_SALARY_COL && employee[BASIC_SALARY_COL] != null) {
-                String salaryString = employee[BASIC_SALARY_COL].replaceAll("[^0-9.]", "").trim();
-                if (!salaryString.isEmpty()) {
-                    double basicSalary = Double.parseDouble(salaryString);
-                    return (basicSalary / WORK_DAYS_PER_MONTH) / REGULAR_HOURS_PER_DAY;
-                }
-            }
-        } catch (Exception e) {
-            // Continue to default method
-        }
+        LocalDate startDate = getDateInput(scanner, "Date From (MM/DD/YYYY): ");
+        LocalDate endDate = getDateInput(scanner, "Date To (MM/DD/YYYY): ");
 
-        // Default rate by position
-        try {
-            if (employee.length > POSITION_COL && employee[POSITION_COL] != null) {
-                String position = employee[POSITION_COL].toLowerCase();
-                if (position.contains("chief") || position.contains("ceo")) {
-                    return 535.71;
-                } else if (position.contains("manager") || position.contains("head")) {
-                    return 313.51;
-                } else if (position.contains("team leader")) {
-                    return 255.80;
-                }
-            }
-        } catch (Exception e) {
-            // Use default rate
-        }
-        
-        return 133.93; // Default rate for regular employees
-    }
+        DateTimeFormatter outputDateFormatter = DateTimeFormatter.ofPattern("MM/dd/yyyy");
 
-    /**
-     * Extract allowance from employee record
-     */
-    private static double extractAllowance(String[] employee, int columnIndex) {
-        try {
-            if (employee.length > columnIndex && employee[columnIndex] != null) {
-                String allowanceString = employee[columnIndex].replaceAll("[^0-9.]", "").trim();
-                if (!allowanceString.isEmpty()) {
-                    return Double.parseDouble(allowanceString);
-                }
-            }
-            return 0.0;
-        } catch (Exception e) {
-            return 0.0;
-        }
-    }
+        System.out.printf("%-10s | %-6s | %-6s | %-9s | %-10s%n",
+                "Date", "In", "Out", "Duration", "Remarks");
 
-    /**
-     * Gets the individual pro-rated allowances
-     */
-    private static Map<String, Double> getProRatedAllowanceDetails(String[] employee, LocalDate startDate,
-            LocalDate endDate) {
-        Map<String, Double> allowances = new HashMap<>();
-
-        // Extract full monthly allowances
-        double riceSubsidy = extractAllowance(employee, RICE_SUBSIDY_COL);
-        double phoneAllowance = extractAllowance(employee, PHONE_ALLOWANCE_COL);
-        double clothingAllowance = extractAllowance(employee, CLOTHING_ALLOWANCE_COL);
-
-        // Calculate working days in the period (excluding weekends)
-        long totalDays = 0;
-        LocalDate currentDate = startDate;
-        while (!currentDate.isAfter(endDate)) {
-            // Check if it's a weekday (not Saturday or Sunday)
-            if (currentDate.getDayOfWeek().getValue() <= 5) {
-                totalDays++;
-            }
-            currentDate = currentDate.plusDays(1);
+        boolean found = false;
+        AttendanceIndex.EmployeeAttendance attendance = attendanceIndex.forEmployee(empNumber);
+        int to = attendance.toIndex(endDate.toEpochDay());
+        for (int i = attendance.fromIndex(startDate.toEpochDay()); i < to; i++) {
+            found = true;
+            LocalDate recordDate = LocalDate.ofEpochDay(attendance.epochDay(i));
+            LocalTime timeIn = LocalTime.of(attendance.minuteIn(i) / 60, attendance.minuteIn(i) % 60);
+            LocalTime timeOut = LocalTime.of(attendance.minuteOut(i) / 60, attendance.minuteOut(i) % 60);
+
+            double duration = (attendance.minuteOut(i) - attendance.minuteIn(i)) / 60.0;
+            String remarks = timeIn.isBefore(LATE_THRESHOLD) ? "On Time" : "Late";
+
+            System.out.printf("%-10s | %-6s | %-6s | %-9.2f | %-10s%n",
+                    recordDate.format(outputDateFormatter),
+                    timeIn.format(TIME_FORMATTER),
+                    timeOut.format(TIME_FORMATTER),
+                    duration,
+                    remarks);
         }
 
-        // Cap the working days at WORK_DAYS_PER_MONTH (21)
-        long effectiveDays = Math.min(totalDays, WORK_DAYS_PER_MONTH);
-        double proRateFactor = (double) effectiveDays / WORK_DAYS_PER_MONTH;
-
-        allowances.put("riceSubsidy", riceSubsidy * proRateFactor);
-        allowances.put("phoneAllowance", phoneAllowance * proRateFactor);
-        allowances.put("clothingAllowance", clothingAllowance * proRateFactor);
-        allowances.put("totalAllowances", (riceSubsidy + phoneAllowance + clothingAllowance) * proRateFactor);
-        allowances.put("workingDays", (double) totalDays);
-        allowances.put("effectiveWorkingDays", (double) effectiveDays);
-
-        return allowances;
+        if (!found) {
+            System.out.println("No attendance records found for the specified period.");
+        }
     }
 
     /**
@@ -735,44 +790,22 @@ public class MotorPHPayroll {
     /**
      * Searches for employees based on a search term
      */
-    private static void searchEmployee(List<String[]> employees, Scanner scanner) {
+    private static void searchEmployee(EmployeeSearchIndex searchIndex, Scanner scanner) {
         System.out.print("\nEnter search term (name or employee number): ");
-        String searchTerm = scanner.nextLine().toLowerCase();
+        String searchTerm = scanner.nextLine();
 
         System.out.printf("%-10s %-20s %-20s %-15s %-15s%n",
                 "Emp#", "Name", "Position", "Status", "Hourly Rate");
 
-        boolean found = false;
-        for (String[] employee : employees) {
-            // Skip header row if present
-            if (employee[0].equals("Employee #") || employee[0].equalsIgnoreCase("id")) {
-                continue;
-            }
-
-            // Convert relevant fields to lowercase for case-insensitive search
-            String empId = employee[EMP_ID_COL].toLowerCase();
-            String lastName = employee[LAST_NAME_COL].toLowerCase();
-            String firstName = employee[FIRST_NAME_COL].toLowerCase();
-            String middleName = employee.length > 3 && employee[3] != null ? employee[3].toLowerCase() : "";
-
-            // Check if the search term matches any of the fields
-            if (empId.contains(searchTerm) ||
-                    lastName.contains(searchTerm) ||
-                    firstName.contains(searchTerm) ||
-                    middleName.contains(searchTerm)) {
-                found = true;
-
-                String name = formatEmployeeName(employee);
-                String position = employee.length > POSITION_COL ? employee[POSITION_COL] : "N/A";
-                String status = employee.length > STATUS_COL ? employee[STATUS_COL] : "N/A";
-                double hourlyRate = extractHourlyRate(employee);
-
-                System.out.printf("%-10s %-20s %-20s %-15s %-15.2f%n",
-                        employee[EMP_ID_COL], name, position, status, hourlyRate);
-            }
+        // Case-insensitive match on employee number, last name, first name or birthday
+        List<Employee> matches = searchIndex.search(searchTerm);
+        for (Employee employee : matches) {
+            System.out.printf("%-10s %-20s %-20s %-15s %-15.2f%n",
+                    employee.employeeNumber(), employee.fullName(), employee.position(), employee.status(),
+                    employee.hourlyRate());
         }
 
-        if (!found) {
+        if (matches.isEmpty()) {
             System.out.println("No employees found matching your search criteria.");
         }
     }
@@ -780,131 +813,131 @@ public class MotorPHPayroll {
     /**
      * Displays a formatted list of all employees
      */
-    private static void listAllEmployees(List<String[]> employees) {
+    private static void listAllEmployees(List<Employee> employees) {
         System.out.printf("%-10s %-25s %-20s %-15s %-15s%n",
                 "Emp#", "Name", "Position", "Status", "Hourly Rate");
         System.out.println("-".repeat(85));
 
-        for (String[] employee : employees) {
-            // Format name
-            String name = formatEmployeeName(employee);
-
-            // Get position
-            String position = employee.length > POSITION_COL ? employee[POSITION_COL] : "N/A";
-            if (position != null && position.length() > 18) {
+        for (Employee employee : employees) {
+            // Shorten long positions to fit the column
+            String position = employee.position();
+            if (position.length() > 18) {
                 position = position.substring(0, 15) + "...";
             }
 
-            // Get status
-            String status = employee.length > STATUS_COL ? employee[STATUS_COL] : "N/A";
-
-            // Get hourly rate
-            double hourlyRate = extractHourlyRate(employee);
-
             System.out.printf("%-10s %-25s %-20s %-15s %-15.2f%n",
-                    employee[EMP_ID_COL], name, position, status, hourlyRate);
+                    employee.employeeNumber(), employee.fullName(), position, employee.status(),
+                    employee.hourlyRate());
         }
     }
 
     /**
-     * Finds an employee record by ID
+     * Returns the working days of the month a pay period ends in, which the allowances are pro-rated against
      */
-    private static String[] findEmployeeById(List<String[]> employees, int empNumber) {
-        for (String[] employee : employees) {
-            try {
-                if (Integer.parseInt(employee[EMP_ID_COL]) == empNumber) {
-                    return employee;
-                }
-            } catch (NumberFormatException e) {
-                // Skip this record if ID is not a number
-                continue;
-            }
-        }
-        return null;
+    static int workDaysPerMonth(LocalDate endDate) {
+        return Math.max(1, calendar.workingDaysInMonth(YearMonth.from(endDate)));
     }
 
     /**
-     * Format employee name
+     * Returns a calculator using the contribution tables in effect at the end of the pay period
      */
-    private static String formatEmployeeName(String[] employee) {
-        String firstName = employee[FIRST_NAME_COL].trim();
-        String lastName = employee[LAST_NAME_COL].trim();
-        return firstName + " " + lastName;
+    static PayrollCalculator calculatorFor(LocalDate endDate) {
+        return new PayrollCalculator(contributionTables, endDate);
     }
 
     /**
-     * Calculates gross pay details including overtime
+     * Computes hours, pay, allowances and net pay of one employee for a period.
+     * Only reads shared immutable data, so it is safe to call from worker threads.
+     * Results are cached per employee and period (see {@link PayResultCache}).
      */
-    private static Map<String, Double> getGrossPayDetails(List<String[]> attendanceRecords,
-            int empNumber,
-            double hourlyRate,
-            LocalDate startDate,
-            LocalDate endDate) {
-        Map<String, Double> payDetails = new HashMap<>();
-        double totalRegularHours = 0.0;
-        double totalOvertimeHours = 0.0;
-        double totalRegularPay = 0.0;
-        double totalOvertimePay = 0.0;
-
-        // Group records by date to handle overtime on a daily basis (not cumulatively)
-        // This ensures overtime is calculated correctly when an employee works
-        // more than the regular hours in a single day
-        Map<LocalDate, List<String[]>> recordsByDate = new HashMap<>();
-
-        // Group each attendance record by its date for the specified employee
-        // This allows us to sum up all hours worked on a specific day
-        for (String[] record : attendanceRecords) {
-            try {
-                if (isRecordForEmployee(record, empNumber)) {
-                    LocalDate recordDate = parseFlexibleDate(record[ATT_DATE_COL]);
-                    if (recordDate != null && !recordDate.isBefore(startDate) && !recordDate.isAfter(endDate)) {
-                        // computeIfAbsent creates a new list if the date isn't already in the map
-                        recordsByDate.computeIfAbsent(recordDate, k -> new ArrayList<>()).add(record);
-                    }
-                }
-            } catch (Exception e) {
-                // Skip problematic records to ensure the system doesn't crash
-                continue;
-            }
+    static PayrollResult computeEmployeePay(Employee employee, DailyWorkStore workHours,
+            PayrollCalculator payrollCalculator, LocalDate startDate, LocalDate endDate) {
+        // Reuse the result of an earlier run of the same period if the data has not changed
+        DailyWorkStore.EmployeeDays days = workHours.forEmployee(employee.employeeNumber());
+        PayrollResult cached = payCache.get(employee, days, startDate, endDate);
+        if (cached != null) {
+            return cached;
         }
 
-        // Process each day separately for proper overtime calculation
-        // Overtime is calculated only for hours exceeding REGULAR_HOURS_PER_DAY on a single day
-        for (Map.Entry<LocalDate, List<String[]>> entry : recordsByDate.entrySet()) {
-            double dailyHours = 0.0;
-
-            // Sum up hours for this day
-            for (String[] record : entry.getValue()) {
-                try {
-                    LocalTime timeIn = LocalTime.parse(record[ATT_TIME_IN_COL], TIME_FORMATTER);
-                    LocalTime timeOut = LocalTime.parse(record[ATT_TIME_OUT_COL], TIME_FORMATTER);
-                    double hours = Duration.between(timeIn, timeOut).toMinutes() / 60.0;
-                    dailyHours += hours;
-                } catch (Exception e) {
-                    // Skip problematic records
-                    continue;
-                }
-            }
-
-            // Calculate pay with overtime
-            double regularHours = Math.min(dailyHours, REGULAR_HOURS_PER_DAY);
-            double overtimeHours = Math.max(0, dailyHours - REGULAR_HOURS_PER_DAY);
+        long started = System.nanoTime();
+
+        // The store holds one entry per employee-day with the punches already summed
+        // and split at the regular hours, sorted by date, so the period is a
+        // contiguous slice. Overtime is calculated only for hours exceeding the
+        // regular hours on a single day (not cumulatively).
+        // Lateness, undertime and early outs are summed in the same pass.
+        WorkTotals totals = new WorkTotals();
+        days.addTo(days.fromIndex(startDate.toEpochDay()), days.toIndex(endDate.toEpochDay()), totals);
+        metrics.recordPhase(PayrollMetrics.Phase.AGGREGATE, started);
+        PayrollResult result = payFor(employee, totals, payrollCalculator, startDate, endDate);
+        metrics.recordEmployee(System.nanoTime() - started);
+        payCache.put(employee, days, startDate, endDate, result);
+        return result;
+    }
 
-            double regularPay = regularHours * hourlyRate;
-            double overtimePay = overtimeHours * hourlyRate * OVERTIME_RATE;
+    /**
+     * Computes pay, allowances and net pay of one employee for a period from
+     * the totals of the days worked in it. Records the DEDUCT phase; summing
+     * the days is the caller's AGGREGATE phase.
+     */
+    static PayrollResult payFor(Employee employee, WorkTotals totals, PayrollCalculator payrollCalculator,
+            LocalDate startDate, LocalDate endDate) {
+        long started = System.nanoTime();
+        long regularMinutes = totals.regularMinutes();
+        long overtimeMinutes = totals.overtimeMinutes();
+        long hourlyRate = Centavos.ofPesos(employee.hourlyRate());
+
+        // Pay in centavos: whole minutes times the rate, rounded once per product
+        long regularPay = PayrollCalculator.regularPay(hourlyRate, regularMinutes);
+        long overtimePay = PayrollCalculator.overtimePay(hourlyRate, overtimeMinutes);
+        long grossPay = regularPay + overtimePay;
+
+        // Allowances are pro-rated by the working days in the period (excluding
+        // weekends and holidays), capped at the working days of the month the period ends in
+        int workingDays = calendar.workingDays(startDate, endDate);
+        int workDaysPerMonth = workDaysPerMonth(endDate);
+        int effectiveDays = Math.min(workingDays, workDaysPerMonth);
+        long riceSubsidy = PayrollCalculator.proRatedAllowance(Centavos.ofPesos(employee.riceSubsidy()),
+                effectiveDays, workDaysPerMonth);
+        long phoneAllowance = PayrollCalculator.proRatedAllowance(Centavos.ofPesos(employee.phoneAllowance()),
+                effectiveDays, workDaysPerMonth);
+        long clothingAllowance = PayrollCalculator.proRatedAllowance(
+                Centavos.ofPesos(employee.clothingAllowance()), effectiveDays, workDaysPerMonth);
+        long totalAllowances = riceSubsidy + phoneAllowance + clothingAllowance;
+
+        long netPay = payrollCalculator.netPay(grossPay) + totalAllowances;
+        metrics.recordPhase(PayrollMetrics.Phase.DEDUCT, started);
+
+        return new PayrollResult(employee,
+                hourlyRate,
+                regularMinutes / 60.0,
+                overtimeMinutes / 60.0,
+                regularPay,
+                overtimePay,
+                grossPay,
+                riceSubsidy,
+                phoneAllowance,
+                clothingAllowance,
+                totalAllowances,
+                workingDays,
+                netPay,
+                totals.tardiness());
+    }
 
-            totalRegularHours += regularHours;
-            totalOvertimeHours += overtimeHours;
-            totalRegularPay += regularPay;
-            totalOvertimePay += overtimePay;
+    /**
+     * Computes the summaries of every period of a date range in one pass over
+     * the work hours. Each period uses the contribution tables in effect at its end.
+     */
+    static PeriodSummaryReport.Summary summarizePeriods(List<Employee> employees, DailyWorkStore workHours,
+            LocalDate startDate, LocalDate endDate, PeriodSummaryReport.Granularity granularity,
+            PayrollRunEngine engine) {
+        List<PeriodSummaryReport.Period> periods = PeriodSummaryReport.periods(startDate, endDate, granularity);
+        PayrollCalculator[] calculators = new PayrollCalculator[periods.size()];
+        for (int p = 0; p < calculators.length; p++) {
+            calculators[p] = calculatorFor(periods.get(p).end());
         }
-
-        payDetails.put("regularHours", totalRegularHours);
-        payDetails.put("overtimeHours", totalOvertimeHours);
-        payDetails.put("regularPay", totalRegularPay);
-        payDetails.put("overtimePay", totalOvertimePay);
-        payDetails.put("totalPay", totalRegularPay + totalOvertimePay);
-
-        return payDetails;
+        return new PeriodSummaryReport(engine).run(employees, workHours, granularity, periods,
+                (employee, p, totals) -> payFor(employee, totals, calculators[p], periods.get(p).start(),
+                        periods.get(p).end()));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,240 @@
+package com.motorph.original;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache of computed pay results, keyed by employee and pay period.
+ *
+ * The same periods are usually run several times in a session (payroll,
+ * payslips, summaries), so computed results are kept and reused. The least
+ * recently used results are evicted once the cache is full.
+ *
+ * Every entry remembers the employee record and the employee's daily
+ * work-hour entries ({@link DailyWorkStore.EmployeeDays}) it was computed
+ * from, and is only returned while both are still current. A
+ * {@link DailyWorkStore#update(AttendanceIndex)} keeps the same entries for
+ * employees whose attendance did not change, so cached results of unchanged
+ * employees stay valid when the data is reloaded while results of changed
+ * employees are recomputed. {@link #invalidate(Collection)} drops the stale
+ * entries of changed employees right away instead of leaving them to be
+ * evicted.
+ *
+ * Results also depend on the contribution tables and the working-day
+ * calendar, which are loaded once per run; {@link #clear()} must be called if
+ * either is replaced.
+ *
+ * The cache is split into segments by employee number, each with its own
+ * lock, so the payroll worker threads rarely wait for each other. The size is
+ * taken from the {@value #SIZE_PROPERTY} system property; 0 disables caching.
+ */
+public final class PayResultCache {
+
+    /**
+     * System property used to configure the maximum number of cached results
+     */
+    public static final String SIZE_PROPERTY = "motorph.payCache.size";
+
+    private static final int DEFAULT_SIZE = 50_000;
+    private static final int SEGMENTS = 16;
+
+    private record Key(int empNumber, long startDay, long endDay) {
+    }
+
+    private record Entry(Employee employee, DailyWorkStore.EmployeeDays days, PayrollResult result) {
+    }
+
+    private final int capacity;
+    private final Segment[] segments;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder stale = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Creates a cache holding up to the given number of results.
+     *
+     * @param capacity Maximum number of results (0 disables caching)
+     */
+    public PayResultCache(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity must not be negative: " + capacity);
+        }
+        this.capacity = capacity;
+        this.segments = new Segment[SEGMENTS];
+        int perSegment = (capacity + SEGMENTS - 1) / SEGMENTS;
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(perSegment);
+        }
+    }
+
+    /**
+     * Creates a cache sized from the {@value #SIZE_PROPERTY} system property.
+     */
+    public static PayResultCache fromSystemProperties() {
+        int size = DEFAULT_SIZE;
+        String configured = System.getProperty(SIZE_PROPERTY);
+        if (configured != null) {
+            try {
+                size = Math.max(0, Integer.parseInt(configured.trim()));
+            } catch (NumberFormatException e) {
+                System.err.println("Ignoring invalid " + SIZE_PROPERTY + ": " + configured);
+            }
+        }
+        return new PayResultCache(size);
+    }
+
+    /**
+     * Returns the cached result for an employee and period, or null if there
+     * is none or it was computed from different data.
+     *
+     * @param employee The current employee record
+     * @param days The employee's current daily work-hour entries
+     * @param startDate First day of the period
+     * @param endDate Last day of the period
+     */
+    public PayrollResult get(Employee employee, DailyWorkStore.EmployeeDays days, LocalDate startDate,
+            LocalDate endDate) {
+        if (capacity == 0) {
+            misses.increment();
+            return null;
+        }
+        Key key = new Key(employee.employeeNumber(), startDate.toEpochDay(), endDate.toEpochDay());
+        Segment segment = segmentFor(key.empNumber());
+        Entry entry;
+        synchronized (segment) {
+            entry = segment.get(key);
+            if (entry != null && (entry.days() != days || !entry.employee().equals(employee))) {
+                segment.remove(key);
+                stale.increment();
+                entry = null;
+            }
+        }
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.result();
+    }
+
+    /**
+     * Stores a computed result.
+     *
+     * @param employee The employee record the result was computed from
+     * @param days The daily work-hour entries the result was computed from
+     * @param startDate First day of the period
+     * @param endDate Last day of the period
+     * @param result The result
+     */
+    public void put(Employee employee, DailyWorkStore.EmployeeDays days, LocalDate startDate, LocalDate endDate,
+            PayrollResult result) {
+        if (capacity == 0) {
+            return;
+        }
+        Key key = new Key(employee.employeeNumber(), startDate.toEpochDay(), endDate.toEpochDay());
+        Segment segment = segmentFor(key.empNumber());
+        synchronized (segment) {
+            segment.put(key, new Entry(employee, days, result));
+        }
+    }
+
+    /**
+     * Drops all cached results of the given employees.
+     */
+    public void invalidate(Collection<Integer> empNumbers) {
+        if (empNumbers.isEmpty()) {
+            return;
+        }
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.keySet().removeIf(key -> empNumbers.contains(key.empNumber()));
+            }
+        }
+    }
+
+    /**
+     * Drops all cached results.
+     */
+    public void clear() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    /**
+     * Returns the number of cached results.
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the number of lookups that found a result computed from outdated data.
+     */
+    public long staleEntries() {
+        return stale.sum();
+    }
+
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Formats the cache statistics as one line.
+     */
+    public String summary() {
+        long hitCount = hits();
+        long lookups = hitCount + misses();
+        return String.format("Pay result cache: %d hits, %d misses (%.1f%% hit rate), %d outdated, %d evicted,"
+                + " %d of %d cached%n", hitCount, misses(), lookups == 0 ? 0.0 : 100.0 * hitCount / lookups,
+                staleEntries(), evictions(), size(), capacity);
+    }
+
+    private Segment segmentFor(int empNumber) {
+        return segments[Math.floorMod(empNumber, SEGMENTS)];
+    }
+
+    /**
+     * One lock's share of the cache, in access order for LRU eviction
+     */
+    private final class Segment extends LinkedHashMap<Key, Entry> {
+        private static final long serialVersionUID = 1L;
+
+        private final int capacity;
+
+        Segment(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+            if (size() > capacity) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,524 @@
+package com.motorph.original;
+
+import java.io.BufferedWriter;
+import java.io.FilterOutputStream;
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Non-interactive entry point for scheduled payroll runs.
+ *
+ * The action, pay period, data sources and output are all taken from the
+ * arguments, so the program can be run from cron or a job scheduler without a
+ * terminal. Each action loads only the data it needs: listing employees reads
+ * only the employee data and listing attendance only the attendance data,
+ * while the pay actions read both (from the binary snapshot when it is up to
+ * date) and the stored daily work-hour aggregates. No search index is built
+ * and no background refresh is started.
+ *
+ * Usage:
+ * <pre>
+ * java -cp target/classes com.motorph.original.PayrollBatch &lt;action&gt; [options]
+ *
+ * Actions:
+ *   employees                          Employee list as CSV
+ *   attendance --employee &lt;n&gt;          Attendance records of one employee as CSV
+ *   payslip --employee &lt;n&gt;             Payslip of one employee (text, csv or jsonl)
+ *   register                           Payroll register of all employees (csv or jsonl)
+ *   payslips --output &lt;directory&gt;      One payslip file per employee
+ *   summary --period &lt;granularity&gt;     Summary of every weekly, semi-monthly, monthly
+ *                                      or quarterly period in the range (text or csv)
+ *   tardiness --period &lt;granularity&gt;   Lateness, undertime and early outs per employee,
+ *                                      department and period (text or csv)
+ *
+ * Options:
+ *   --employees &lt;url|file&gt;   --attendance &lt;url|file&gt;   Data sources
+ *   --from &lt;yyyy-MM-dd&gt; --to &lt;yyyy-MM-dd&gt;              Pay period (attendance: optional filter)
+ *   --period weekly|semi-monthly|monthly|quarterly      Period length for summary and tardiness
+ *   --format text|csv|jsonl                             Output format
+ *   --output &lt;file|directory&gt;                           Output target (default: standard output)
+ *   --timing                                            Report startup and time to first result
+ * </pre>
+ * Results go to the output target; progress, errors and timings go to
+ * standard error. The exit status is one of the EXIT_ constants.
+ *
+ * Startup is kept short for jobs that only produce a few results: the payroll
+ * metrics are not registered over JMX (unless the {@value PayrollMetrics#JMX_PROPERTY}
+ * system property is set), and the timing report shows where the time goes.
+ */
+public final class PayrollBatch {
+
+    /** The action completed */
+    public static final int EXIT_OK = 0;
+    /** The data could not be loaded or the output could not be written */
+    public static final int EXIT_FAILED = 1;
+    /** The arguments are invalid */
+    public static final int EXIT_USAGE = 2;
+    /** The employee does not exist, or the attendance action found no records for it */
+    public static final int EXIT_NOT_FOUND = 3;
+    /** Some payslips could not be written */
+    public static final int EXIT_PARTIAL = 4;
+
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    private static final PayrollRunEngine SINGLE_THREADED = new PayrollRunEngine(1);
+
+    // Times of the first result written and the data loaded, from System.nanoTime()
+    private static final AtomicLong firstResultNanos = new AtomicLong();
+    private static volatile long dataLoadedNanos;
+
+    private PayrollBatch() {
+    }
+
+    /**
+     * Command-line options
+     */
+    private static final class Options {
+        String action;
+        String employeeSource = MotorPHPayroll.DEFAULT_EMPLOYEE_SOURCE;
+        String attendanceSource = MotorPHPayroll.DEFAULT_ATTENDANCE_SOURCE;
+        LocalDate startDate;
+        LocalDate endDate;
+        int employeeNumber = -1;
+        String format;
+        String output;
+        PeriodSummaryReport.Granularity granularity;
+        boolean timing;
+
+        static Options parse(String[] args) {
+            Options options = new Options();
+            for (int i = 0; i < args.length; i++) {
+                String option = args[i];
+                if (option.equals("--timing")) {
+                    options.timing = true;
+                    continue;
+                }
+                if (!option.startsWith("--")) {
+                    if (options.action != null) {
+                        throw new UsageException("More than one action: " + options.action + ", " + option);
+                    }
+                    options.action = option;
+                    continue;
+                }
+                if (i + 1 >= args.length) {
+                    throw new UsageException("Missing value for " + option);
+                }
+                String value = args[++i];
+                switch (option) {
+                    case "--employees" -> options.employeeSource = value;
+                    case "--attendance" -> options.attendanceSource = value;
+                    case "--from" -> options.startDate = date(option, value);
+                    case "--to" -> options.endDate = date(option, value);
+                    case "--format" -> options.format = value.toLowerCase(Locale.ROOT);
+                    case "--output" -> options.output = value;
+                    case "--period" -> {
+                        try {
+                            options.granularity = PeriodSummaryReport.Granularity.parse(value);
+                        } catch (IllegalArgumentException e) {
+                            throw new UsageException("Invalid period (expected weekly, semi-monthly, monthly"
+                                    + " or quarterly): " + value);
+                        }
+                    }
+                    case "--employee" -> {
+                        try {
+                            options.employeeNumber = Integer.parseInt(value);
+                        } catch (NumberFormatException e) {
+                            throw new UsageException("Invalid employee number: " + value);
+                        }
+                    }
+                    default -> throw new UsageException("Unknown option: " + option);
+                }
+            }
+            if (options.action == null) {
+                throw new UsageException("Missing action");
+            }
+            if (options.startDate != null && options.endDate != null
+                    && options.endDate.isBefore(options.startDate)) {
+                throw new UsageException("--to is before --from");
+            }
+            return options;
+        }
+
+        private static LocalDate date(String option, String value) {
+            try {
+                return LocalDate.parse(value);
+            } catch (DateTimeParseException e) {
+                throw new UsageException("Invalid date for " + option + " (expected yyyy-MM-dd): " + value);
+            }
+        }
+
+        void requireEmployee() {
+            if (employeeNumber < 0) {
+                throw new UsageException(action + " needs --employee");
+            }
+        }
+
+        void requirePeriod() {
+            if (startDate == null || endDate == null) {
+                throw new UsageException(action + " needs --from and --to");
+            }
+        }
+
+        PayrollExporter.Format exportFormat(String defaultFormat) {
+            String name = format == null ? defaultFormat : format;
+            return switch (name) {
+                case "csv" -> PayrollExporter.Format.CSV;
+                case "jsonl" -> PayrollExporter.Format.JSONL;
+                default -> throw new UsageException("Unsupported format for " + action + ": " + name);
+            };
+        }
+    }
+
+    /**
+     * Invalid command-line arguments
+     */
+    private static final class UsageException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        UsageException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Employee and work-hour data for the pay actions
+     */
+    private record PayData(List<Employee> employees, DailyWorkStore workHours) {
+    }
+
+    public static void main(String[] args) {
+        long started = System.nanoTime();
+        if (System.getProperty(PayrollMetrics.JMX_PROPERTY) == null) {
+            // A batch run is over before anyone could attach a JMX client
+            System.setProperty(PayrollMetrics.JMX_PROPERTY, "false");
+        }
+
+        Options options = null;
+        int status;
+        try {
+            options = Options.parse(args);
+            status = run(options);
+        } catch (UsageException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: PayrollBatch employees|attendance|payslip|register|payslips|summary|tardiness"
+                    + " [--employees <url|file>] [--attendance <url|file>] [--from <yyyy-MM-dd>]"
+                    + " [--to <yyyy-MM-dd>] [--employee <n>] [--period weekly|semi-monthly|monthly|quarterly]"
+                    + " [--format text|csv|jsonl] [--output <file|dir>] [--timing]");
+            status = EXIT_USAGE;
+        } catch (IOException e) {
+            System.err.println("Error: " + e.getMessage());
+            status = EXIT_FAILED;
+        } catch (UncheckedIOException e) {
+            System.err.println("Error: " + e.getCause().getMessage());
+            status = EXIT_FAILED;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Interrupted");
+            status = EXIT_FAILED;
+        }
+
+        if (options != null && options.timing) {
+            printTiming(started);
+        }
+        System.exit(status);
+    }
+
+    private static int run(Options options) throws IOException, InterruptedException {
+        return switch (options.action) {
+            case "employees" -> employees(options);
+            case "attendance" -> attendance(options);
+            case "payslip" -> payslip(options);
+            case "register" -> register(options);
+            case "payslips" -> payslips(options);
+            case "summary" -> summary(options);
+            case "tardiness" -> summary(options);
+            default -> throw new UsageException("Unknown action: " + options.action);
+        };
+    }
+
+    /**
+     * Lists the employees; reads only the employee data
+     */
+    private static int employees(Options options) throws IOException {
+        if (options.format != null && !options.format.equals("csv")) {
+            throw new UsageException("Unsupported format for employees: " + options.format);
+        }
+        List<Employee> employees = MotorPHPayroll.loadEmployeesFromCSV(options.employeeSource);
+        dataLoadedNanos = System.nanoTime();
+
+        try (Writer out = openOutput(options.output)) {
+            out.write("employeeNumber,lastName,firstName,birthday,status,position,basicSalary,hourlyRate\n");
+            for (Employee employee : employees) {
+                out.write(employee.employeeNumber() + "," + TextEscaping.csv(employee.lastName()) + ","
+                        + TextEscaping.csv(employee.firstName()) + "," + TextEscaping.csv(employee.birthday())
+                        + "," + TextEscaping.csv(employee.status()) + "," + TextEscaping.csv(employee.position())
+                        + ","
+                        + String.format(Locale.ROOT, "%.2f,%.2f", employee.basicSalary(), employee.hourlyRate())
+                        + "\n");
+            }
+        }
+        return EXIT_OK;
+    }
+
+    /**
+     * Lists the attendance records of one employee; reads only the attendance data
+     */
+    private static int attendance(Options options) throws IOException {
+        options.requireEmployee();
+        if (options.format != null && !options.format.equals("csv")) {
+            throw new UsageException("Unsupported format for attendance: " + options.format);
+        }
+        AttendanceIndex attendanceIndex = MotorPHPayroll.loadAttendanceFromCSV(options.attendanceSource);
+        dataLoadedNanos = System.nanoTime();
+
+        AttendanceIndex.EmployeeAttendance attendance = attendanceIndex.forEmployee(options.employeeNumber);
+        if (attendance.size() == 0) {
+            System.err.println("No attendance records for employee " + options.employeeNumber);
+            return EXIT_NOT_FOUND;
+        }
+        int from = options.startDate == null ? 0 : attendance.fromIndex(options.startDate.toEpochDay());
+        int to = options.endDate == null ? attendance.size() : attendance.toIndex(options.endDate.toEpochDay());
+        int lateMinute = WorkTotals.LATE_MINUTE;
+
+        try (Writer out = openOutput(options.output)) {
+            out.write("date,timeIn,timeOut,hours,remarks\n");
+            for (int i = from; i < to; i++) {
+                int minuteIn = attendance.minuteIn(i);
+                int minuteOut = attendance.minuteOut(i);
+                out.write(LocalDate.ofEpochDay(attendance.epochDay(i)) + "," + DateTimeCodec.formatTime(minuteIn) + ","
+                        + DateTimeCodec.formatTime(minuteOut) + ","
+                        + String.format(Locale.ROOT, "%.2f", (minuteOut - minuteIn) / 60.0) + ","
+                        + (minuteIn < lateMinute ? "On Time" : "Late") + "\n");
+            }
+        }
+        return EXIT_OK;
+    }
+
+    /**
+     * Writes the payslip of one employee
+     */
+    private static int payslip(Options options) throws IOException {
+        options.requireEmployee();
+        options.requirePeriod();
+        boolean text = options.format == null || options.format.equals("text");
+        PayrollExporter.Format format = text ? null : options.exportFormat("csv");
+
+        MotorPHPayroll.loadPayrollSettings();
+        PayrollData data = MotorPHPayroll.loadData(options.employeeSource, options.attendanceSource);
+        Employee employee = null;
+        for (Employee candidate : data.employees()) {
+            if (candidate.employeeNumber() == options.employeeNumber) {
+                employee = candidate;
+                break;
+            }
+        }
+        if (employee == null) {
+            System.err.println("Employee not found: " + options.employeeNumber);
+            return EXIT_NOT_FOUND;
+        }
+
+        // Only this employee's days are aggregated, instead of bringing the
+        // whole work-hour store up to date
+        DailyWorkStore workHours = DailyWorkStore.build(data.attendance().only(employee.employeeNumber()));
+        dataLoadedNanos = System.nanoTime();
+
+        LocalDate startDate = options.startDate;
+        LocalDate endDate = options.endDate;
+        PayrollCalculator calculator = MotorPHPayroll.calculatorFor(endDate);
+        try (Writer out = openOutput(options.output)) {
+            if (text) {
+                PayrollResult result = MotorPHPayroll.computeEmployeePay(employee, workHours, calculator,
+                        startDate, endDate);
+                out.write(PayslipRenderer.render("EMPLOYEE PAYSLIP", result, calculator, startDate, endDate,
+                        MotorPHPayroll.workDaysPerMonth(endDate)));
+            } else {
+                // A register of one row, so the fields match the register
+                new PayrollExporter(SINGLE_THREADED).export(List.of(employee),
+                        e -> MotorPHPayroll.computeEmployeePay(e, workHours, calculator, startDate, endDate),
+                        calculator, startDate, endDate, out, format);
+            }
+        }
+        return EXIT_OK;
+    }
+
+    /**
+     * Writes the payroll register of all employees
+     */
+    private static int register(Options options) throws IOException {
+        options.requirePeriod();
+        PayrollExporter.Format format = options.exportFormat("csv");
+
+        PayData data = loadPayData(options);
+        LocalDate startDate = options.startDate;
+        LocalDate endDate = options.endDate;
+        PayrollCalculator calculator = MotorPHPayroll.calculatorFor(endDate);
+        int rows;
+        try (Writer out = openOutput(options.output)) {
+            rows = new PayrollExporter(PayrollRunEngine.fromSystemProperties()).export(data.employees(),
+                    e -> MotorPHPayroll.computeEmployeePay(e, data.workHours(), calculator, startDate, endDate),
+                    calculator, startDate, endDate, out, format);
+        }
+        if (options.output != null && !options.output.equals("-")) {
+            System.err.printf("Wrote %d rows to %s%n", rows, options.output);
+        }
+        return EXIT_OK;
+    }
+
+    /**
+     * Writes one payslip file per employee into the output directory
+     */
+    private static int payslips(Options options) throws IOException, InterruptedException {
+        options.requirePeriod();
+        if (options.output == null || options.output.equals("-")) {
+            throw new UsageException("payslips needs --output <directory>");
+        }
+        if (options.format != null && !options.format.equals("text")) {
+            throw new UsageException("Unsupported format for payslips: " + options.format);
+        }
+
+        PayData data = loadPayData(options);
+        LocalDate startDate = options.startDate;
+        LocalDate endDate = options.endDate;
+        PayrollCalculator calculator = MotorPHPayroll.calculatorFor(endDate);
+        int workDaysPerMonth = MotorPHPayroll.workDaysPerMonth(endDate);
+        BulkPayslipJob.Summary summary = BulkPayslipJob.fromSystemProperties(System.err).run(data.employees(),
+                employee -> {
+                    PayrollResult result = MotorPHPayroll.computeEmployeePay(employee, data.workHours(),
+                            calculator, startDate, endDate);
+                    String payslip = PayslipRenderer.render("EMPLOYEE PAYSLIP", result, calculator, startDate,
+                            endDate, workDaysPerMonth);
+                    firstResultNanos.compareAndSet(0, System.nanoTime());
+                    return payslip;
+                },
+                Path.of(options.output));
+        System.err.printf("Wrote %d payslips to %s in %.1f s%n", summary.written(), options.output,
+                summary.elapsedNanos() / 1e9);
+        if (summary.failed() > 0) {
+            System.err.println(summary.failed() + " payslips could not be written.");
+            return EXIT_PARTIAL;
+        }
+        return EXIT_OK;
+    }
+
+    /**
+     * Writes the pay summaries or the tardiness report of every period of the
+     * range, computed in one pass
+     */
+    private static int summary(Options options) throws IOException {
+        options.requirePeriod();
+        if (options.granularity == null) {
+            throw new UsageException(options.action + " needs --period");
+        }
+        boolean text = options.format == null || options.format.equals("text");
+        if (!text && !options.format.equals("csv")) {
+            throw new UsageException("Unsupported format for " + options.action + ": " + options.format);
+        }
+        boolean tardiness = options.action.equals("tardiness");
+
+        PayData data = loadPayData(options);
+        PeriodSummaryReport.Summary summary = MotorPHPayroll.summarizePeriods(data.employees(), data.workHours(),
+                options.startDate, options.endDate, options.granularity, PayrollRunEngine.fromSystemProperties());
+        try (Writer out = openOutput(options.output)) {
+            if (tardiness && text) {
+                TardinessReport.writeText(summary, out);
+            } else if (tardiness) {
+                TardinessReport.writeCsv(summary, out);
+            } else if (text) {
+                PeriodSummaryReport.writeText(summary, out);
+            } else {
+                PeriodSummaryReport.writeCsv(summary, out);
+            }
+        }
+        return EXIT_OK;
+    }
+
+    /**
+     * Loads the contribution tables, calendar, employee and attendance data and
+     * the daily work-hour aggregates
+     */
+    private static PayData loadPayData(Options options) throws IOException {
+        MotorPHPayroll.loadPayrollSettings();
+        PayrollData data = MotorPHPayroll.loadData(options.employeeSource, options.attendanceSource);
+        DailyWorkStore workHours = MotorPHPayroll.loadWorkHours(options.attendanceSource, data, null);
+        dataLoadedNanos = System.nanoTime();
+        return new PayData(data.employees(), workHours);
+    }
+
+    /**
+     * Opens the output target: standard output for null or "-", otherwise the
+     * file, replacing it. The first character written marks the first result.
+     */
+    private static Writer openOutput(String output) throws IOException {
+        OutputStream stream;
+        if (output == null || output.equals("-")) {
+            // Not closed with the writer, so errors can still be printed afterwards
+            stream = new FilterOutputStream(System.out) {
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    out.write(b, off, len);
+                }
+
+                @Override
+                public void close() throws IOException {
+                    flush();
+                }
+            };
+        } else {
+            stream = Files.newOutputStream(Path.of(output));
+        }
+        Writer writer = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8),
+                WRITE_BUFFER_SIZE);
+        return new FilterWriter(writer) {
+            @Override
+            public void write(int c) throws IOException {
+                firstResultNanos.compareAndSet(0, System.nanoTime());
+                super.write(c);
+            }
+
+            @Override
+            public void write(char[] cbuf, int off, int len) throws IOException {
+                firstResultNanos.compareAndSet(0, System.nanoTime());
+                super.write(cbuf, off, len);
+            }
+
+            @Override
+            public void write(String str, int off, int len) throws IOException {
+                firstResultNanos.compareAndSet(0, System.nanoTime());
+                super.write(str, off, len);
+            }
+        };
+    }
+
+    /**
+     * Prints how long the JVM took to reach main and how long after that the
+     * data was loaded, the first result was written and the run finished
+     */
+    private static void printTiming(long mainStarted) {
+        long finished = System.nanoTime();
+        long startupMillis = ManagementFactory.getRuntimeMXBean().getUptime() - (finished - mainStarted) / 1_000_000;
+        System.err.printf("Timing: JVM startup %s, data loaded %s, first result %s, finished %.1f ms"
+                + " (after main started)%n",
+                startupMillis + " ms",
+                millisSince(mainStarted, dataLoadedNanos),
+                millisSince(mainStarted, firstResultNanos.get()),
+                (finished - mainStarted) / 1e6);
+        System.err.print(PayrollMetrics.global().summary());
+    }
+
+    private static String millisSince(long start, long nanos) {
+        return nanos == 0 ? "n/a" : String.format(Locale.ROOT, "%.1f ms", (nanos - start) / 1e6);
+    }
+}
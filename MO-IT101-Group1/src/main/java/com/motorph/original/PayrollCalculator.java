@@ -1,7 +1,7 @@
 package com.motorph.original;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.math.RoundingMode;
+import java.time.LocalDate;
 
 /**
  * Handles all payroll-related calculations for the MotorPH payroll system.
@@ -10,114 +10,176 @@ import java.util.Map;
  * 
  * The class uses predefined rates and tax brackets as per Philippine regulations
  * to ensure accurate payroll computations.
+ * 
+ * The SSS, PhilHealth and Pag-IBIG rates come from versioned contribution
+ * tables ({@link ContributionTables}); the calculator uses the versions in
+ * effect on the date it is created for.
+ * 
+ * All amounts are computed in whole centavos ({@link Centavos}), so the
+ * deductions of an employee add up exactly to the difference between gross
+ * and net pay. Every step that multiplies by a rate or a fraction (pay for
+ * time worked, the overtime premium, contributions, the deduction caps,
+ * withholding tax and pro-rated allowances) is rounded half up to the
+ * centavo once; sums and differences are exact. The methods taking and
+ * returning {@code double} pesos convert at the boundary and are kept for
+ * callers that work in pesos.
+ * 
+ * Instances are immutable after construction, so a single calculator can be
+ * shared by all payroll worker threads.
  */
 public class PayrollCalculator {
     
-    // Constants for calculation rates
     /**
-     * The standard PhilHealth contribution rate (3% of monthly basic salary)
-     * This is the total rate, which is split equally between employer and employee
+     * Rounding of pay, contributions, caps, tax and allowances to the centavo
      */
-    private static final double PHILHEALTH_RATE = 0.03;
+    private static final RoundingMode AMOUNT_ROUNDING = RoundingMode.HALF_UP;
     
     /**
-     * Maximum percentage of gross pay that can be deducted for PhilHealth
-     * Used to ensure deductions don't exceed reasonable limits
+     * Overtime hours are paid at 125% of the hourly rate
      */
-    private static final double PHILHEALTH_CAP_PERCENT = 0.03;
+    private static final long OVERTIME_PERCENT = 125;
     
+    // Constants for deduction caps, as rates in millionths
     /**
-     * The standard Pag-IBIG contribution rate (2% of monthly basic salary)
-     * This represents the employee's contribution portion
+     * Maximum percentage of gross pay that can be deducted for PhilHealth
+     * Used to ensure deductions don't exceed reasonable limits
      */
-    private static final double PAGIBIG_RATE = 0.02;
+    private static final long PHILHEALTH_CAP_RATE = Centavos.rate(0.03);
     
     /**
      * Maximum percentage of gross pay that can be deducted for Pag-IBIG
      * Used to ensure deductions don't exceed reasonable limits
      */
-    private static final double PAGIBIG_CAP_PERCENT = 0.02;
+    private static final long PAGIBIG_CAP_RATE = Centavos.rate(0.02);
     
     /**
      * Maximum percentage of gross pay that can be deducted for SSS
      * Used to ensure deductions don't exceed reasonable limits
      */
-    private static final double SSS_CAP_PERCENT = 0.10;
+    private static final long SSS_CAP_RATE = Centavos.rate(0.10);
     
     /**
      * Maximum percentage of taxable income that can be deducted as withholding tax
      * Used to ensure tax deductions don't exceed reasonable limits
      */
-    private static final double TAX_CAP_PERCENT = 0.20;
+    private static final long TAX_CAP_RATE = Centavos.rate(0.20);
+    
+    // Withholding tax brackets according to the Philippine tax table, in centavos
+    // These represent the upper limits of each tax bracket
+    private static final long TAX_BRACKET_1 = Centavos.ofPesos(2083.0);    // 0% tax bracket (up to 2,083 pesos)
+    private static final long TAX_BRACKET_2 = Centavos.ofPesos(33333.0);   // 20% tax bracket (2,083 to 33,333 pesos)
+    private static final long TAX_BRACKET_3 = Centavos.ofPesos(66667.0);   // 25% tax bracket (33,333 to 66,667 pesos)
+    private static final long TAX_BRACKET_4 = Centavos.ofPesos(166667.0);  // 30% tax bracket (66,667 to 166,667 pesos)
+    private static final long TAX_BRACKET_5 = Centavos.ofPesos(666667.0);  // 32% tax bracket (166,667 to 666,667 pesos)
+                                                                           // 35% tax bracket (over 666,667 pesos)
+    
+    /**
+     * The withholding tax brackets as lookup arrays, indexed by the number of
+     * bracket limits the taxable income exceeds.
+     * Tax = Base + (Taxable Income - Lower Limit) × Rate
+     */
+    private static final long[] TAX_LOWER_LIMITS = {
+        0, TAX_BRACKET_1, TAX_BRACKET_2, TAX_BRACKET_3, TAX_BRACKET_4, TAX_BRACKET_5 };
+    private static final long[] TAX_BASE_AMOUNTS = {
+        0, 0, Centavos.ofPesos(6250.0), Centavos.ofPesos(14583.33), Centavos.ofPesos(44583.33),
+        Centavos.ofPesos(204583.33) };
+    private static final long[] TAX_RATES = {
+        0, Centavos.rate(0.20), Centavos.rate(0.25), Centavos.rate(0.30), Centavos.rate(0.32), Centavos.rate(0.35) };
     
     /**
      * SSS contribution table that maps salary brackets (upper limits) to corresponding
      * contribution amounts. This follows the official SSS contribution table.
      */
-    private final Map<Double, Double> sssTable;
+    private final ContributionTable sssTable;
     
     /**
-     * Creates a new PayrollCalculator with initialized SSS table.
-     * The constructor initializes the SSS contribution table which is used
-     * to determine the appropriate SSS contribution based on an employee's salary.
+     * PhilHealth contribution table. The total PhilHealth premium is 3% of the
+     * monthly basic salary, split equally between employer and employee, so the
+     * employee's share is 1.5%.
+     */
+    private final ContributionTable philHealthTable;
+    
+    /**
+     * Pag-IBIG contribution table. The standard employee contribution is 2% of
+     * the monthly basic salary.
+     */
+    private final ContributionTable pagIbigTable;
+    
+    /**
+     * Creates a new PayrollCalculator using the built-in contribution tables
+     * that are in effect today.
      */
     public PayrollCalculator() {
-        this.sssTable = initSSSTable();
+        this(ContributionTables.defaults(), LocalDate.now());
     }
     
     /**
-     * Initializes the SSS contribution table with salary brackets and their corresponding
-     * contribution amounts according to the latest SSS contribution schedule.
+     * Creates a new PayrollCalculator using the contribution table versions
+     * that are in effect on the given date.
      * 
-     * Each entry in the table represents a salary bracket upper limit and the
-     * corresponding SSS contribution amount for that bracket.
+     * @param tables The available SSS, PhilHealth and Pag-IBIG table versions
+     * @param effectiveDate The date used to select the table versions (typically the end of the pay period)
+     */
+    public PayrollCalculator(ContributionTables tables, LocalDate effectiveDate) {
+        this.sssTable = tables.tableFor(ContributionTables.Type.SSS, effectiveDate);
+        this.philHealthTable = tables.tableFor(ContributionTables.Type.PHILHEALTH, effectiveDate);
+        this.pagIbigTable = tables.tableFor(ContributionTables.Type.PAGIBIG, effectiveDate);
+    }
+    
+    /**
+     * Calculates the pay for regular time worked.
      * 
-     * @return A map with salary bracket upper limits as keys and contribution amounts as values
+     * Formula: Pay = Hourly Rate × Minutes / 60, rounded half up to the centavo
+     * 
+     * @param hourlyRate Hourly rate of the employee in centavos
+     * @param minutes Regular minutes worked
+     * @return The pay in centavos
      */
-    private Map<Double, Double> initSSSTable() {
-        Map<Double, Double> table = new HashMap<>();
-        // Range: 0-4,249.99 = 180.00
-        // This means employees with monthly salary from 0 to 4,249.99 pesos
-        // will have an SSS contribution of 180.00 pesos
-        table.put(4250.0, 180.0);
-        
-        // Range: 4,250-4,749.99 = 202.50
-        // This means employees with monthly salary from 4,250 to 4,749.99 pesos
-        // will have an SSS contribution of 202.50 pesos
-        table.put(4750.0, 202.5);
-        
-        // Range: 4,750-5,249.99 = 225.00
-        // This means employees with monthly salary from 4,750 to 5,249.99 pesos
-        // will have an SSS contribution of 225.00 pesos
-        table.put(5250.0, 225.0);
-        
-        // Range: 5,250-5,749.99 = 247.50
-        // This means employees with monthly salary from 5,250 to 5,749.99 pesos
-        // will have an SSS contribution of 247.50 pesos
-        table.put(5750.0, 247.5);
-        
-        // Additional brackets would be added here following the same pattern
-        // For brevity, not all brackets are included in this example
-        
-        // Maximum bracket: 20,750 and up = 945.00
-        // This is the maximum SSS contribution for the highest salary bracket
-        table.put(Double.MAX_VALUE, 945.0);
-        
-        return table;
+    public static long regularPay(long hourlyRate, long minutes) {
+        return Centavos.multiply(hourlyRate, minutes, 60, AMOUNT_ROUNDING);
+    }
+    
+    /**
+     * Calculates the pay for overtime worked, at 125% of the hourly rate.
+     * The multiplier is applied exactly and the product rounded once.
+     * 
+     * Formula: Overtime Pay = Hourly Rate × Minutes × 1.25 / 60, rounded half up to the centavo
+     * 
+     * @param hourlyRate Hourly rate of the employee in centavos
+     * @param minutes Overtime minutes worked
+     * @return The overtime pay in centavos
+     */
+    public static long overtimePay(long hourlyRate, long minutes) {
+        return Centavos.multiply(hourlyRate, Math.multiplyExact(minutes, OVERTIME_PERCENT), 60 * 100,
+                AMOUNT_ROUNDING);
+    }
+    
+    /**
+     * Pro-rates a monthly allowance to the working days of a period.
+     * 
+     * Formula: Allowance × Days / Working Days per Month, rounded half up to the centavo
+     * 
+     * @param monthlyAmount The full monthly allowance in centavos
+     * @param days Working days in the period (at most workDaysPerMonth)
+     * @param workDaysPerMonth Working days of the month, at least 1
+     * @return The pro-rated allowance in centavos
+     */
+    public static long proRatedAllowance(long monthlyAmount, long days, long workDaysPerMonth) {
+        return Centavos.multiply(monthlyAmount, days, workDaysPerMonth, AMOUNT_ROUNDING);
     }
     
     /**
      * Calculates the gross pay based on the total hours worked and the employee's hourly rate.
      * Gross pay is the total compensation before any deductions are applied.
      * 
-     * Formula: Gross Pay = Hours Worked × Hourly Rate
+     * Formula: Gross Pay = Hours Worked × Hourly Rate, rounded half up to the centavo
      * 
      * @param hoursWorked Total hours worked during the pay period
      * @param hourlyRate Hourly rate of the employee in pesos
      * @return The gross pay amount in pesos
      */
     public double calculateGrossPay(double hoursWorked, double hourlyRate) {
-        return hoursWorked * hourlyRate;
+        return Centavos.toPesos(Centavos.ofPesos(hoursWorked * hourlyRate));
     }
     
     /**
@@ -133,27 +195,123 @@ public class PayrollCalculator {
      * 
      * Formula: Net Pay = Gross Pay - (SSS + PhilHealth + Pag-IBIG + Withholding Tax)
      * 
-     * @param grossPay The gross pay amount before deductions
-     * @return The net pay amount after all deductions (never negative)
+     * @param grossPay The gross pay amount before deductions, in centavos
+     * @return The net pay amount after all deductions in centavos (never negative)
      */
-    public double calculateNetPay(double grossPay) {
-        // Calculate individual deductions with caps to avoid excessive deductions
-        // Cap each deduction as a percentage of gross pay to ensure reasonable limits
-        double sssDeduction = Math.min(calculateSSSContribution(grossPay), grossPay * SSS_CAP_PERCENT);
-        double philHealthDeduction = Math.min(calculatePhilHealthContribution(grossPay), grossPay * PHILHEALTH_CAP_PERCENT); 
-        double pagIbigDeduction = Math.min(calculatePagIbigContribution(grossPay), grossPay * PAGIBIG_CAP_PERCENT);
+    public long netPay(long grossPay) {
+        long sssDeduction = sssDeduction(grossPay);
+        long philHealthDeduction = philHealthDeduction(grossPay);
+        long pagIbigDeduction = pagIbigDeduction(grossPay);
         
         // Calculate taxable income by subtracting non-taxable deductions from gross pay
-        double taxableIncome = grossPay - (sssDeduction + philHealthDeduction + pagIbigDeduction);
-        
-        // Calculate withholding tax with a cap to avoid excessive taxation
-        double withholdingTax = Math.min(calculateWithholdingTax(taxableIncome), taxableIncome * TAX_CAP_PERCENT);
+        long taxableIncome = grossPay - (sssDeduction + philHealthDeduction + pagIbigDeduction);
+        long withholdingTax = withholdingTax(taxableIncome);
         
         // Final net pay calculation: Gross Pay - All Deductions
-        double netPay = grossPay - (sssDeduction + philHealthDeduction + pagIbigDeduction + withholdingTax);
+        long netPay = grossPay - (sssDeduction + philHealthDeduction + pagIbigDeduction + withholdingTax);
         
         // Ensure net pay is never negative (safeguard against calculation errors)
-        return Math.max(netPay, 0.0);
+        return Math.max(netPay, 0);
+    }
+    
+    /**
+     * Calculates the net pay in pesos; see {@link #netPay(long)}.
+     * 
+     * @param grossPay The gross pay amount before deductions
+     * @return The net pay amount after all deductions (never negative)
+     */
+    public double calculateNetPay(double grossPay) {
+        return Centavos.toPesos(netPay(Centavos.ofPesos(grossPay)));
+    }
+    
+    /**
+     * Calculates deductions and net pay for a whole column of gross pay amounts.
+     * This produces the same results as calling {@link #netPay(long)} for each
+     * employee, but processes the column one step at a time so that the loops
+     * are short, allocation-free and mostly free of branches.
+     * 
+     * All output arrays are supplied by the caller and can be reused between runs.
+     * Each receives the capped amount that goes into the net pay. All amounts are
+     * in centavos.
+     * 
+     * @param grossPay Gross pay of each employee
+     * @param count Number of employees to process (from index 0)
+     * @param sss Receives the SSS deductions
+     * @param philHealth Receives the PhilHealth deductions
+     * @param pagIbig Receives the Pag-IBIG deductions
+     * @param taxableIncome Receives the taxable incomes
+     * @param withholdingTax Receives the withholding taxes
+     * @param netPay Receives the net pay amounts (never negative)
+     */
+    public void calculateNetPay(long[] grossPay, int count, long[] sss, long[] philHealth,
+            long[] pagIbig, long[] taxableIncome, long[] withholdingTax, long[] netPay) {
+        // Contributions from the tables, then capped as a percentage of gross pay
+        sssTable.contributions(grossPay, sss, count);
+        philHealthTable.contributions(grossPay, philHealth, count);
+        pagIbigTable.contributions(grossPay, pagIbig, count);
+        for (int i = 0; i < count; i++) {
+            long gross = grossPay[i];
+            sss[i] = Math.min(sss[i], Centavos.applyRate(gross, SSS_CAP_RATE, AMOUNT_ROUNDING));
+            philHealth[i] = Math.min(philHealth[i], Centavos.applyRate(gross, PHILHEALTH_CAP_RATE, AMOUNT_ROUNDING));
+            pagIbig[i] = Math.min(pagIbig[i], Centavos.applyRate(gross, PAGIBIG_CAP_RATE, AMOUNT_ROUNDING));
+            taxableIncome[i] = gross - (sss[i] + philHealth[i] + pagIbig[i]);
+        }
+        
+        for (int i = 0; i < count; i++) {
+            withholdingTax[i] = withholdingTax(taxableIncome[i]);
+        }
+        
+        for (int i = 0; i < count; i++) {
+            long deductions = sss[i] + philHealth[i] + pagIbig[i] + withholdingTax[i];
+            netPay[i] = Math.max(grossPay[i] - deductions, 0);
+        }
+    }
+    
+    /**
+     * Returns the SSS deduction from a gross pay: the contribution from the
+     * SSS table, capped at 10% of the gross pay.
+     * 
+     * @param grossPay The gross pay in centavos
+     * @return The SSS deduction in centavos
+     */
+    public long sssDeduction(long grossPay) {
+        return Math.min(sssTable.contribution(grossPay), Centavos.applyRate(grossPay, SSS_CAP_RATE, AMOUNT_ROUNDING));
+    }
+    
+    /**
+     * Returns the PhilHealth deduction from a gross pay: the employee's share
+     * from the PhilHealth table, capped at 3% of the gross pay.
+     * 
+     * @param grossPay The gross pay in centavos
+     * @return The PhilHealth deduction in centavos
+     */
+    public long philHealthDeduction(long grossPay) {
+        return Math.min(philHealthTable.contribution(grossPay),
+                Centavos.applyRate(grossPay, PHILHEALTH_CAP_RATE, AMOUNT_ROUNDING));
+    }
+    
+    /**
+     * Returns the Pag-IBIG deduction from a gross pay: the employee's share
+     * from the Pag-IBIG table, capped at 2% of the gross pay.
+     * 
+     * @param grossPay The gross pay in centavos
+     * @return The Pag-IBIG deduction in centavos
+     */
+    public long pagIbigDeduction(long grossPay) {
+        return Math.min(pagIbigTable.contribution(grossPay),
+                Centavos.applyRate(grossPay, PAGIBIG_CAP_RATE, AMOUNT_ROUNDING));
+    }
+    
+    /**
+     * Returns the withholding tax deducted from a taxable income: the tax from
+     * the progressive tax table, capped at 20% of the taxable income.
+     * 
+     * @param taxableIncome The taxable income in centavos
+     * @return The withholding tax in centavos
+     */
+    public long withholdingTax(long taxableIncome) {
+        return Math.min(tax(taxableIncome), Centavos.applyRate(Math.max(taxableIncome, 0), TAX_CAP_RATE,
+                AMOUNT_ROUNDING));
     }
     
     /**
@@ -168,19 +326,9 @@ public class PayrollCalculator {
      * @return The SSS contribution amount in pesos
      */
     public double calculateSSSContribution(double grossPay) {
-        // Find the applicable bracket in the SSS table
-        double contribution = 0.0;
-        
-        // Iterate through the SSS table entries (sorted by salary bracket)
-        // Find the first bracket where the employee's gross pay is less than the bracket upper limit
-        for (Map.Entry<Double, Double> entry : sssTable.entrySet()) {
-            if (grossPay < entry.getKey()) {
-                contribution = entry.getValue();
-                break;
-            }
-        }
-        
-        return contribution;
+        // Find the first bracket where the employee's gross pay is less than the
+        // bracket upper limit (binary search over the sorted bracket limits)
+        return Centavos.toPesos(sssTable.contribution(Centavos.ofPesos(grossPay)));
     }
     
     /**
@@ -196,8 +344,8 @@ public class PayrollCalculator {
      */
     public double calculatePhilHealthContribution(double grossPay) {
         // PhilHealth is 3% of gross pay, split equally between employer and employee (1.5% each)
-        // This calculates the employee's portion only
-        return (grossPay * PHILHEALTH_RATE) / 2;
+        // The table holds the employee's portion only
+        return Centavos.toPesos(philHealthTable.contribution(Centavos.ofPesos(grossPay)));
     }
     
     /**
@@ -212,7 +360,7 @@ public class PayrollCalculator {
      */
     public double calculatePagIbigContribution(double grossPay) {
         // Standard Pag-IBIG contribution is 2% of gross pay for the employee
-        return grossPay * PAGIBIG_RATE;
+        return Centavos.toPesos(pagIbigTable.contribution(Centavos.ofPesos(grossPay)));
     }
     
     /**
@@ -228,38 +376,23 @@ public class PayrollCalculator {
      * @return The withholding tax amount in pesos
      */
     public double calculateWithholdingTax(double taxableIncome) {
-        // Tax bracket constants according to the Philippine tax table
-        // These represent the upper limits of each tax bracket
-        final double TAX_BRACKET_1 = 2083.0;    // 0% tax bracket (up to 2,083 pesos)
-        final double TAX_BRACKET_2 = 33333.0;   // 20% tax bracket (2,083 to 33,333 pesos)
-        final double TAX_BRACKET_3 = 66667.0;   // 25% tax bracket (33,333 to 66,667 pesos)
-        final double TAX_BRACKET_4 = 166667.0;  // 30% tax bracket (66,667 to 166,667 pesos)
-        final double TAX_BRACKET_5 = 666667.0;  // 32% tax bracket (166,667 to 666,667 pesos)
-                                               // 35% tax bracket (over 666,667 pesos)
-        
-        // Apply progressive tax rates based on which bracket the taxable income falls into
-        // Each bracket has a fixed base tax plus a percentage of the excess over the bracket lower limit
-        if (taxableIncome <= 0) {
-            // No tax for zero or negative taxable income (should not occur in normal circumstances)
-            return 0.0;
-        } else if (taxableIncome <= TAX_BRACKET_1) {
-            // First bracket: 0% tax for income up to 2,083 pesos
-            return 0.0;
-        } else if (taxableIncome <= TAX_BRACKET_2) {
-            // Second bracket: 20% of the excess over 2,083 pesos
-            return (taxableIncome - TAX_BRACKET_1) * 0.20;
-        } else if (taxableIncome <= TAX_BRACKET_3) {
-            // Third bracket: 6,250 pesos plus 25% of the excess over 33,333 pesos
-            return 6250 + (taxableIncome - TAX_BRACKET_2) * 0.25;
-        } else if (taxableIncome <= TAX_BRACKET_4) {
-            // Fourth bracket: 14,583.33 pesos plus 30% of the excess over 66,667 pesos
-            return 14583.33 + (taxableIncome - TAX_BRACKET_3) * 0.30;
-        } else if (taxableIncome <= TAX_BRACKET_5) {
-            // Fifth bracket: 44,583.33 pesos plus 32% of the excess over 166,667 pesos
-            return 44583.33 + (taxableIncome - TAX_BRACKET_4) * 0.32;
-        } else {
-            // Sixth bracket: 204,583.33 pesos plus 35% of the excess over 666,667 pesos
-            return 204583.33 + (taxableIncome - TAX_BRACKET_5) * 0.35;
-        }
+        return Centavos.toPesos(tax(Centavos.ofPesos(taxableIncome)));
+    }
+    
+    /**
+     * Tax from the progressive tax table, before the cap, in centavos.
+     * Each bracket has a fixed base tax plus a percentage of the excess over the
+     * bracket lower limit; the bracket is the number of limits the income
+     * exceeds, counted with comparisons instead of an if/else chain.
+     */
+    private static long tax(long taxableIncome) {
+        int bracket = (taxableIncome > TAX_BRACKET_1 ? 1 : 0)
+                + (taxableIncome > TAX_BRACKET_2 ? 1 : 0)
+                + (taxableIncome > TAX_BRACKET_3 ? 1 : 0)
+                + (taxableIncome > TAX_BRACKET_4 ? 1 : 0)
+                + (taxableIncome > TAX_BRACKET_5 ? 1 : 0);
+        // Zero or negative taxable income falls in the first (0%) bracket
+        return TAX_BASE_AMOUNTS[bracket]
+                + Centavos.applyRate(taxableIncome - TAX_LOWER_LIMITS[bracket], TAX_RATES[bracket], AMOUNT_ROUNDING);
     }
-}
\ No newline at end of file
+}
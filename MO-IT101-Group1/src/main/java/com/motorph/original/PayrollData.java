@@ -0,0 +1,14 @@
+package com.motorph.original;
+
+import java.util.List;
+
+/**
+ * The data a payroll session works on: the employee master list and the
+ * indexed attendance records.
+ *
+ * @param employees Parsed employee records in file order
+ * @param attendance Attendance records indexed by employee and date
+ * @param sourceFingerprint Fingerprint of the source files the data was read from
+ */
+public record PayrollData(List<Employee> employees, AttendanceIndex attendance, long sourceFingerprint) {
+}
@@ -0,0 +1,271 @@
+package com.motorph.original;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Streams a payroll register to a CSV or JSON Lines file.
+ *
+ * Every row holds the full payslip breakdown of one employee: hours, pay,
+ * statutory deductions, pro-rated allowances and net pay, followed by the
+ * days worked, lateness, undertime and early outs (see {@link WorkTotals}).
+ * Employees are computed in chunks on the {@link PayrollRunEngine} and each
+ * chunk is written as soon as it is done, so memory use does not grow with the
+ * number of employees. The deductions of a chunk are calculated
+ * column-at-a-time with
+ * {@link PayrollCalculator#calculateNetPay(long[], int, long[], long[], long[], long[], long[], long[])}.
+ *
+ * Amounts are computed and written in exact centavos, so the columns of every
+ * row reconcile (gross pay - total deductions + total allowances = net pay)
+ * and column totals can be summed from the file without rounding drift.
+ * Amounts and hours are written with two decimals and no thousands separator;
+ * dates use yyyy-MM-dd. Numbers are formatted by hand into a reusable buffer
+ * rather than with String.format.
+ */
+public final class PayrollExporter {
+
+    /**
+     * Output file formats
+     */
+    public enum Format {
+        CSV, JSONL
+    }
+
+    private static final int CHUNK_SIZE = 1024;
+    private static final int WRITE_BUFFER_SIZE = 256 * 1024;
+
+    private static final String[] COLUMNS = {
+            "employeeNumber", "lastName", "firstName", "position", "status", "periodStart", "periodEnd",
+            "workingDays", "hourlyRate", "regularHours", "overtimeHours", "totalHours", "regularPay",
+            "overtimePay", "grossPay", "sss", "philHealth", "pagIbig", "taxableIncome", "withholdingTax",
+            "totalDeductions", "riceSubsidy", "phoneAllowance", "clothingAllowance", "totalAllowances", "netPay",
+            "daysWorked", "lateDays", "lateMinutes", "undertimeDays", "undertimeMinutes", "earlyOutDays",
+            "earlyOutMinutes"
+    };
+
+    private final PayrollRunEngine engine;
+
+    // Per-export state, reused for every row
+    private Writer out;
+    private Format format;
+    private int column;
+    private final char[] digits = new char[32];
+
+    /**
+     * Creates an exporter that computes employees on the given engine.
+     */
+    public PayrollExporter(PayrollRunEngine engine) {
+        this.engine = engine;
+    }
+
+    /**
+     * Writes the payroll register of a period to a file, replacing any existing file.
+     *
+     * @param employees The employees to include, in output order
+     * @param compute Computes the pay of one employee for the period
+     * @param calculator Calculator for the period's deductions
+     * @param startDate First day of the period
+     * @param endDate Last day of the period
+     * @param file The output file
+     * @param format The output format
+     * @return The number of rows written
+     * @throws IOException If the file cannot be written
+     */
+    public int export(List<Employee> employees, Function<Employee, PayrollResult> compute,
+            PayrollCalculator calculator, LocalDate startDate, LocalDate endDate, Path file, Format format)
+            throws IOException {
+        try (Writer writer = new BufferedWriter(
+                new OutputStreamWriter(Files.newOutputStream(file), StandardCharsets.UTF_8), WRITE_BUFFER_SIZE)) {
+            return export(employees, compute, calculator, startDate, endDate, writer, format);
+        }
+    }
+
+    /**
+     * Writes the payroll register of a period to a writer. The writer is
+     * flushed but not closed.
+     *
+     * @param employees The employees to include, in output order
+     * @param compute Computes the pay of one employee for the period
+     * @param calculator Calculator for the period's deductions
+     * @param startDate First day of the period
+     * @param endDate Last day of the period
+     * @param writer Where the rows are written
+     * @param format The output format
+     * @return The number of rows written
+     * @throws IOException If writing fails
+     */
+    public synchronized int export(List<Employee> employees, Function<Employee, PayrollResult> compute,
+            PayrollCalculator calculator, LocalDate startDate, LocalDate endDate, Writer writer, Format format)
+            throws IOException {
+        String periodStart = startDate.toString();
+        String periodEnd = endDate.toString();
+
+        long[] grossPay = new long[CHUNK_SIZE];
+        long[] sss = new long[CHUNK_SIZE];
+        long[] philHealth = new long[CHUNK_SIZE];
+        long[] pagIbig = new long[CHUNK_SIZE];
+        long[] taxableIncome = new long[CHUNK_SIZE];
+        long[] withholdingTax = new long[CHUNK_SIZE];
+        long[] netPay = new long[CHUNK_SIZE];
+
+        try {
+            this.out = writer;
+            this.format = format;
+
+            if (format == Format.CSV) {
+                writer.write(String.join(",", COLUMNS));
+                writer.write('\n');
+            }
+
+            engine.runInChunks(employees, CHUNK_SIZE, compute, chunk -> {
+                int count = chunk.size();
+                for (int i = 0; i < count; i++) {
+                    grossPay[i] = chunk.get(i).grossPayCentavos();
+                }
+                calculator.calculateNetPay(grossPay, count, sss, philHealth, pagIbig, taxableIncome,
+                        withholdingTax, netPay);
+
+                long started = System.nanoTime();
+                try {
+                    for (int i = 0; i < count; i++) {
+                        PayrollResult result = chunk.get(i);
+                        Employee employee = result.employee();
+                        startRow();
+                        writeInt(employee.employeeNumber());
+                        writeText(employee.lastName());
+                        writeText(employee.firstName());
+                        writeText(employee.position());
+                        writeText(employee.status());
+                        writeText(periodStart);
+                        writeText(periodEnd);
+                        writeInt((int) result.workingDays());
+                        writeCentavos(result.hourlyRateCentavos());
+                        writeAmount(result.regularHours());
+                        writeAmount(result.overtimeHours());
+                        writeAmount(result.totalHours());
+                        writeCentavos(result.regularPayCentavos());
+                        writeCentavos(result.overtimePayCentavos());
+                        writeCentavos(result.grossPayCentavos());
+                        writeCentavos(sss[i]);
+                        writeCentavos(philHealth[i]);
+                        writeCentavos(pagIbig[i]);
+                        writeCentavos(taxableIncome[i]);
+                        writeCentavos(withholdingTax[i]);
+                        writeCentavos(sss[i] + philHealth[i] + pagIbig[i] + withholdingTax[i]);
+                        writeCentavos(result.riceSubsidyCentavos());
+                        writeCentavos(result.phoneAllowanceCentavos());
+                        writeCentavos(result.clothingAllowanceCentavos());
+                        writeCentavos(result.totalAllowancesCentavos());
+                        writeCentavos(result.netPayCentavos());
+                        TardinessStats tardiness = result.tardiness();
+                        writeInt(tardiness.daysWorked());
+                        writeInt(tardiness.lateDays());
+                        writeInt(tardiness.lateMinutes());
+                        writeInt(tardiness.undertimeDays());
+                        writeInt(tardiness.undertimeMinutes());
+                        writeInt(tardiness.earlyOutDays());
+                        writeInt(tardiness.earlyOutMinutes());
+                        endRow();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                PayrollMetrics.global().recordPhase(PayrollMetrics.Phase.RENDER, started);
+            });
+            writer.flush();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            this.out = null;
+        }
+        return employees.size();
+    }
+
+    private void startRow() throws IOException {
+        column = 0;
+        if (format == Format.JSONL) {
+            out.write('{');
+        }
+    }
+
+    private void endRow() throws IOException {
+        if (format == Format.JSONL) {
+            out.write('}');
+        }
+        out.write('\n');
+    }
+
+    /**
+     * Writes the separator and, for JSON, the key of the next column
+     */
+    private void nextColumn() throws IOException {
+        if (column > 0) {
+            out.write(',');
+        }
+        if (format == Format.JSONL) {
+            out.write('"');
+            out.write(COLUMNS[column]);
+            out.write("\":");
+        }
+        column++;
+    }
+
+    private void writeText(String value) throws IOException {
+        nextColumn();
+        if (format == Format.JSONL) {
+            TextEscaping.appendJson(out, value);
+        } else {
+            out.write(TextEscaping.csv(value));
+        }
+    }
+
+    private void writeInt(long value) throws IOException {
+        nextColumn();
+        writeDigits(value);
+    }
+
+    /**
+     * Writes a value rounded to two decimals, e.g. -1234.5 as -1234.50
+     */
+    private void writeAmount(double value) throws IOException {
+        writeCentavos(Math.round(value * 100));
+    }
+
+    /**
+     * Writes an amount in centavos with two decimals, e.g. -123450 as -1234.50
+     */
+    private void writeCentavos(long cents) throws IOException {
+        nextColumn();
+        if (cents < 0) {
+            out.write('-');
+            cents = -cents;
+        }
+        writeDigits(cents / 100);
+        out.write('.');
+        long fraction = cents % 100;
+        out.write((char) ('0' + fraction / 10));
+        out.write((char) ('0' + fraction % 10));
+    }
+
+    private void writeDigits(long value) throws IOException {
+        if (value < 0) {
+            out.write('-');
+            value = -value;
+        }
+        int pos = digits.length;
+        do {
+            digits[--pos] = (char) ('0' + value % 10);
+            value /= 10;
+        } while (value > 0);
+        out.write(digits, pos, digits.length - pos);
+    }
+}
@@ -0,0 +1,243 @@
+package com.motorph.original;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Load-test harness for {@link PayrollServer}.
+ *
+ * Each of the concurrent clients sends requests back to back (the next request
+ * starts when the previous response has been read), cycling through the given
+ * paths. A {id} in a path is replaced with a random employee number. After a
+ * warm-up the latency of every request is recorded and the throughput, error
+ * count and latency percentiles are reported per path and overall.
+ *
+ * Usage:
+ * <pre>
+ * java -cp target/classes com.motorph.original.PayrollLoadTest [--url http://localhost:8080]
+ *     [--requests 20000] [--concurrency 16] [--warmup 2000] [--ids 10001-12000] [--seed 1]
+ *     [--path "/payslips/{id}?from=2024-06-01&amp;to=2024-06-30"]...
+ * </pre>
+ * Without --ids, employee numbers are assumed to run from 10001 up to the
+ * number of employees reported by /health. Without --path, a mix of employee,
+ * attendance and payslip requests is sent.
+ */
+public final class PayrollLoadTest {
+
+    private static final String[] DEFAULT_PATHS = {
+            "/employees/{id}",
+            "/attendance/{id}?from=2024-06-01&to=2024-06-30",
+            "/payslips/{id}?from=2024-06-01&to=2024-06-30"
+    };
+
+    private static final Pattern EMPLOYEES = Pattern.compile("\"employees\":(\\d+)");
+
+    private PayrollLoadTest() {
+    }
+
+    /**
+     * Latencies of one path, in nanoseconds
+     */
+    private static final class PathStats {
+        final String path;
+        final List<long[]> latencies = new ArrayList<>();
+        final AtomicInteger errors = new AtomicInteger();
+
+        PathStats(String path) {
+            this.path = path;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        String url = "http://localhost:8080";
+        int requests = 20000;
+        int concurrency = 16;
+        int warmup = 2000;
+        int firstId = -1;
+        int lastId = -1;
+        long seed = 1;
+        List<String> paths = new ArrayList<>();
+
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (i + 1 >= args.length) {
+                usage("Missing value for " + option);
+            }
+            String value = args[++i];
+            switch (option) {
+                case "--url" -> url = value.endsWith("/") ? value.substring(0, value.length() - 1) : value;
+                case "--requests" -> requests = Integer.parseInt(value);
+                case "--concurrency" -> concurrency = Integer.parseInt(value);
+                case "--warmup" -> warmup = Integer.parseInt(value);
+                case "--seed" -> seed = Long.parseLong(value);
+                case "--path" -> paths.add(value);
+                case "--ids" -> {
+                    String[] range = value.split("-");
+                    firstId = Integer.parseInt(range[0]);
+                    lastId = Integer.parseInt(range[range.length - 1]);
+                }
+                default -> usage("Unknown option: " + option);
+            }
+        }
+        if (requests < 1 || concurrency < 1 || warmup < 0) {
+            usage("Requests and concurrency must be positive");
+        }
+        if (paths.isEmpty()) {
+            paths.addAll(Arrays.asList(DEFAULT_PATHS));
+        }
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newFixedThreadPool(concurrency))
+                .build();
+
+        if (firstId < 0) {
+            String health = client.send(HttpRequest.newBuilder(URI.create(url + "/health")).build(),
+                    HttpResponse.BodyHandlers.ofString()).body();
+            Matcher matcher = EMPLOYEES.matcher(health);
+            if (!matcher.find()) {
+                usage("Could not read the number of employees from " + url + "/health; use --ids");
+            }
+            firstId = 10001;
+            lastId = firstId + Integer.parseInt(matcher.group(1)) - 1;
+        }
+
+        System.out.printf("Load test: %s, %d clients, %d requests after %d warm-up, employees %d-%d%n",
+                url, concurrency, requests, warmup, firstId, lastId);
+
+        run(client, url, paths, warmup, concurrency, firstId, lastId, seed - 1, null);
+        PathStats[] stats = new PathStats[paths.size()];
+        for (int p = 0; p < stats.length; p++) {
+            stats[p] = new PathStats(paths.get(p));
+        }
+        long elapsed = run(client, url, paths, requests, concurrency, firstId, lastId, seed, stats);
+
+        System.out.printf("%-60s %8s %7s %9s %9s %9s %9s%n", "Path", "Requests", "Errors", "p50 ms", "p90 ms",
+                "p99 ms", "max ms");
+        List<long[]> all = new ArrayList<>();
+        int errors = 0;
+        for (PathStats pathStats : stats) {
+            report(pathStats.path, pathStats.latencies, pathStats.errors.get());
+            all.addAll(pathStats.latencies);
+            errors += pathStats.errors.get();
+        }
+        report("all", all, errors);
+        System.out.printf("Throughput: %.0f requests per second (%.2f s)%n", requests / (elapsed / 1e9),
+                elapsed / 1e9);
+        System.exit(errors == 0 ? 0 : 1);
+    }
+
+    /**
+     * Sends the requests from the given number of clients and returns the
+     * elapsed time; latencies are recorded in stats unless it is null
+     */
+    private static long run(HttpClient client, String url, List<String> paths, int requests, int concurrency,
+            int firstId, int lastId, long seed, PathStats[] stats) throws Exception {
+        AtomicInteger next = new AtomicInteger();
+        ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+        long started = System.nanoTime();
+        try {
+            List<Future<?>> running = new ArrayList<>();
+            for (int c = 0; c < concurrency; c++) {
+                SplittableRandom random = new SplittableRandom(seed * 31 + c);
+                running.add(clients.submit(() -> {
+                    // Latencies per path from this client, merged after the run
+                    long[][] latencies = new long[paths.size()][16];
+                    int[] counts = new int[paths.size()];
+                    int n;
+                    while ((n = next.getAndIncrement()) < requests) {
+                        int p = n % paths.size();
+                        String path = paths.get(p).replace("{id}",
+                                Integer.toString(firstId + random.nextInt(lastId - firstId + 1)));
+                        HttpRequest request = HttpRequest.newBuilder(URI.create(url + path)).build();
+
+                        long start = System.nanoTime();
+                        boolean ok;
+                        try {
+                            HttpResponse<byte[]> response = client.send(request,
+                                    HttpResponse.BodyHandlers.ofByteArray());
+                            ok = response.statusCode() / 100 == 2;
+                        } catch (IOException e) {
+                            ok = false;
+                        }
+                        long latency = System.nanoTime() - start;
+
+                        if (stats != null) {
+                            if (!ok) {
+                                stats[p].errors.incrementAndGet();
+                            }
+                            if (counts[p] == latencies[p].length) {
+                                latencies[p] = Arrays.copyOf(latencies[p], counts[p] * 2);
+                            }
+                            latencies[p][counts[p]++] = latency;
+                        }
+                    }
+                    if (stats != null) {
+                        for (int p = 0; p < stats.length; p++) {
+                            synchronized (stats[p]) {
+                                stats[p].latencies.add(Arrays.copyOf(latencies[p], counts[p]));
+                            }
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : running) {
+                future.get();
+            }
+        } finally {
+            clients.shutdownNow();
+        }
+        return System.nanoTime() - started;
+    }
+
+    private static void report(String name, List<long[]> latencyLists, int errors) {
+        int count = 0;
+        for (long[] latencies : latencyLists) {
+            count += latencies.length;
+        }
+        long[] sorted = new long[count];
+        int pos = 0;
+        for (long[] latencies : latencyLists) {
+            System.arraycopy(latencies, 0, sorted, pos, latencies.length);
+            pos += latencies.length;
+        }
+        Arrays.sort(sorted);
+        System.out.printf("%-60s %8d %7d %9.2f %9.2f %9.2f %9.2f%n", name, count, errors,
+                percentile(sorted, 0.50), percentile(sorted, 0.90), percentile(sorted, 0.99),
+                count == 0 ? 0 : sorted[count - 1] / 1e6);
+    }
+
+    /**
+     * Nearest-rank percentile of sorted latencies, in milliseconds
+     */
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile * sorted.length);
+        return sorted[Math.max(0, rank - 1)] / 1e6;
+    }
+
+    private static void usage(String message) {
+        System.err.println(message);
+        System.err.println("Usage: PayrollLoadTest [--url <base url>] [--requests <n>] [--concurrency <n>]"
+                + " [--warmup <n>] [--ids <first>-<last>] [--seed <n>] [--path <path>]...");
+        System.exit(2);
+    }
+}
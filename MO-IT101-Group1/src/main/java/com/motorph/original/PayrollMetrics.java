@@ -0,0 +1,387 @@
+package com.motorph.original;
+
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Timers and counters describing what a payroll session did.
+ *
+ * Records the time spent in each processing phase, the rows read and skipped
+ * (with the reason) while loading, exceptions that were handled without
+ * failing the run, and a latency histogram of the per-employee pay
+ * computations. All updates are lock-free and safe to call from the payroll
+ * worker threads.
+ *
+ * The shared instance returned by {@link #global()} is registered with the
+ * platform MBean server as {@value #OBJECT_NAME}, so it can be watched live
+ * with JConsole or any JMX client; {@link #summary()} formats the same figures
+ * for printing at the end of a run. Setting the {@value #JMX_PROPERTY} system
+ * property to false skips the registration, which saves starting the platform
+ * MBean server in short-lived runs.
+ */
+public final class PayrollMetrics implements PayrollMetricsMXBean {
+
+    public static final String OBJECT_NAME = "com.motorph:type=PayrollMetrics";
+
+    /**
+     * System property used to turn off the JMX registration of the shared instance
+     */
+    public static final String JMX_PROPERTY = "motorph.metrics.jmx";
+
+    /**
+     * Processing phases
+     */
+    public enum Phase {
+        /** Resolving data sources, including downloading remote feeds */
+        FETCH,
+        /** Reading CSV files or the binary snapshot */
+        PARSE,
+        /** Grouping attendance rows by employee and date */
+        INDEX,
+        /** Summing work hours per day and per pay period */
+        AGGREGATE,
+        /** Pay, pro-rated allowances, statutory deductions and net pay from the summed hours */
+        DEDUCT,
+        /** Printing reports and writing payslips and exports */
+        RENDER
+    }
+
+    /**
+     * Data sets rows are read from
+     */
+    public enum Dataset {
+        EMPLOYEES, ATTENDANCE
+    }
+
+    /**
+     * Why a row was skipped while loading
+     */
+    public enum SkipReason {
+        BLANK_LINE, MISSING_COLUMNS, INVALID_EMPLOYEE_NUMBER, INVALID_DATE, INVALID_TIME
+    }
+
+    private static final int HISTOGRAM_BUCKETS = 64;
+
+    private final Map<Phase, LongAdder> phaseNanos = new EnumMap<>(Phase.class);
+    private final Map<Phase, LongAdder> phaseCounts = new EnumMap<>(Phase.class);
+    private final Map<Dataset, LongAdder> rowsRead = new EnumMap<>(Dataset.class);
+    private final Map<SkipReason, LongAdder> rowsSkipped = new EnumMap<>(SkipReason.class);
+    private final Map<String, LongAdder> swallowed = new ConcurrentHashMap<>();
+    private volatile String lastSwallowed = "";
+
+    private final AtomicLongArray latencyBuckets = new AtomicLongArray(HISTOGRAM_BUCKETS);
+    private final LongAdder latencyCount = new LongAdder();
+    private final LongAdder latencyTotalNanos = new LongAdder();
+    private final LongAccumulator latencyMaxNanos = new LongAccumulator(Math::max, 0);
+
+    private volatile long snapshotLoadedAtMillis;
+    private volatile long lastRefreshNanos;
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder refreshFailures = new LongAdder();
+
+    public PayrollMetrics() {
+        for (Phase phase : Phase.values()) {
+            phaseNanos.put(phase, new LongAdder());
+            phaseCounts.put(phase, new LongAdder());
+        }
+        for (Dataset dataset : Dataset.values()) {
+            rowsRead.put(dataset, new LongAdder());
+        }
+        for (SkipReason reason : SkipReason.values()) {
+            rowsSkipped.put(reason, new LongAdder());
+        }
+    }
+
+    /**
+     * Returns the shared instance, registering it over JMX on first use.
+     */
+    public static PayrollMetrics global() {
+        return Holder.INSTANCE;
+    }
+
+    private static final class Holder {
+        static final PayrollMetrics INSTANCE = register(new PayrollMetrics());
+
+        private static PayrollMetrics register(PayrollMetrics metrics) {
+            if ("false".equalsIgnoreCase(System.getProperty(JMX_PROPERTY))) {
+                return metrics;
+            }
+            try {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(metrics, new ObjectName(OBJECT_NAME));
+            } catch (JMException | SecurityException e) {
+                System.err.println("Warning: could not register payroll metrics over JMX: " + e.getMessage());
+            }
+            return metrics;
+        }
+    }
+
+    /**
+     * Adds the time of one run of a phase.
+     *
+     * @param phase The phase
+     * @param startNanos Value of System.nanoTime() when the phase started
+     */
+    public void recordPhase(Phase phase, long startNanos) {
+        phaseNanos.get(phase).add(System.nanoTime() - startNanos);
+        phaseCounts.get(phase).increment();
+    }
+
+    /**
+     * Counts rows read from a data set.
+     */
+    public void rowsRead(Dataset dataset, long rows) {
+        rowsRead.get(dataset).add(rows);
+    }
+
+    /**
+     * Counts one skipped row.
+     */
+    public void rowSkipped(SkipReason reason) {
+        rowsSkipped.get(reason).increment();
+    }
+
+    /**
+     * Records an exception that was handled without failing the run.
+     *
+     * @param where Short name of the place it was caught, e.g. "FeedCache.fetch"
+     * @param e The exception
+     */
+    public void swallowed(String where, Throwable e) {
+        swallowed.computeIfAbsent(where, k -> new LongAdder()).increment();
+        lastSwallowed = where + ": " + e;
+    }
+
+    /**
+     * Records the duration of one employee's pay computation.
+     */
+    public void recordEmployee(long nanos) {
+        int bucket = nanos <= 0 ? 0 : Math.min(HISTOGRAM_BUCKETS - 1, 64 - Long.numberOfLeadingZeros(nanos));
+        latencyBuckets.incrementAndGet(bucket);
+        latencyCount.increment();
+        latencyTotalNanos.add(nanos);
+        latencyMaxNanos.accumulate(nanos);
+    }
+
+    /**
+     * Records when the data in use was loaded.
+     */
+    public void snapshotLoaded(long loadedAtMillis) {
+        snapshotLoadedAtMillis = loadedAtMillis;
+    }
+
+    /**
+     * Records a completed data refresh.
+     *
+     * @param nanos Duration of the refresh
+     * @param loadedAtMillis When the refreshed data was loaded
+     */
+    public void refreshed(long nanos, long loadedAtMillis) {
+        lastRefreshNanos = nanos;
+        snapshotLoadedAtMillis = loadedAtMillis;
+        refreshes.increment();
+    }
+
+    /**
+     * Records a failed data refresh.
+     */
+    public void refreshFailed(Throwable e) {
+        refreshFailures.increment();
+        swallowed("DataRefresher.refresh", e);
+    }
+
+    @Override
+    public Map<String, Double> getPhaseTimesMillis() {
+        Map<String, Double> times = new TreeMap<>();
+        phaseNanos.forEach((phase, nanos) -> times.put(phase.name(), nanos.sum() / 1e6));
+        return times;
+    }
+
+    @Override
+    public Map<String, Long> getPhaseCounts() {
+        return sums(phaseCounts);
+    }
+
+    @Override
+    public Map<String, Long> getRowsRead() {
+        return sums(rowsRead);
+    }
+
+    @Override
+    public Map<String, Long> getRowsSkipped() {
+        return sums(rowsSkipped);
+    }
+
+    @Override
+    public Map<String, Long> getSwallowedExceptions() {
+        Map<String, Long> counts = new TreeMap<>();
+        swallowed.forEach((where, count) -> counts.put(where, count.sum()));
+        return counts;
+    }
+
+    @Override
+    public String getLastSwallowedException() {
+        return lastSwallowed;
+    }
+
+    @Override
+    public long getEmployeeComputations() {
+        return latencyCount.sum();
+    }
+
+    @Override
+    public double getEmployeeLatencyMeanMicros() {
+        long count = latencyCount.sum();
+        return count == 0 ? 0 : latencyTotalNanos.sum() / 1e3 / count;
+    }
+
+    @Override
+    public double getEmployeeLatencyP50Micros() {
+        return percentileMicros(0.50);
+    }
+
+    @Override
+    public double getEmployeeLatencyP90Micros() {
+        return percentileMicros(0.90);
+    }
+
+    @Override
+    public double getEmployeeLatencyP99Micros() {
+        return percentileMicros(0.99);
+    }
+
+    @Override
+    public double getEmployeeLatencyMaxMicros() {
+        return latencyMaxNanos.get() / 1e3;
+    }
+
+    @Override
+    public long[] getEmployeeLatencyHistogram() {
+        long[] histogram = new long[HISTOGRAM_BUCKETS];
+        for (int i = 0; i < HISTOGRAM_BUCKETS; i++) {
+            histogram[i] = latencyBuckets.get(i);
+        }
+        return histogram;
+    }
+
+    @Override
+    public long getSnapshotAgeSeconds() {
+        long loadedAt = snapshotLoadedAtMillis;
+        return loadedAt == 0 ? -1 : (System.currentTimeMillis() - loadedAt) / 1000;
+    }
+
+    @Override
+    public long getRefreshes() {
+        return refreshes.sum();
+    }
+
+    @Override
+    public long getRefreshFailures() {
+        return refreshFailures.sum();
+    }
+
+    @Override
+    public double getLastRefreshMillis() {
+        return lastRefreshNanos / 1e6;
+    }
+
+    @Override
+    public void reset() {
+        phaseNanos.values().forEach(LongAdder::reset);
+        phaseCounts.values().forEach(LongAdder::reset);
+        rowsRead.values().forEach(LongAdder::reset);
+        rowsSkipped.values().forEach(LongAdder::reset);
+        swallowed.clear();
+        lastSwallowed = "";
+        for (int i = 0; i < HISTOGRAM_BUCKETS; i++) {
+            latencyBuckets.set(i, 0);
+        }
+        latencyCount.reset();
+        latencyTotalNanos.reset();
+        latencyMaxNanos.reset();
+        lastRefreshNanos = 0;
+        refreshes.reset();
+        refreshFailures.reset();
+    }
+
+    /**
+     * Formats the timers and counters as a short multi-line report.
+     */
+    public String summary() {
+        StringBuilder out = new StringBuilder("=== Run Metrics ===\n");
+        out.append("Phase times (ms):");
+        for (Phase phase : Phase.values()) {
+            out.append(String.format(" %s %.1f (%d)", phase.name().toLowerCase(), phaseNanos.get(phase).sum() / 1e6,
+                    phaseCounts.get(phase).sum()));
+        }
+        out.append('\n');
+
+        out.append("Rows read:");
+        rowsRead.forEach((dataset, rows) -> out.append(' ').append(dataset.name().toLowerCase()).append(' ')
+                .append(rows.sum()));
+        out.append('\n');
+
+        out.append("Rows skipped:");
+        long skipped = 0;
+        for (Map.Entry<SkipReason, LongAdder> entry : rowsSkipped.entrySet()) {
+            long count = entry.getValue().sum();
+            if (count > 0) {
+                out.append(' ').append(entry.getKey().name().toLowerCase()).append(' ').append(count);
+                skipped += count;
+            }
+        }
+        out.append(skipped == 0 ? " none\n" : "\n");
+
+        Map<String, Long> exceptions = getSwallowedExceptions();
+        out.append("Handled exceptions:");
+        if (exceptions.isEmpty()) {
+            out.append(" none\n");
+        } else {
+            exceptions.forEach((where, count) -> out.append(' ').append(where).append(' ').append(count));
+            out.append("\n  last: ").append(lastSwallowed).append('\n');
+        }
+
+        out.append(String.format("Employee computations: %d, mean %.1f us, p50 %.1f us, p99 %.1f us, max %.1f us%n",
+                getEmployeeComputations(), getEmployeeLatencyMeanMicros(), getEmployeeLatencyP50Micros(),
+                getEmployeeLatencyP99Micros(), getEmployeeLatencyMaxMicros()));
+
+        if (snapshotLoadedAtMillis != 0) {
+            out.append(String.format("Data: loaded %d s ago, %d refreshes (%d failed), last refresh %.1f ms%n",
+                    getSnapshotAgeSeconds(), getRefreshes(), getRefreshFailures(), getLastRefreshMillis()));
+        }
+        return out.toString();
+    }
+
+    /**
+     * Upper bound of the histogram bucket holding the given percentile
+     */
+    private double percentileMicros(double percentile) {
+        long count = latencyCount.sum();
+        if (count == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(percentile * count);
+        long seen = 0;
+        for (int i = 0; i < HISTOGRAM_BUCKETS; i++) {
+            seen += latencyBuckets.get(i);
+            if (seen >= rank) {
+                return Math.min((double) (1L << Math.min(i, 62)), latencyMaxNanos.get()) / 1e3;
+            }
+        }
+        return latencyMaxNanos.get() / 1e3;
+    }
+
+    private static <K extends Enum<K>> Map<String, Long> sums(Map<K, LongAdder> counters) {
+        Map<String, Long> sums = new TreeMap<>();
+        counters.forEach((key, counter) -> sums.put(key.name(), counter.sum()));
+        return sums;
+    }
+}
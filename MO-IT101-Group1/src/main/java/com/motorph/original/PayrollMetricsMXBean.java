@@ -0,0 +1,86 @@
+package com.motorph.original;
+
+import java.util.Map;
+
+/**
+ * Management interface of {@link PayrollMetrics}, published over JMX as
+ * {@value PayrollMetrics#OBJECT_NAME}.
+ */
+public interface PayrollMetricsMXBean {
+
+    /**
+     * Total time spent in each phase, in milliseconds (summed over all threads).
+     */
+    Map<String, Double> getPhaseTimesMillis();
+
+    /**
+     * Number of times each phase ran.
+     */
+    Map<String, Long> getPhaseCounts();
+
+    /**
+     * Rows read from each data set, including skipped rows.
+     */
+    Map<String, Long> getRowsRead();
+
+    /**
+     * Rows skipped while loading, by reason.
+     */
+    Map<String, Long> getRowsSkipped();
+
+    /**
+     * Exceptions that were handled without failing the run, by where they were caught.
+     */
+    Map<String, Long> getSwallowedExceptions();
+
+    /**
+     * Where and why the most recent swallowed exception happened, or an empty string.
+     */
+    String getLastSwallowedException();
+
+    /**
+     * Number of per-employee pay computations.
+     */
+    long getEmployeeComputations();
+
+    double getEmployeeLatencyMeanMicros();
+
+    double getEmployeeLatencyP50Micros();
+
+    double getEmployeeLatencyP90Micros();
+
+    double getEmployeeLatencyP99Micros();
+
+    double getEmployeeLatencyMaxMicros();
+
+    /**
+     * Per-employee computation counts in power-of-two nanosecond buckets: entry i
+     * counts computations that took less than 2^i ns (and at least 2^(i-1) ns).
+     */
+    long[] getEmployeeLatencyHistogram();
+
+    /**
+     * Seconds since the data currently in use was loaded, or -1 before it is loaded.
+     */
+    long getSnapshotAgeSeconds();
+
+    /**
+     * Number of completed data refreshes.
+     */
+    long getRefreshes();
+
+    /**
+     * Number of data refreshes that failed.
+     */
+    long getRefreshFailures();
+
+    /**
+     * Duration of the most recent completed data refresh.
+     */
+    double getLastRefreshMillis();
+
+    /**
+     * Clears all timers and counters.
+     */
+    void reset();
+}
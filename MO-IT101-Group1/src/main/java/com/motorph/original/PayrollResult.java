@@ -0,0 +1,87 @@
+package com.motorph.original;
+
+/**
+ * Computed pay of one employee for a pay period.
+ *
+ * Holds the hours, pay, pro-rated allowances, net pay and attendance
+ * statistics that the payroll reports print, so that the computation can run on worker threads and the
+ * printing can happen afterwards in employee order.
+ *
+ * Amounts are held in centavos (see {@link Centavos}) so that reports can add
+ * them up exactly; the accessors without the Centavos suffix return pesos for
+ * display.
+ *
+ * @param employee The employee the result belongs to
+ * @param hourlyRateCentavos Hourly rate used for the computation
+ * @param regularHours Regular hours worked in the period
+ * @param overtimeHours Overtime hours worked in the period
+ * @param regularPayCentavos Pay for regular hours
+ * @param overtimePayCentavos Pay for overtime hours
+ * @param grossPayCentavos Regular pay plus overtime pay
+ * @param riceSubsidyCentavos Pro-rated rice subsidy
+ * @param phoneAllowanceCentavos Pro-rated phone allowance
+ * @param clothingAllowanceCentavos Pro-rated clothing allowance
+ * @param totalAllowancesCentavos Sum of the pro-rated allowances
+ * @param workingDays Number of working days in the period
+ * @param netPayCentavos Gross pay after deductions plus allowances
+ * @param tardiness Lateness, undertime and early outs in the period
+ */
+public record PayrollResult(
+        Employee employee,
+        long hourlyRateCentavos,
+        double regularHours,
+        double overtimeHours,
+        long regularPayCentavos,
+        long overtimePayCentavos,
+        long grossPayCentavos,
+        long riceSubsidyCentavos,
+        long phoneAllowanceCentavos,
+        long clothingAllowanceCentavos,
+        long totalAllowancesCentavos,
+        double workingDays,
+        long netPayCentavos,
+        TardinessStats tardiness) {
+
+    /**
+     * Total hours worked (regular plus overtime).
+     */
+    public double totalHours() {
+        return regularHours + overtimeHours;
+    }
+
+    public double hourlyRate() {
+        return Centavos.toPesos(hourlyRateCentavos);
+    }
+
+    public double regularPay() {
+        return Centavos.toPesos(regularPayCentavos);
+    }
+
+    public double overtimePay() {
+        return Centavos.toPesos(overtimePayCentavos);
+    }
+
+    public double grossPay() {
+        return Centavos.toPesos(grossPayCentavos);
+    }
+
+    public double riceSubsidy() {
+        return Centavos.toPesos(riceSubsidyCentavos);
+    }
+
+    public double phoneAllowance() {
+        return Centavos.toPesos(phoneAllowanceCentavos);
+    }
+
+    public double clothingAllowance() {
+        return Centavos.toPesos(clothingAllowanceCentavos);
+    }
+
+    public double totalAllowances() {
+        return Centavos.toPesos(totalAllowancesCentavos);
+    }
+
+    public double netPay() {
+        return Centavos.toPesos(netPayCentavos);
+    }
+}
@@ -0,0 +1,155 @@
+package com.motorph.original;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Runs per-employee payroll computations in parallel on a fork-join pool.
+ *
+ * Each employee's gross pay, allowances and deductions are independent of every
+ * other employee, so the employee list is split into ranges that are computed on
+ * separate cores. Results are written back by position, which keeps them in the
+ * same order as the input list for printing.
+ *
+ * The degree of parallelism is taken from the {@value #PARALLELISM_PROPERTY}
+ * system property and defaults to the number of available processors. A value
+ * of 1 runs everything on the calling thread.
+ */
+public final class PayrollRunEngine {
+
+    /**
+     * System property used to configure the number of worker threads
+     */
+    public static final String PARALLELISM_PROPERTY = "motorph.parallelism";
+
+    /**
+     * Smallest number of employees handed to a single task before splitting stops
+     */
+    private static final int SPLIT_THRESHOLD = 64;
+
+    private final int parallelism;
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates an engine with the given number of worker threads.
+     *
+     * @param parallelism Number of worker threads (at least 1)
+     */
+    public PayrollRunEngine(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1: " + parallelism);
+        }
+        this.parallelism = parallelism;
+        this.pool = parallelism > 1 ? new ForkJoinPool(parallelism) : null;
+    }
+
+    /**
+     * Creates an engine configured from the {@value #PARALLELISM_PROPERTY} system property.
+     */
+    public static PayrollRunEngine fromSystemProperties() {
+        int processors = Runtime.getRuntime().availableProcessors();
+        String configured = System.getProperty(PARALLELISM_PROPERTY);
+        if (configured != null) {
+            try {
+                return new PayrollRunEngine(Math.max(1, Integer.parseInt(configured.trim())));
+            } catch (NumberFormatException e) {
+                System.err.println("Ignoring invalid " + PARALLELISM_PROPERTY + ": " + configured);
+            }
+        }
+        return new PayrollRunEngine(processors);
+    }
+
+    /**
+     * Returns the number of worker threads used by this engine.
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Applies the task to every item and returns the results in input order.
+     *
+     * The task must not depend on shared mutable state, since it may be called
+     * from several threads at once.
+     *
+     * @param items The items to process (typically employees)
+     * @param task The computation to run for each item
+     * @return The results, in the same order as the items
+     */
+    public <T, R> List<R> run(List<T> items, Function<? super T, ? extends R> task) {
+        @SuppressWarnings("unchecked")
+        R[] results = (R[]) new Object[items.size()];
+
+        if (pool == null || items.size() <= SPLIT_THRESHOLD) {
+            for (int i = 0; i < results.length; i++) {
+                results[i] = task.apply(items.get(i));
+            }
+        } else {
+            pool.invoke(new RangeTask<>(items, task, results, 0, results.length));
+        }
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Applies the task to every item, handing the results to the consumer one
+     * chunk at a time in input order.
+     *
+     * Each chunk is computed in parallel and passed on before the next chunk is
+     * started, so at most one chunk of results is held in memory however many
+     * items there are. The consumer runs on the calling thread.
+     *
+     * @param items The items to process (typically employees)
+     * @param chunkSize Number of items computed per chunk
+     * @param task The computation to run for each item
+     * @param consumer Receives the results of each chunk, in the same order as the items
+     */
+    public <T, R> void runInChunks(List<T> items, int chunkSize, Function<? super T, ? extends R> task,
+            Consumer<? super List<R>> consumer) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be at least 1: " + chunkSize);
+        }
+        for (int from = 0; from < items.size(); from += chunkSize) {
+            List<T> chunk = items.subList(from, Math.min(items.size(), from + chunkSize));
+            consumer.accept(run(chunk, task));
+        }
+    }
+
+    /**
+     * Computes a contiguous range of items, splitting it in half until it is
+     * small enough to run directly.
+     */
+    private static final class RangeTask<T, R> extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final List<T> items;
+        private final Function<? super T, ? extends R> task;
+        private final R[] results;
+        private final int from;
+        private final int to;
+
+        RangeTask(List<T> items, Function<? super T, ? extends R> task, R[] results, int from, int to) {
+            this.items = items;
+            this.task = task;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SPLIT_THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    results[i] = task.apply(items.get(i));
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new RangeTask<>(items, task, results, from, mid),
+                    new RangeTask<>(items, task, results, mid, to));
+        }
+    }
+}
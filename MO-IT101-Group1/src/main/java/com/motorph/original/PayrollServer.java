@@ -0,0 +1,403 @@
+package com.motorph.original;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Serves employee, attendance and payroll data over HTTP as JSON.
+ *
+ * Runs on the JDK's built-in HTTP server. Each request reads the current
+ * {@link PayrollSnapshot} once and uses it throughout, so requests are handled
+ * concurrently without locking and see consistent data while the data is
+ * refreshed in the background. Endpoints (all GET, dates as yyyy-MM-dd):
+ * <pre>
+ * /health                                   status, number of employees and data age
+ * /employees?q=term                         employees matching a search term (all without q)
+ * /employees/{number}                       one employee
+ * /attendance/{number}?from=...&amp;to=...      attendance records of one employee
+ * /payslips/{number}?from=...&amp;to=...        payslip of one employee (JSON, or text with format=text)
+ * /register?from=...&amp;to=...                 payroll register of all employees as JSON Lines
+ * </pre>
+ * Payslip and register rows have the same fields as the exported payroll
+ * register (see {@link PayrollExporter}).
+ *
+ * Requests are handled on a fixed pool of worker threads; its size is taken
+ * from the {@value #THREADS_PROPERTY} system property and defaults to twice
+ * the number of available processors.
+ */
+public final class PayrollServer {
+
+    /**
+     * System property used to configure the number of request threads
+     */
+    public static final String THREADS_PROPERTY = "motorph.server.threads";
+
+    /**
+     * Connections waiting to be accepted before new ones are refused
+     */
+    private static final int BACKLOG = 256;
+
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Computes single payslips on the request thread
+     */
+    private static final PayrollRunEngine SINGLE_THREADED = new PayrollRunEngine(1);
+
+    static {
+        // Headers and body go out as separate writes; without TCP_NODELAY every
+        // small response waits for the client's delayed ACK (about 40 ms)
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final Supplier<PayrollSnapshot> data;
+    private final PayrollRunEngine engine;
+    private final HttpServer server;
+    private final ExecutorService pool;
+
+    /**
+     * Creates a server for the given data; call {@link #start()} to begin serving.
+     *
+     * @param data Supplies the current data snapshot
+     * @param engine Engine used to compute payroll registers
+     * @param port The port to listen on (0 picks a free port)
+     * @param threads Number of request threads (at least 1)
+     * @throws IOException If the port cannot be bound
+     */
+    public PayrollServer(Supplier<PayrollSnapshot> data, PayrollRunEngine engine, int port, int threads) throws IOException {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Threads must be at least 1: " + threads);
+        }
+        this.data = data;
+        this.engine = engine;
+        this.server = HttpServer.create(new InetSocketAddress(port), BACKLOG);
+        this.pool = Executors.newFixedThreadPool(threads, requestThreads());
+
+        server.setExecutor(pool);
+        server.createContext("/health", get(data, this::health));
+        server.createContext("/employees", get(data, this::employees));
+        server.createContext("/attendance/", get(data, this::attendance));
+        server.createContext("/payslips/", get(data, this::payslip));
+        server.createContext("/register", get(data, this::register));
+    }
+
+    /**
+     * Creates a server whose thread count is taken from the {@value #THREADS_PROPERTY} system property.
+     */
+    public static PayrollServer fromSystemProperties(Supplier<PayrollSnapshot> data, PayrollRunEngine engine, int port)
+            throws IOException {
+        int threads = 2 * Runtime.getRuntime().availableProcessors();
+        String configured = System.getProperty(THREADS_PROPERTY);
+        if (configured != null) {
+            try {
+                threads = Math.max(1, Integer.parseInt(configured.trim()));
+            } catch (NumberFormatException e) {
+                System.err.println("Ignoring invalid " + THREADS_PROPERTY + ": " + configured);
+            }
+        }
+        return new PayrollServer(data, engine, port, threads);
+    }
+
+    /**
+     * Starts serving requests in the background.
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Stops accepting requests, waits up to the given time for running
+     * requests to finish and releases the request threads.
+     */
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        pool.shutdown();
+        try {
+            pool.awaitTermination(delaySeconds, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        pool.shutdownNow();
+    }
+
+    /**
+     * Returns the port the server listens on.
+     */
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    private void health(HttpExchange exchange, Map<String, String> query, PayrollSnapshot data) throws IOException {
+        send(exchange, 200, "{\"status\":\"ok\",\"employees\":" + data.employees().size()
+                + ",\"dataAgeSeconds\":" + data.ageMillis() / 1000 + "}");
+    }
+
+    private void employees(HttpExchange exchange, Map<String, String> query, PayrollSnapshot data)
+            throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        if (path.equals("/employees") || path.equals("/employees/")) {
+            String term = query.get("q");
+            List<Employee> matches = term == null ? data.employees() : data.searchIndex().search(term);
+            StringBuilder json = new StringBuilder(64 + 256 * matches.size()).append('[');
+            for (int i = 0; i < matches.size(); i++) {
+                if (i > 0) {
+                    json.append(',');
+                }
+                appendEmployee(json, matches.get(i));
+            }
+            send(exchange, 200, json.append(']').toString());
+            return;
+        }
+
+        Employee employee = employee(data, path, "/employees/");
+        StringBuilder json = new StringBuilder(256);
+        appendEmployee(json, employee);
+        send(exchange, 200, json.toString());
+    }
+
+    private void attendance(HttpExchange exchange, Map<String, String> query, PayrollSnapshot data)
+            throws IOException {
+        Employee employee = employee(data, exchange.getRequestURI().getPath(), "/attendance/");
+        LocalDate startDate = date(query, "from");
+        LocalDate endDate = endDate(query, startDate);
+
+        AttendanceIndex.EmployeeAttendance attendance = data.attendance().forEmployee(employee.employeeNumber());
+        int from = attendance.fromIndex(startDate.toEpochDay());
+        int to = attendance.toIndex(endDate.toEpochDay());
+        int lateMinute = WorkTotals.LATE_MINUTE;
+
+        StringBuilder json = new StringBuilder(128 + 96 * Math.max(0, to - from));
+        json.append("{\"employeeNumber\":").append(employee.employeeNumber()).append(",\"records\":[");
+        for (int i = from; i < to; i++) {
+            if (i > from) {
+                json.append(',');
+            }
+            int minuteIn = attendance.minuteIn(i);
+            int minuteOut = attendance.minuteOut(i);
+            json.append("{\"date\":\"").append(LocalDate.ofEpochDay(attendance.epochDay(i))).append('"');
+            json.append(",\"in\":\"").append(DateTimeCodec.formatTime(minuteIn)).append('"');
+            json.append(",\"out\":\"").append(DateTimeCodec.formatTime(minuteOut)).append('"');
+            json.append(",\"hours\":").append(Math.round((minuteOut - minuteIn) / 60.0 * 100) / 100.0);
+            json.append(",\"late\":").append(minuteIn >= lateMinute).append('}');
+        }
+        send(exchange, 200, json.append("]}").toString());
+    }
+
+    private void payslip(HttpExchange exchange, Map<String, String> query, PayrollSnapshot data)
+            throws IOException {
+        Employee employee = employee(data, exchange.getRequestURI().getPath(), "/payslips/");
+        LocalDate startDate = date(query, "from");
+        LocalDate endDate = endDate(query, startDate);
+        PayrollCalculator calculator = MotorPHPayroll.calculatorFor(endDate);
+
+        if ("text".equals(query.get("format"))) {
+            PayrollResult result = MotorPHPayroll.computeEmployeePay(employee, data.workHours(), calculator,
+                    startDate, endDate);
+            String payslip = PayslipRenderer.render("EMPLOYEE PAYSLIP", result, calculator, startDate, endDate,
+                    MotorPHPayroll.workDaysPerMonth(endDate));
+            send(exchange, 200, "text/plain; charset=utf-8", payslip);
+            return;
+        }
+
+        // A register of one row, so the fields match the register and export
+        StringWriter row = new StringWriter(1024);
+        new PayrollExporter(SINGLE_THREADED).export(List.of(employee),
+                e -> MotorPHPayroll.computeEmployeePay(e, data.workHours(), calculator, startDate, endDate),
+                calculator, startDate, endDate, row, PayrollExporter.Format.JSONL);
+        send(exchange, 200, row.toString().trim());
+    }
+
+    private void register(HttpExchange exchange, Map<String, String> query, PayrollSnapshot data)
+            throws IOException {
+        LocalDate startDate = date(query, "from");
+        LocalDate endDate = endDate(query, startDate);
+        PayrollCalculator calculator = MotorPHPayroll.calculatorFor(endDate);
+
+        // Streamed in chunks as the rows are computed; the length is not known up front
+        exchange.getResponseHeaders().set("Content-Type", "application/x-ndjson; charset=utf-8");
+        exchange.sendResponseHeaders(200, 0);
+        try (Writer writer = new BufferedWriter(
+                new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8), WRITE_BUFFER_SIZE)) {
+            new PayrollExporter(engine).export(data.employees(),
+                    e -> MotorPHPayroll.computeEmployeePay(e, data.workHours(), calculator, startDate, endDate),
+                    calculator, startDate, endDate, writer, PayrollExporter.Format.JSONL);
+        }
+    }
+
+    private static Employee employee(PayrollSnapshot data, String path, String prefix) {
+        String number = path.substring(prefix.length());
+        try {
+            Employee employee = data.searchIndex().find(Integer.parseInt(number));
+            if (employee == null) {
+                throw new RequestException(404, "Employee not found: " + number);
+            }
+            return employee;
+        } catch (NumberFormatException e) {
+            throw new RequestException(400, "Invalid employee number: " + number);
+        }
+    }
+
+    private static LocalDate date(Map<String, String> query, String name) {
+        String value = query.get(name);
+        if (value == null) {
+            throw new RequestException(400, "Missing parameter: " + name);
+        }
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new RequestException(400, "Invalid date for " + name + " (expected yyyy-MM-dd): " + value);
+        }
+    }
+
+    /**
+     * Parses the "to" parameter, which must not be before the given start date
+     */
+    private static LocalDate endDate(Map<String, String> query, LocalDate startDate) {
+        LocalDate endDate = date(query, "to");
+        if (endDate.isBefore(startDate)) {
+            throw new RequestException(400, "to is before from");
+        }
+        return endDate;
+    }
+
+    private static void appendEmployee(StringBuilder json, Employee employee) throws IOException {
+        json.append("{\"employeeNumber\":").append(employee.employeeNumber());
+        json.append(",\"lastName\":");
+        TextEscaping.appendJson(json, employee.lastName());
+        json.append(",\"firstName\":");
+        TextEscaping.appendJson(json, employee.firstName());
+        json.append(",\"birthday\":");
+        TextEscaping.appendJson(json, employee.birthday());
+        json.append(",\"status\":");
+        TextEscaping.appendJson(json, employee.status());
+        json.append(",\"position\":");
+        TextEscaping.appendJson(json, employee.position());
+        json.append(",\"basicSalary\":").append(number(employee.basicSalary()));
+        json.append(",\"riceSubsidy\":").append(number(employee.riceSubsidy()));
+        json.append(",\"phoneAllowance\":").append(number(employee.phoneAllowance()));
+        json.append(",\"clothingAllowance\":").append(number(employee.clothingAllowance()));
+        json.append(",\"hourlyRate\":").append(number(employee.hourlyRate())).append('}');
+    }
+
+    /**
+     * Amounts that could not be parsed (NaN) are written as null
+     */
+    private static String number(double value) {
+        return Double.isFinite(value) ? Double.toString(Math.round(value * 100) / 100.0) : "null";
+    }
+
+    private static void send(HttpExchange exchange, int status, String json) throws IOException {
+        send(exchange, status, "application/json; charset=utf-8", json);
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Handles one request with the parsed query parameters and the current data
+     */
+    private interface Endpoint {
+        void handle(HttpExchange exchange, Map<String, String> query, PayrollSnapshot data) throws IOException;
+    }
+
+    /**
+     * Wraps an endpoint with method checking and error responses, and hands
+     * it the snapshot current when the request arrived
+     */
+    private static HttpHandler get(Supplier<PayrollSnapshot> data, Endpoint endpoint) {
+        return exchange -> {
+            try {
+                if (!exchange.getRequestMethod().equals("GET")) {
+                    exchange.getResponseHeaders().set("Allow", "GET");
+                    sendError(exchange, 405, "Method not allowed: " + exchange.getRequestMethod());
+                    return;
+                }
+                endpoint.handle(exchange, query(exchange.getRequestURI().getRawQuery()), data.get());
+            } catch (RequestException e) {
+                sendError(exchange, e.status, e.getMessage());
+            } catch (IOException | RuntimeException e) {
+                PayrollMetrics.global().swallowed("PayrollServer.handle", e);
+                System.err.println("Request " + exchange.getRequestURI() + " failed: " + e);
+                if (exchange.getResponseCode() == -1) {
+                    sendError(exchange, 500, "Internal error");
+                }
+            } finally {
+                exchange.close();
+            }
+        };
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        StringBuilder json = new StringBuilder("{\"error\":");
+        TextEscaping.appendJson(json, message);
+        send(exchange, status, json.append('}').toString());
+    }
+
+    private static Map<String, String> query(String rawQuery) {
+        Map<String, String> parameters = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return parameters;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            parameters.putIfAbsent(URLDecoder.decode(name, StandardCharsets.UTF_8),
+                    URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return parameters;
+    }
+
+    private static ThreadFactory requestThreads() {
+        AtomicInteger count = new AtomicInteger();
+        return task -> {
+            Thread thread = new Thread(task, "payroll-http-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * A request that cannot be served, answered with the given status
+     */
+    private static final class RequestException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private final int status;
+
+        RequestException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.motorph.original;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One consistent, immutable view of the loaded payroll data and its indexes.
+ *
+ * A snapshot is built completely before it is published and is never changed
+ * afterwards, so any number of threads can read it without locking. A data
+ * refresh builds a new snapshot; code that keeps a reference to the old one
+ * (e.g. a report that is still running) continues to see the old data.
+ *
+ * @param employees All employees, in register order
+ * @param searchIndex Search index over the employees
+ * @param attendance Attendance records by employee
+ * @param workHours Daily work-hour aggregates by employee
+ * @param loadedAtMillis When the data was loaded (System.currentTimeMillis())
+ */
+public record PayrollSnapshot(List<Employee> employees, EmployeeSearchIndex searchIndex,
+        AttendanceIndex attendance, DailyWorkStore workHours, long loadedAtMillis) {
+
+    public PayrollSnapshot {
+        employees = Collections.unmodifiableList(employees);
+    }
+
+    /**
+     * Returns the time since the data was loaded, in milliseconds.
+     */
+    public long ageMillis() {
+        return System.currentTimeMillis() - loadedAtMillis;
+    }
+}
@@ -0,0 +1,83 @@
+package com.motorph.original;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Renders the payslip of one employee as text.
+ *
+ * Used both for the interactive payslip screen and for the bulk payslip job,
+ * so a printed payslip and a payslip file always show the same breakdown:
+ * hours worked, pay, deductions, pro-rated allowances and net pay.
+ */
+public final class PayslipRenderer {
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("MM/dd/yyyy");
+
+    private PayslipRenderer() {
+    }
+
+    /**
+     * Renders a payslip.
+     *
+     * @param title Title printed at the top (e.g. "EMPLOYEE PAYSLIP")
+     * @param result The computed pay of the employee
+     * @param payrollCalculator Calculator for the period's deductions
+     * @param startDate First day of the period
+     * @param endDate Last day of the period
+     * @param workDaysPerMonth Working days the allowances are pro-rated against
+     * @return The payslip text, one line per item, ending with a line break
+     */
+    public static String render(String title, PayrollResult result, PayrollCalculator payrollCalculator,
+            LocalDate startDate, LocalDate endDate, int workDaysPerMonth) {
+        Employee employee = result.employee();
+        long grossPay = result.grossPayCentavos();
+        double workingDays = result.workingDays();
+
+        StringBuilder out = new StringBuilder(1024);
+        out.append("\n═══════════════════════════════════════════\n");
+        out.append("           ").append(title).append('\n');
+        out.append("═══════════════════════════════════════════\n");
+        out.append("Employee No: ").append(employee.employeeNumber()).append('\n');
+        out.append("Name: ").append(employee.fullName()).append('\n');
+        out.append("Position: ").append(employee.position()).append('\n');
+        out.append("Period: ").append(startDate.format(DATE_FORMATTER)).append(" to ")
+                .append(endDate.format(DATE_FORMATTER)).append('\n');
+        out.append("Working Days: ").append((int) workingDays).append(" of ").append(workDaysPerMonth)
+                .append(" days\n");
+        out.append("───────────────────────────────────────────\n");
+        out.append("HOURS WORKED:\n");
+        out.append(String.format("Regular Hours: %.2f\n", result.regularHours()));
+        out.append(String.format("Overtime Hours: %.2f\n", result.overtimeHours()));
+        out.append(String.format("Total Hours: %.2f\n", result.totalHours()));
+        out.append("───────────────────────────────────────────\n");
+        out.append("PAY DETAILS:\n");
+        out.append(String.format("Hourly Rate: ₱%.2f\n", result.hourlyRate()));
+        out.append(String.format("Regular Pay: ₱%.2f\n", result.regularPay()));
+        out.append(String.format("Overtime Pay: ₱%.2f\n", result.overtimePay()));
+        out.append(String.format("Gross Pay: ₱%.2f\n", result.grossPay()));
+        out.append("───────────────────────────────────────────\n");
+        out.append("DEDUCTIONS:\n");
+        // The deductions that went into the net pay, so the lines add up to the total
+        long sss = payrollCalculator.sssDeduction(grossPay);
+        long philHealth = payrollCalculator.philHealthDeduction(grossPay);
+        long pagIbig = payrollCalculator.pagIbigDeduction(grossPay);
+        long withholdingTax = payrollCalculator.withholdingTax(grossPay - sss - philHealth - pagIbig);
+        out.append(String.format("SSS: ₱%.2f\n", Centavos.toPesos(sss)));
+        out.append(String.format("PhilHealth: ₱%.2f\n", Centavos.toPesos(philHealth)));
+        out.append(String.format("Pag-IBIG: ₱%.2f\n", Centavos.toPesos(pagIbig)));
+        out.append(String.format("Withholding Tax: ₱%.2f\n", Centavos.toPesos(withholdingTax)));
+        out.append(String.format("Total Deductions: ₱%.2f\n",
+                Centavos.toPesos(sss + philHealth + pagIbig + withholdingTax)));
+        out.append("───────────────────────────────────────────\n");
+        out.append("ALLOWANCES (Pro-rated for ").append((int) workingDays).append(" days):\n");
+        out.append(String.format("Rice Subsidy: ₱%.2f\n", result.riceSubsidy()));
+        out.append(String.format("Phone Allowance: ₱%.2f\n", result.phoneAllowance()));
+        out.append(String.format("Clothing Allowance: ₱%.2f\n", result.clothingAllowance()));
+        out.append(String.format("Total Allowances: ₱%.2f\n", result.totalAllowances()));
+        out.append("───────────────────────────────────────────\n");
+        out.append(String.format("FINAL NET PAY: ₱%.2f\n", result.netPay()));
+        out.append("═══════════════════════════════════════════\n");
+        return out.toString();
+    }
+}
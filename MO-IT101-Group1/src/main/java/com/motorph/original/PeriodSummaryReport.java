@@ -0,0 +1,296 @@
+package com.motorph.original;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDate;
+import java.time.temporal.IsoFields;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Summary reports for every calendar period (week, half month, month or
+ * quarter) of a date range, computed in one pass over the work hours.
+ *
+ * The range is split into periods first, and a lookup table maps every day of
+ * the range to its period. Each employee's days in the range are then read
+ * once, adding the regular and overtime minutes, lateness, undertime and
+ * early outs of each day to an accumulator per period ({@link WorkTotals}),
+ * and the pay of every period is computed from those sums. A year of weekly
+ * summaries therefore costs one pass over the year rather than one run per
+ * week.
+ *
+ * Periods are clipped to the range, so the first and last period may be
+ * shorter than a full week, month or quarter. Employees are computed in
+ * parallel on the {@link PayrollRunEngine}.
+ */
+public final class PeriodSummaryReport {
+
+    /**
+     * Calendar periods a range can be split into
+     */
+    public enum Granularity {
+        /** ISO weeks, Monday to Sunday */
+        WEEKLY("Week", "Weekly"),
+        /** The 1st to the 15th and the 16th to the end of each month */
+        SEMI_MONTHLY("Half month", "Semi-Monthly"),
+        /** Calendar months */
+        MONTHLY("Month", "Monthly"),
+        /** Calendar quarters */
+        QUARTERLY("Quarter", "Quarterly");
+
+        private final String periodName;
+        private final String title;
+
+        Granularity(String periodName, String title) {
+            this.periodName = periodName;
+            this.title = title;
+        }
+
+        /**
+         * Returns the name used in report titles, e.g. "Weekly".
+         */
+        public String title() {
+            return title;
+        }
+
+        /**
+         * Returns the first day of the period containing the given date.
+         */
+        LocalDate periodStart(LocalDate date) {
+            return switch (this) {
+                case WEEKLY -> date.minusDays(date.getDayOfWeek().getValue() - 1);
+                case SEMI_MONTHLY -> date.withDayOfMonth(date.getDayOfMonth() <= 15 ? 1 : 16);
+                case MONTHLY -> date.withDayOfMonth(1);
+                case QUARTERLY -> date.withMonth((date.getMonthValue() - 1) / 3 * 3 + 1).withDayOfMonth(1);
+            };
+        }
+
+        /**
+         * Returns the last day of the period starting on the given date.
+         */
+        LocalDate periodEnd(LocalDate start) {
+            return switch (this) {
+                case WEEKLY -> start.plusDays(6);
+                case SEMI_MONTHLY -> start.getDayOfMonth() == 1
+                        ? start.withDayOfMonth(15)
+                        : start.with(TemporalAdjusters.lastDayOfMonth());
+                case MONTHLY -> start.with(TemporalAdjusters.lastDayOfMonth());
+                case QUARTERLY -> start.plusMonths(2).with(TemporalAdjusters.lastDayOfMonth());
+            };
+        }
+
+        /**
+         * Returns the label of the period starting on the given date, e.g.
+         * 2024-W01, 2024-01-H1, 2024-01 or 2024-Q1.
+         */
+        String label(LocalDate start) {
+            return switch (this) {
+                case WEEKLY -> String.format(Locale.ROOT, "%d-W%02d", start.get(IsoFields.WEEK_BASED_YEAR),
+                        start.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR));
+                case SEMI_MONTHLY -> String.format(Locale.ROOT, "%d-%02d-H%d", start.getYear(),
+                        start.getMonthValue(), start.getDayOfMonth() == 1 ? 1 : 2);
+                case MONTHLY -> String.format(Locale.ROOT, "%d-%02d", start.getYear(), start.getMonthValue());
+                case QUARTERLY -> String.format(Locale.ROOT, "%d-Q%d", start.getYear(),
+                        start.get(IsoFields.QUARTER_OF_YEAR));
+            };
+        }
+
+        /**
+         * Parses a granularity name such as "weekly" or "semi-monthly".
+         *
+         * @throws IllegalArgumentException If the name is not a granularity
+         */
+        public static Granularity parse(String name) {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+        }
+    }
+
+    /**
+     * One period of the report, clipped to the report range.
+     *
+     * @param label Period label, e.g. 2024-W01
+     * @param start First day (inclusive)
+     * @param end Last day (inclusive)
+     */
+    public record Period(String label, LocalDate start, LocalDate end) {
+    }
+
+    /**
+     * Computes the pay of one employee for one period from the totals of its days.
+     */
+    @FunctionalInterface
+    public interface PeriodPay {
+        PayrollResult compute(Employee employee, int period, WorkTotals totals);
+    }
+
+    /**
+     * The results of a report.
+     *
+     * @param granularity How the range was split
+     * @param periods The periods, in date order
+     * @param results Per employee (in employee order), the result of every period
+     */
+    public record Summary(Granularity granularity, List<Period> periods, List<PayrollResult[]> results) {
+    }
+
+    private final PayrollRunEngine engine;
+
+    /**
+     * Creates a report that computes employees on the given engine.
+     */
+    public PeriodSummaryReport(PayrollRunEngine engine) {
+        this.engine = engine;
+    }
+
+    /**
+     * Splits a date range into calendar periods.
+     *
+     * @param startDate First day of the range (inclusive)
+     * @param endDate Last day of the range (inclusive)
+     * @param granularity The period length
+     * @return The periods in date order, the first and last clipped to the range
+     */
+    public static List<Period> periods(LocalDate startDate, LocalDate endDate, Granularity granularity) {
+        List<Period> periods = new ArrayList<>();
+        LocalDate start = granularity.periodStart(startDate);
+        while (!start.isAfter(endDate)) {
+            LocalDate end = granularity.periodEnd(start);
+            periods.add(new Period(granularity.label(start), start.isBefore(startDate) ? startDate : start,
+                    end.isAfter(endDate) ? endDate : end));
+            start = end.plusDays(1);
+        }
+        return Collections.unmodifiableList(periods);
+    }
+
+    /**
+     * Computes every employee's results for every period.
+     *
+     * @param employees The employees, in report order
+     * @param workHours The daily work-hour aggregates
+     * @param granularity How the range was split
+     * @param periods Contiguous periods in date order, as returned by {@link #periods}
+     * @param pay Computes one period's pay from the totals of its days; called from worker threads
+     * @return The results
+     */
+    public Summary run(List<Employee> employees, DailyWorkStore workHours, Granularity granularity,
+            List<Period> periods, PeriodPay pay) {
+        if (periods.isEmpty()) {
+            return new Summary(granularity, periods, Collections.nCopies(employees.size(), new PayrollResult[0]));
+        }
+
+        // Period of every day in the range, so each day is bucketed with one array read
+        long firstDay = periods.get(0).start().toEpochDay();
+        long lastDay = periods.get(periods.size() - 1).end().toEpochDay();
+        int[] periodOfDay = new int[Math.toIntExact(lastDay - firstDay + 1)];
+        for (int p = 0; p < periods.size(); p++) {
+            int from = (int) (periods.get(p).start().toEpochDay() - firstDay);
+            int to = (int) (periods.get(p).end().toEpochDay() - firstDay);
+            for (int d = from; d <= to; d++) {
+                periodOfDay[d] = p;
+            }
+        }
+
+        PayrollMetrics metrics = PayrollMetrics.global();
+        List<PayrollResult[]> results = engine.run(employees, employee -> {
+            long started = System.nanoTime();
+            WorkTotals[] totals = new WorkTotals[periods.size()];
+            for (int p = 0; p < totals.length; p++) {
+                totals[p] = new WorkTotals();
+            }
+            DailyWorkStore.EmployeeDays days = workHours.forEmployee(employee.employeeNumber());
+            int to = days.toIndex(lastDay);
+            for (int i = days.fromIndex(firstDay); i < to; i++) {
+                totals[periodOfDay[(int) (days.epochDay(i) - firstDay)]].addDay(days.regularMinutes(i),
+                        days.overtimeMinutes(i), days.firstIn(i), days.lastOut(i));
+            }
+            metrics.recordPhase(PayrollMetrics.Phase.AGGREGATE, started);
+
+            PayrollResult[] employeeResults = new PayrollResult[periods.size()];
+            for (int p = 0; p < employeeResults.length; p++) {
+                employeeResults[p] = pay.compute(employee, p, totals[p]);
+            }
+            metrics.recordEmployee(System.nanoTime() - started);
+            return employeeResults;
+        });
+        return new Summary(granularity, periods, results);
+    }
+
+    /**
+     * Writes a summary table per period: hours, net pay and gross pay of every
+     * employee, followed by the period totals (summed in centavos).
+     */
+    public static void writeText(Summary summary, Writer out) throws IOException {
+        String rule = "-".repeat(85) + "\n";
+        for (int p = 0; p < summary.periods().size(); p++) {
+            Period period = summary.periods().get(p);
+            out.write(String.format("%n%s %s (%s to %s)%n", summary.granularity().periodName, period.label(),
+                    period.start(), period.end()));
+            out.write(String.format("%-10s %-25s %-15s %-15s %-15s%n",
+                    "Emp#", "Name", "Total Work Hours", "Net Pay", "Gross Pay"));
+            out.write(rule);
+
+            double totalHours = 0;
+            long totalNetPay = 0;
+            long totalGrossPay = 0;
+            for (PayrollResult[] employeeResults : summary.results()) {
+                PayrollResult result = employeeResults[p];
+                Employee employee = result.employee();
+                out.write(String.format("%-10s %-25s %-15.2f %-15.2f %-15.2f%n",
+                        employee.employeeNumber(), employee.fullName(), result.totalHours(), result.netPay(),
+                        result.grossPay()));
+                totalHours += result.totalHours();
+                totalNetPay += result.netPayCentavos();
+                totalGrossPay += result.grossPayCentavos();
+            }
+
+            out.write(rule);
+            out.write(String.format("%-10s %-25s %-15.2f %-15.2f %-15.2f%n", "Total",
+                    summary.results().size() + " employees", totalHours, Centavos.toPesos(totalNetPay),
+                    Centavos.toPesos(totalGrossPay)));
+        }
+    }
+
+    /**
+     * Writes the report as CSV, one row per period and employee, ordered by
+     * period and then employee. Numbers are formatted by hand, without
+     * String.format, since a year of weekly periods has 53 rows per employee.
+     */
+    public static void writeCsv(Summary summary, Writer out) throws IOException {
+        out.write("period,periodStart,periodEnd,employeeNumber,name,regularHours,overtimeHours,totalHours,"
+                + "grossPay,totalAllowances,netPay\n");
+        StringBuilder row = new StringBuilder(128);
+        for (int p = 0; p < summary.periods().size(); p++) {
+            Period period = summary.periods().get(p);
+            for (PayrollResult[] employeeResults : summary.results()) {
+                PayrollResult result = employeeResults[p];
+                row.setLength(0);
+                row.append(period.label()).append(',').append(period.start()).append(',').append(period.end())
+                        .append(',').append(result.employee().employeeNumber()).append(',')
+                        .append(TextEscaping.csv(result.employee().fullName())).append(',');
+                // Hours are whole minutes / 60, which never fall halfway between two hundredths
+                appendHundredths(row, Math.round(result.regularHours() * 100)).append(',');
+                appendHundredths(row, Math.round(result.overtimeHours() * 100)).append(',');
+                appendHundredths(row, Math.round(result.totalHours() * 100)).append(',');
+                appendHundredths(row, result.grossPayCentavos()).append(',');
+                appendHundredths(row, result.totalAllowancesCentavos()).append(',');
+                appendHundredths(row, result.netPayCentavos()).append('\n');
+                out.append(row);
+            }
+        }
+    }
+
+    /**
+     * Appends a value held in hundredths (e.g. centavos) with two decimals
+     */
+    private static StringBuilder appendHundredths(StringBuilder row, long hundredths) {
+        if (hundredths < 0) {
+            row.append('-');
+            hundredths = -hundredths;
+        }
+        long fraction = hundredths % 100;
+        return row.append(hundredths / 100).append(fraction < 10 ? ".0" : ".").append(fraction);
+    }
+}
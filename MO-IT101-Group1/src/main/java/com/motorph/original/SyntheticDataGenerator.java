@@ -0,0 +1,431 @@
+package com.motorph.original;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.SplittableRandom;
+
+/**
+ * Generates synthetic employee and attendance CSV files for load and scaling
+ * tests, so real payroll data never has to leave the company.
+ *
+ * The employee file uses the same 19 columns as the employee master list
+ * (Employee # through Hourly Rate) and the attendance file the same 6 columns
+ * as the attendance export (Employee #, Last Name, First Name, Date, Log In,
+ * Log Out), so both can be passed straight to the payroll with --employees and
+ * --attendance.
+ *
+ * Every employee gets one punch per weekday in the date range. A configurable
+ * share of days include overtime, a configurable share of log ins are late
+ * (at or after 8:10), and a configurable share of attendance rows are deliberately
+ * malformed (bad date, bad time, bad employee number or missing columns) to
+ * exercise the loaders' validation.
+ *
+ * Output is fully determined by the seed and settings. Rows are formatted by
+ * hand and streamed through a large buffer, so a year of punches for 100,000
+ * employees can be written without holding it in memory.
+ *
+ * Usage:
+ * <pre>
+ * java com.motorph.original.SyntheticDataGenerator --out data --employees 100000
+ *     [--from 2024-01-01] [--to 2024-12-31] [--seed 1] [--overtime 0.2]
+ *     [--late 0.1] [--malformed 0.001]
+ * </pre>
+ */
+public final class SyntheticDataGenerator {
+
+    private static final int WRITE_BUFFER_SIZE = 1 << 20;
+    private static final int FIRST_EMPLOYEE_NUMBER = 10001;
+
+    private static final String EMPLOYEE_HEADER = "Employee #,Last Name,First Name,Birthday,Address,"
+            + "Phone Number,SSS #,Philhealth #,TIN #,Pag-ibig #,Status,Position,Immediate Supervisor,"
+            + "Basic Salary,Rice Subsidy,Phone Allowance,Clothing Allowance,Gross Semi-monthly Rate,Hourly Rate\n";
+    private static final String ATTENDANCE_HEADER = "Employee #,Last Name,First Name,Date,Log In,Log Out\n";
+
+    private static final String[] LAST_NAMES = {
+            "Garcia", "Lim", "Aquino", "Reyes", "Hernandez", "Villanueva", "San Jose", "Romualdez", "Atienza",
+            "Alvaro", "Salcedo", "Lopez", "Farala", "Martinez", "Mata", "De Leon", "Rosario", "Bautista",
+            "Lazaro", "Delos Santos", "Santos", "Del Rosario", "Tolentino", "Gutierrez", "Manalaysay",
+            "Castro", "Mendoza", "Ramos", "Cruz", "Dizon"
+    };
+    private static final String[] FIRST_NAMES = {
+            "Manuel", "Antonio", "Bianca", "Isabella", "Eduard", "Andrea", "Brad", "Alice", "Rosie", "Roderick",
+            "Anthony", "Josie", "Martha", "Leila", "Fredrick", "Christian", "Selena", "Allison", "Cydney",
+            "Mark", "Darlene", "Kolby", "Vella", "Tomas", "Jacklyn", "Percival", "Garfield", "Lizeth",
+            "Carol", "Emelia"
+    };
+
+    /**
+     * Position, basic salary range and share of the workforce, from executives to rank and file
+     */
+    private static final String[] POSITIONS = {
+            "Chief Executive Officer", "HR Manager", "Account Manager", "Account Team Leader",
+            "Payroll Team Leader", "Sales & Marketing", "Supply Chain and Logistics", "Customer Service and Relations",
+            "Account Rank and File"
+    };
+    private static final int[] MIN_SALARY = { 80000, 50000, 50000, 40000, 38000, 50000, 50000, 50000, 22000 };
+    private static final int[] MAX_SALARY = { 95000, 65000, 60000, 55000, 45000, 55000, 55000, 55000, 55000 };
+    private static final int[] POSITION_WEIGHT = { 1, 3, 3, 6, 4, 5, 5, 5, 68 };
+
+    /**
+     * Generator settings
+     *
+     * @param employees Number of employees
+     * @param from First attendance date
+     * @param to Last attendance date
+     * @param seed Random seed; the same seed and settings give the same files
+     * @param overtimeShare Share of workdays with overtime (0 to 1)
+     * @param lateRate Share of log ins at or after 8:10 (0 to 1)
+     * @param malformedRate Share of attendance rows that are malformed (0 to 1)
+     */
+    public record Settings(int employees, LocalDate from, LocalDate to, long seed, double overtimeShare,
+            double lateRate, double malformedRate) {
+
+        public Settings {
+            if (employees < 1) {
+                throw new IllegalArgumentException("Employees must be at least 1: " + employees);
+            }
+            if (to.isBefore(from)) {
+                throw new IllegalArgumentException("Date range ends before it starts: " + from + " to " + to);
+            }
+            checkShare("Overtime share", overtimeShare);
+            checkShare("Late rate", lateRate);
+            checkShare("Malformed rate", malformedRate);
+        }
+
+        private static void checkShare(String name, double value) {
+            if (!(value >= 0 && value <= 1)) {
+                throw new IllegalArgumentException(name + " must be between 0 and 1: " + value);
+            }
+        }
+    }
+
+    private final Settings settings;
+    private final char[] digits = new char[20];
+
+    public SyntheticDataGenerator(Settings settings) {
+        this.settings = settings;
+    }
+
+    /**
+     * Generates employees.csv and attendance.csv in a directory.
+     */
+    public static void main(String[] args) {
+        Path directory = null;
+        int employees = 1000;
+        LocalDate from = LocalDate.of(2024, 1, 1);
+        LocalDate to = LocalDate.of(2024, 12, 31);
+        long seed = 1;
+        double overtime = 0.2;
+        double late = 0.1;
+        double malformed = 0.001;
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String option = args[i];
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException("Missing value for " + option);
+                }
+                String value = args[++i];
+                switch (option) {
+                    case "--out" -> directory = Path.of(value);
+                    case "--employees" -> employees = Integer.parseInt(value);
+                    case "--from" -> from = LocalDate.parse(value);
+                    case "--to" -> to = LocalDate.parse(value);
+                    case "--seed" -> seed = Long.parseLong(value);
+                    case "--overtime" -> overtime = Double.parseDouble(value);
+                    case "--late" -> late = Double.parseDouble(value);
+                    case "--malformed" -> malformed = Double.parseDouble(value);
+                    default -> throw new IllegalArgumentException("Unknown option: " + option);
+                }
+            }
+            if (directory == null) {
+                throw new IllegalArgumentException("--out is required");
+            }
+
+            SyntheticDataGenerator generator = new SyntheticDataGenerator(
+                    new Settings(employees, from, to, seed, overtime, late, malformed));
+            Files.createDirectories(directory);
+            long started = System.nanoTime();
+            generator.writeEmployees(directory.resolve("employees.csv"));
+            long rows = generator.writeAttendance(directory.resolve("attendance.csv"));
+            System.out.printf("Wrote %d employees and %d attendance rows to %s in %.1f s%n",
+                    employees, rows, directory.toAbsolutePath(), (System.nanoTime() - started) / 1e9);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: SyntheticDataGenerator --out <dir> [--employees <n>] [--from <yyyy-MM-dd>]"
+                    + " [--to <yyyy-MM-dd>] [--seed <n>] [--overtime <share>] [--late <rate>] [--malformed <rate>]");
+            System.exit(1);
+        } catch (IOException e) {
+            System.err.println("Error writing data: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Writes the employee master list to a file.
+     */
+    public void writeEmployees(Path file) throws IOException {
+        try (Writer out = open(file)) {
+            writeEmployees(out);
+        }
+    }
+
+    /**
+     * Writes the attendance export to a file.
+     *
+     * @return The number of attendance rows written (excluding the header)
+     */
+    public long writeAttendance(Path file) throws IOException {
+        try (Writer out = open(file)) {
+            return writeAttendance(out);
+        }
+    }
+
+    /**
+     * Writes the employee master list.
+     */
+    public void writeEmployees(Writer out) throws IOException {
+        SplittableRandom random = new SplittableRandom(settings.seed());
+        int totalWeight = 0;
+        for (int weight : POSITION_WEIGHT) {
+            totalWeight += weight;
+        }
+
+        out.write(EMPLOYEE_HEADER);
+        for (int i = 0; i < settings.employees(); i++) {
+            int number = FIRST_EMPLOYEE_NUMBER + i;
+            int position = pickPosition(random.nextInt(totalWeight));
+            int salary = (MIN_SALARY[position]
+                    + random.nextInt(MAX_SALARY[position] - MIN_SALARY[position] + 1)) / 500 * 500;
+            int phone = salary >= 60000 ? 2000 : salary >= 40000 ? 1000 : 500;
+            int clothing = salary >= 60000 ? 1000 : 500;
+
+            writeInt(out, number);
+            out.write(',');
+            out.write(lastName(number));
+            out.write(',');
+            out.write(firstName(number));
+            out.write(',');
+            writeDate(out, LocalDate.of(1960 + random.nextInt(45), 1 + random.nextInt(12), 1 + random.nextInt(28)));
+            out.write(",\"");
+            writeInt(out, 1 + random.nextInt(999));
+            out.write(" Rizal Avenue, Makati City\",");
+            writeDigits(out, random, 3);
+            out.write('-');
+            writeDigits(out, random, 3);
+            out.write('-');
+            writeDigits(out, random, 3);
+            out.write(',');
+            writeDigits(out, random, 2);
+            out.write('-');
+            writeDigits(out, random, 7);
+            out.write('-');
+            writeDigits(out, random, 1);
+            out.write(',');
+            writeDigits(out, random, 12);
+            out.write(',');
+            writeDigits(out, random, 3);
+            out.write('-');
+            writeDigits(out, random, 3);
+            out.write('-');
+            writeDigits(out, random, 3);
+            out.write("-000,");
+            writeDigits(out, random, 12);
+            out.write(random.nextInt(10) < 8 ? ",Regular," : ",Probationary,");
+            writeCsvText(out, POSITIONS[position]);
+            out.write(position == 0 ? ",N/A," : ",\"Garcia, Manuel III\",");
+            writeGroupedAmount(out, salary);
+            out.write(",\"1,500\",");
+            writeGroupedAmount(out, phone);
+            out.write(',');
+            writeGroupedAmount(out, clothing);
+            out.write(',');
+            writeGroupedAmount(out, salary / 2);
+            out.write(',');
+            writeCentavos(out, Math.round(salary * 100.0 / 21 / 8));
+            out.write('\n');
+        }
+    }
+
+    /**
+     * Writes the attendance export: one punch per employee and weekday, ordered by date.
+     *
+     * @return The number of attendance rows written (excluding the header)
+     */
+    public long writeAttendance(Writer out) throws IOException {
+        SplittableRandom random = new SplittableRandom(settings.seed() ^ 0x5DEECE66DL);
+        char[] date = new char[10];
+        long rows = 0;
+
+        out.write(ATTENDANCE_HEADER);
+        for (LocalDate day = settings.from(); !day.isAfter(settings.to()); day = day.plusDays(1)) {
+            if (day.getDayOfWeek() == DayOfWeek.SATURDAY || day.getDayOfWeek() == DayOfWeek.SUNDAY) {
+                continue;
+            }
+            formatDate(day, date);
+
+            for (int i = 0; i < settings.employees(); i++) {
+                int number = FIRST_EMPLOYEE_NUMBER + i;
+
+                // Log in between 7:30 and 8:09, or late from 8:10 up to 9:30
+                int in = random.nextDouble() < settings.lateRate()
+                        ? WorkTotals.LATE_MINUTE + random.nextInt(81)
+                        : 7 * 60 + 30 + random.nextInt(WorkTotals.LATE_MINUTE - (7 * 60 + 30));
+                // Eight hours give or take a few minutes, plus 30 minutes to 4 hours of overtime
+                int out8 = in + 8 * 60 - 15 + random.nextInt(21);
+                int logOut = random.nextDouble() < settings.overtimeShare()
+                        ? Math.min(23 * 60 + 59, out8 + 30 + random.nextInt(211))
+                        : out8;
+
+                boolean malformed = random.nextDouble() < settings.malformedRate();
+                int defect = malformed ? random.nextInt(4) : -1;
+
+                if (defect == 0) {
+                    out.write("EMP");
+                }
+                writeInt(out, number);
+                out.write(',');
+                out.write(lastName(number));
+                out.write(',');
+                out.write(firstName(number));
+                out.write(',');
+                if (defect == 1) {
+                    out.write("13/45/");
+                    out.write(date, 6, 4);
+                } else {
+                    out.write(date);
+                }
+                out.write(',');
+                writeTime(out, in);
+                if (defect != 3) {
+                    out.write(',');
+                    if (defect == 2) {
+                        out.write("25:61");
+                    } else {
+                        writeTime(out, logOut);
+                    }
+                }
+                out.write('\n');
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    private static Writer open(Path file) throws IOException {
+        return new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(file), StandardCharsets.UTF_8),
+                WRITE_BUFFER_SIZE);
+    }
+
+    private static int pickPosition(int ticket) {
+        for (int p = 0; p < POSITION_WEIGHT.length; p++) {
+            ticket -= POSITION_WEIGHT[p];
+            if (ticket < 0) {
+                return p;
+            }
+        }
+        return POSITION_WEIGHT.length - 1;
+    }
+
+    // Names depend only on the employee number, so both files agree without sharing state
+    private static String lastName(int number) {
+        return LAST_NAMES[number % LAST_NAMES.length];
+    }
+
+    private static String firstName(int number) {
+        return FIRST_NAMES[(number * 11 + number / LAST_NAMES.length) % FIRST_NAMES.length];
+    }
+
+    /**
+     * Formats a date as MM/dd/yyyy into a 10-character buffer
+     */
+    private static void formatDate(LocalDate day, char[] date) {
+        int month = day.getMonthValue();
+        int dayOfMonth = day.getDayOfMonth();
+        int year = day.getYear();
+        date[0] = (char) ('0' + month / 10);
+        date[1] = (char) ('0' + month % 10);
+        date[2] = '/';
+        date[3] = (char) ('0' + dayOfMonth / 10);
+        date[4] = (char) ('0' + dayOfMonth % 10);
+        date[5] = '/';
+        date[6] = (char) ('0' + year / 1000);
+        date[7] = (char) ('0' + year / 100 % 10);
+        date[8] = (char) ('0' + year / 10 % 10);
+        date[9] = (char) ('0' + year % 10);
+    }
+
+    private static void writeDate(Writer out, LocalDate day) throws IOException {
+        char[] date = new char[10];
+        formatDate(day, date);
+        out.write(date);
+    }
+
+    /**
+     * Writes minutes after midnight as H:mm
+     */
+    private void writeTime(Writer out, int minutes) throws IOException {
+        writeInt(out, minutes / 60);
+        out.write(':');
+        out.write((char) ('0' + minutes % 60 / 10));
+        out.write((char) ('0' + minutes % 10));
+    }
+
+    private void writeInt(Writer out, long value) throws IOException {
+        int pos = digits.length;
+        do {
+            digits[--pos] = (char) ('0' + value % 10);
+            value /= 10;
+        } while (value > 0);
+        out.write(digits, pos, digits.length - pos);
+    }
+
+    private static void writeDigits(Writer out, SplittableRandom random, int count) throws IOException {
+        for (int i = 0; i < count; i++) {
+            out.write((char) ('0' + random.nextInt(10)));
+        }
+    }
+
+    /**
+     * Writes a whole peso amount with thousands separators in quotes, e.g. "90,000"
+     */
+    private void writeGroupedAmount(Writer out, int amount) throws IOException {
+        out.write('"');
+        if (amount >= 1000) {
+            writeInt(out, amount / 1000);
+            out.write(',');
+            int rest = amount % 1000;
+            out.write((char) ('0' + rest / 100));
+            out.write((char) ('0' + rest / 10 % 10));
+            out.write((char) ('0' + rest % 10));
+        } else {
+            writeInt(out, amount);
+        }
+        out.write('"');
+    }
+
+    private void writeCentavos(Writer out, long centavos) throws IOException {
+        writeInt(out, centavos / 100);
+        out.write('.');
+        out.write((char) ('0' + centavos % 100 / 10));
+        out.write((char) ('0' + centavos % 10));
+    }
+
+    private static void writeCsvText(Writer out, String text) throws IOException {
+        if (text.indexOf(',') < 0) {
+            out.write(text);
+        } else {
+            out.write('"');
+            out.write(text);
+            out.write('"');
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.motorph.original;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Lateness, undertime and early-out report per employee, department and
+ * period.
+ *
+ * The figures come from the {@link TardinessStats} of a
+ * {@link PeriodSummaryReport} run, which sums them in the same pass over the
+ * work hours as the pay, so the report costs no extra scan of the attendance.
+ * The employee's position stands in for the department, since the employee
+ * data has no department column.
+ *
+ * For every period the report lists each employee, then the totals of each
+ * department (in name order) and of the company.
+ */
+public final class TardinessReport {
+
+    private static final String[] CSV_COLUMNS = {
+            "level", "period", "periodStart", "periodEnd", "employeeNumber", "name", "department", "daysWorked",
+            "lateDays", "lateMinutes", "undertimeDays", "undertimeMinutes", "earlyOutDays", "earlyOutMinutes"
+    };
+
+    // Positions of the summed figures in a totals array
+    private static final int DAYS = 0;
+    private static final int LATE_DAYS = 1;
+    private static final int LATE_MINUTES = 2;
+    private static final int UNDERTIME_DAYS = 3;
+    private static final int UNDERTIME_MINUTES = 4;
+    private static final int EARLY_OUT_DAYS = 5;
+    private static final int EARLY_OUT_MINUTES = 6;
+    private static final int FIGURES = 7;
+
+    private TardinessReport() {
+    }
+
+    /**
+     * Writes one table per period: the employees, then the department and
+     * company totals.
+     */
+    public static void writeText(PeriodSummaryReport.Summary summary, Writer out) throws IOException {
+        String rule = "-".repeat(120) + "\n";
+        String header = String.format("%-10s %-25s %-25s %6s %6s %9s %6s %9s %6s %9s%n",
+                "Emp#", "Name", "Department", "Days", "Late", "Late Min", "Under", "Under Min", "Early",
+                "Early Min");
+        for (int p = 0; p < summary.periods().size(); p++) {
+            PeriodSummaryReport.Period period = summary.periods().get(p);
+            out.write(String.format("%n%s Tardiness %s (%s to %s)%n", summary.granularity().title(),
+                    period.label(), period.start(), period.end()));
+            out.write(header);
+            out.write(rule);
+
+            Map<String, long[]> departments = new TreeMap<>();
+            long[] company = new long[FIGURES];
+            for (PayrollResult[] employeeResults : summary.results()) {
+                PayrollResult result = employeeResults[p];
+                Employee employee = result.employee();
+                long[] figures = figures(result.tardiness());
+                writeTextRow(out, String.valueOf(employee.employeeNumber()), employee.fullName(),
+                        employee.position(), figures);
+                add(departments.computeIfAbsent(employee.position(), k -> new long[FIGURES]), figures);
+                add(company, figures);
+            }
+
+            out.write(rule);
+            for (Map.Entry<String, long[]> department : departments.entrySet()) {
+                writeTextRow(out, "Dept", "", department.getKey(), department.getValue());
+            }
+            out.write(rule);
+            writeTextRow(out, "Total", summary.results().size() + " employees", "", company);
+        }
+    }
+
+    /**
+     * Writes the report as CSV. Every period has one row per employee (level
+     * "employee"), one per department ("department") and one for the company
+     * ("total"); the name and number columns are empty where they do not apply.
+     */
+    public static void writeCsv(PeriodSummaryReport.Summary summary, Writer out) throws IOException {
+        out.write(String.join(",", CSV_COLUMNS));
+        out.write('\n');
+        StringBuilder row = new StringBuilder(128);
+        for (int p = 0; p < summary.periods().size(); p++) {
+            PeriodSummaryReport.Period period = summary.periods().get(p);
+            String prefix = "," + period.label() + "," + period.start() + "," + period.end() + ",";
+
+            Map<String, long[]> departments = new TreeMap<>();
+            long[] company = new long[FIGURES];
+            for (PayrollResult[] employeeResults : summary.results()) {
+                PayrollResult result = employeeResults[p];
+                Employee employee = result.employee();
+                long[] figures = figures(result.tardiness());
+                writeCsvRow(out, row, "employee", prefix, String.valueOf(employee.employeeNumber()),
+                        employee.fullName(), employee.position(), figures);
+                add(departments.computeIfAbsent(employee.position(), k -> new long[FIGURES]), figures);
+                add(company, figures);
+            }
+            for (Map.Entry<String, long[]> department : departments.entrySet()) {
+                writeCsvRow(out, row, "department", prefix, "", "", department.getKey(), department.getValue());
+            }
+            writeCsvRow(out, row, "total", prefix, "", "", "", company);
+        }
+    }
+
+    private static long[] figures(TardinessStats stats) {
+        long[] figures = new long[FIGURES];
+        figures[DAYS] = stats.daysWorked();
+        figures[LATE_DAYS] = stats.lateDays();
+        figures[LATE_MINUTES] = stats.lateMinutes();
+        figures[UNDERTIME_DAYS] = stats.undertimeDays();
+        figures[UNDERTIME_MINUTES] = stats.undertimeMinutes();
+        figures[EARLY_OUT_DAYS] = stats.earlyOutDays();
+        figures[EARLY_OUT_MINUTES] = stats.earlyOutMinutes();
+        return figures;
+    }
+
+    private static void add(long[] totals, long[] figures) {
+        for (int i = 0; i < FIGURES; i++) {
+            totals[i] += figures[i];
+        }
+    }
+
+    private static void writeTextRow(Writer out, String number, String name, String department, long[] figures)
+            throws IOException {
+        out.write(String.format("%-10s %-25s %-25s %6d %6d %9d %6d %9d %6d %9d%n", number, name, department,
+                figures[DAYS], figures[LATE_DAYS], figures[LATE_MINUTES], figures[UNDERTIME_DAYS],
+                figures[UNDERTIME_MINUTES], figures[EARLY_OUT_DAYS], figures[EARLY_OUT_MINUTES]));
+    }
+
+    private static void writeCsvRow(Writer out, StringBuilder row, String level, String prefix, String number,
+            String name, String department, long[] figures) throws IOException {
+        row.setLength(0);
+        row.append(level).append(prefix).append(number).append(',').append(TextEscaping.csv(name))
+                .append(',').append(TextEscaping.csv(department));
+        for (long figure : figures) {
+            row.append(',').append(figure);
+        }
+        row.append('\n');
+        out.append(row);
+    }
+}
@@ -0,0 +1,29 @@
+package com.motorph.original;
+
+/**
+ * Lateness, undertime and early outs of one employee over a period.
+ *
+ * See {@link WorkTotals} for how each figure is counted.
+ *
+ * @param daysWorked Days with at least one punch
+ * @param lateDays Days whose first log in was at or after the late threshold
+ * @param lateMinutes Minutes after the shift start on the late days
+ * @param undertimeDays Days with fewer than the regular minutes worked
+ * @param undertimeMinutes Minutes short of the regular minutes on those days
+ * @param earlyOutDays Days whose last log out was before the shift end
+ * @param earlyOutMinutes Minutes before the shift end on those days
+ */
+public record TardinessStats(
+        int daysWorked,
+        int lateDays,
+        long lateMinutes,
+        int undertimeDays,
+        long undertimeMinutes,
+        int earlyOutDays,
+        long earlyOutMinutes) {
+
+    /**
+     * No days worked
+     */
+    public static final TardinessStats NONE = new TardinessStats(0, 0, 0, 0, 0, 0, 0);
+}
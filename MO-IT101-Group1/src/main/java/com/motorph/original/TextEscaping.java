@@ -0,0 +1,54 @@
+package com.motorph.original;
+
+import java.io.IOException;
+
+/**
+ * Escaping rules shared by the CSV and JSON writers, so every export and
+ * response quotes text the same way.
+ */
+final class TextEscaping {
+
+    private TextEscaping() {
+    }
+
+    /**
+     * Returns a text value as a CSV field (RFC 4180): quoted, with quotes
+     * doubled, if it contains a comma, quote, CR or LF, and unchanged (without
+     * copying) otherwise.
+     */
+    static String csv(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return '"' + value.replace("\"", "\"\"") + '"';
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Appends a text value as a JSON string: quoted, with quotes, backslashes
+     * and control characters escaped.
+     */
+    static void appendJson(Appendable out, String value) throws IOException {
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+                }
+            }
+        }
+        out.append('"');
+    }
+}
@@ -0,0 +1,98 @@
+package com.motorph.original;
+
+/**
+ * Running totals over the stored work days of one employee: the regular and
+ * overtime minutes paid, and the lateness, undertime and early outs.
+ *
+ * Every figure is derived from a day's regular minutes, first log in and last
+ * log out, so the attendance statistics are summed in the same pass over the
+ * days that sums the hours for pay. Per day:
+ * <ul>
+ * <li>late: the first log in is at or after {@link #LATE_MINUTE} (08:10);
+ *     the minutes late are counted from {@link #SHIFT_START_MINUTE} (08:00)</li>
+ * <li>undertime: fewer than {@value DailyWorkStore#REGULAR_MINUTES_PER_DAY}
+ *     regular minutes were worked; the shortfall is counted</li>
+ * <li>early out: the last log out is before {@link #SHIFT_END_MINUTE} (17:00);
+ *     the minutes before the shift end are counted</li>
+ * </ul>
+ *
+ * Instances are not thread-safe; each computation uses its own.
+ */
+public final class WorkTotals {
+
+    /**
+     * Start of the working day, in minutes after midnight (08:00)
+     */
+    public static final int SHIFT_START_MINUTE = 8 * 60;
+
+    /**
+     * Earliest first log in counted as late, in minutes after midnight (08:10)
+     */
+    public static final int LATE_MINUTE = 8 * 60 + 10;
+
+    /**
+     * End of the working day, in minutes after midnight (17:00)
+     */
+    public static final int SHIFT_END_MINUTE = 17 * 60;
+
+    private long regularMinutes;
+    private long overtimeMinutes;
+    private int daysWorked;
+    private int lateDays;
+    private long lateMinutes;
+    private int undertimeDays;
+    private long undertimeMinutes;
+    private int earlyOutDays;
+    private long earlyOutMinutes;
+
+    /**
+     * Adds one day.
+     *
+     * @param regular Regular minutes worked
+     * @param overtime Overtime minutes worked
+     * @param firstIn Earliest log in, in minutes after midnight
+     * @param lastOut Latest log out, in minutes after midnight
+     */
+    public void addDay(int regular, int overtime, int firstIn, int lastOut) {
+        regularMinutes += regular;
+        overtimeMinutes += overtime;
+        daysWorked++;
+        if (firstIn >= LATE_MINUTE) {
+            lateDays++;
+            lateMinutes += firstIn - SHIFT_START_MINUTE;
+        }
+        if (regular < DailyWorkStore.REGULAR_MINUTES_PER_DAY) {
+            undertimeDays++;
+            undertimeMinutes += DailyWorkStore.REGULAR_MINUTES_PER_DAY - regular;
+        }
+        if (lastOut < SHIFT_END_MINUTE) {
+            earlyOutDays++;
+            earlyOutMinutes += SHIFT_END_MINUTE - lastOut;
+        }
+    }
+
+    /**
+     * Regular minutes of the days added.
+     */
+    public long regularMinutes() {
+        return regularMinutes;
+    }
+
+    /**
+     * Overtime minutes of the days added.
+     */
+    public long overtimeMinutes() {
+        return overtimeMinutes;
+    }
+
+    /**
+     * Lateness, undertime and early outs of the days added.
+     */
+    public TardinessStats tardiness() {
+        if (daysWorked == 0) {
+            return TardinessStats.NONE;
+        }
+        return new TardinessStats(daysWorked, lateDays, lateMinutes, undertimeDays, undertimeMinutes, earlyOutDays,
+                earlyOutMinutes);
+    }
+}